@@ -0,0 +1,154 @@
+package org.firstinspires.ftc.teamcode.math;
+
+import org.firstinspires.ftc.teamcode.kinematics.ChassisMotion;
+import org.firstinspires.ftc.teamcode.kinematics.HeadingRotation;
+import org.firstinspires.ftc.teamcode.kinematics.MecanumKinematics;
+import org.firstinspires.ftc.teamcode.kinematics.WheelPowers;
+import org.firstinspires.ftc.teamcode.localization.MecanumOdometry;
+import org.firstinspires.ftc.teamcode.localization.Pose2d;
+import org.firstinspires.ftc.teamcode.profile.MotionConstraints;
+import org.firstinspires.ftc.teamcode.profile.MotionProfile;
+import org.firstinspires.ftc.teamcode.profile.MotionProfileGenerator;
+import org.firstinspires.ftc.teamcode.profile.MotionState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the math that runs every control cycle on the robot.
+ * Run with ./gradlew :DriveMath:jmh. The gc profiler is on, so gc.alloc.rate.norm shows the bytes allocated per call (should be ~0).
+ *
+ * Inputs come from arrays of random but repeatable values, so the JIT can't fold the math into constants.
+ */
+@State(Scope.Thread)
+public class DriveMathBenchmark {
+    private static final int SAMPLES = 1024; // Power of two, so the index can wrap with a mask.
+
+    private final double[] sticks = new double[SAMPLES];
+    private final double[] headings = new double[SAMPLES];
+    private final double[] powers = new double[4];
+    private final MotionState setpoint = new MotionState();
+    private MotionProfile profile;
+    private final MecanumOdometry odometry = new MecanumOdometry(38.6, 12, 12);
+    private int ticks;
+    private final MecanumKinematics kinematics = new MecanumKinematics(12, 12);
+    private final HeadingRotation rotation = new HeadingRotation();
+    private final ChassisMotion motion = new ChassisMotion();
+    private int index;
+
+    @Setup
+    public void setup() {
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            sticks[i] = random.nextDouble() * 2 - 1;
+            headings[i] = (random.nextDouble() * 2 - 1) * Math.PI * 4; // Includes headings well outside of +/- 180 degrees.
+        }
+        profile = MotionProfileGenerator.generate(3000, new MotionConstraints(2400, 3600, 24000));
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public double[] robotCentric() {
+        int i = next();
+        MecanumMath.robotCentric(sticks[i], sticks[(i + 1) & (SAMPLES - 1)], sticks[(i + 2) & (SAMPLES - 1)], 0.5, powers);
+        return powers;
+    }
+
+    @Benchmark
+    public double[] fieldCentric() {
+        int i = next();
+        MecanumMath.fieldCentric(sticks[i], sticks[(i + 1) & (SAMPLES - 1)], sticks[(i + 2) & (SAMPLES - 1)], headings[i], 0.5, powers);
+        return powers;
+    }
+
+    @Benchmark
+    public double[] translationAtAngle() {
+        MecanumMath.translationAtAngle(Math.toDegrees(headings[next()]), powers);
+        return powers;
+    }
+
+    @Benchmark
+    public double steeringCorrection() {
+        int i = next();
+        return HeadingMath.steeringCorrection(Math.toDegrees(headings[i]), Math.toDegrees(headings[(i + 1) & (SAMPLES - 1)]), 0.03);
+    }
+
+    // The while-loop normalization from RobotAutoDriveByGyro_Linear, for comparison with HeadingMath.normalizeDegrees().
+    @Benchmark
+    public double normalizeWithLoops() {
+        double error = Math.toDegrees(headings[next()]);
+        while (error > 180) error -= 360;
+        while (error <= -180) error += 360;
+        return error;
+    }
+
+    @Benchmark
+    public double normalizeWithRemainder() {
+        return HeadingMath.normalizeDegrees(Math.toDegrees(headings[next()]));
+    }
+
+    // Trig cost on its own: one sin and one cos, as done once per field-centric cycle.
+    @Benchmark
+    public void sinCos(Blackhole blackhole) {
+        double heading = headings[next()];
+        blackhole.consume(Math.sin(heading));
+        blackhole.consume(Math.cos(heading));
+    }
+
+    // Trig cost of the four getBotHeading() sin/cos calls Field_Centric_MecanumTeleOp used to make on top of the rotation.
+    @Benchmark
+    public void sinCosFourTimes(Blackhole blackhole) {
+        double heading = headings[next()];
+        blackhole.consume(Math.cos(heading));
+        blackhole.consume(Math.sin(heading));
+        blackhole.consume(Math.sin(heading));
+        blackhole.consume(Math.cos(heading));
+    }
+
+    // Sampling a precomputed profile, as FollowProfileAction does every cycle.
+    @Benchmark
+    public MotionState sampleProfile() {
+        profile.sample((sticks[next()] + 1) / 2 * profile.getDuration(), setpoint);
+        return setpoint;
+    }
+
+    // Generating a profile, which is done at init. Allocates the sample arrays, so this is expected to allocate.
+    @Benchmark
+    public MotionProfile generateProfile() {
+        return MotionProfileGenerator.generate(500 + 2500 * (sticks[next()] + 1) / 2, new MotionConstraints(2400, 3600, 24000));
+    }
+
+    // One odometry update per cycle, from four encoder positions and an IMU heading. Should allocate nothing.
+    @Benchmark
+    public Pose2d mecanumOdometry() {
+        int i = next();
+        ticks += 20;
+        odometry.update(ticks, ticks + 3, ticks - 2, ticks + 1, headings[i]);
+        return odometry.getPose();
+    }
+
+    // Field-centric drive with the heading's sine and cosine shared through a HeadingRotation.
+    @Benchmark
+    public double[] fieldCentricSharedRotation() {
+        int i = next();
+        rotation.set(headings[i]);
+        MecanumMath.fieldCentric(sticks[i], sticks[(i + 1) & (SAMPLES - 1)], sticks[(i + 2) & (SAMPLES - 1)], rotation, 1.0, powers);
+        return powers;
+    }
+
+    // Inverse then forward kinematics with desaturation, as a round trip through the kinematics package.
+    @Benchmark
+    public ChassisMotion kinematicsRoundTrip() {
+        int i = next();
+        kinematics.toWheels(sticks[i] * 60, sticks[(i + 1) & (SAMPLES - 1)] * 60, sticks[(i + 2) & (SAMPLES - 1)] * 6, powers);
+        WheelPowers.desaturate(powers, 4, 60);
+        kinematics.toChassis(powers, motion);
+        return motion;
+    }
+}
@@ -0,0 +1,19 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+/**
+ * How the robot moves in its own frame: forward, left, and turn (counter clockwise positive).
+ * Depending on where it comes from this is a velocity, a distance moved during one cycle, or (for the POWER
+ * kinematics) a fraction of full power. Mutable so it can be reused every cycle.
+ */
+public class ChassisMotion {
+    public double forward;
+    public double left;
+    public double turn; // Radians (per second) for real geometry; a power for MecanumKinematics.POWER.
+
+    public ChassisMotion set(double forward, double left, double turn) {
+        this.forward = forward;
+        this.left = left;
+        this.turn = turn;
+        return this;
+    }
+}
@@ -0,0 +1,18 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+/**
+ * Converts between how the robot moves (ChassisMotion) and how each wheel moves, for one type of drivetrain.
+ * Wheel values are written into and read from caller-supplied arrays in the implementation's wheel order,
+ * so nothing is allocated in the control loop.
+ *
+ * Wheel values are "forward positive", i.e. as seen after the right side motors have been reversed.
+ */
+public interface DriveKinematics {
+    int getWheelCount();
+
+    // Inverse kinematics: what each wheel has to do for the robot to move this way.
+    void toWheels(double forward, double left, double turn, double[] wheels);
+
+    // Forward kinematics: how the robot moved, given what each wheel did.
+    void toChassis(double[] wheels, ChassisMotion out);
+}
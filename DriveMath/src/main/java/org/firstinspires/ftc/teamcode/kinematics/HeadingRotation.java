@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+/**
+ * The sine and cosine of the robot's heading, worked out once per cycle and shared by everything that needs them
+ * (field-centric driving, odometry, ...). Setting the same heading again doesn't recompute anything.
+ */
+public class HeadingRotation {
+    private double radians = 0;
+    private double cos = 1;
+    private double sin = 0;
+
+    public HeadingRotation set(double radians) {
+        if (radians != this.radians) {
+            this.radians = radians;
+            cos = Math.cos(radians);
+            sin = Math.sin(radians);
+        }
+        return this;
+    }
+
+    public double getRadians() {
+        return radians;
+    }
+
+    public double cos() {
+        return cos;
+    }
+
+    public double sin() {
+        return sin;
+    }
+
+    // Field frame to robot frame (rotates by minus the heading). Writes forward and left; leaves turn alone.
+    public void fieldToRobot(double fieldX, double fieldY, ChassisMotion out) {
+        out.forward = fieldX * cos + fieldY * sin;
+        out.left = -fieldX * sin + fieldY * cos;
+    }
+
+    // Robot frame to field frame (rotates by the heading).
+    public double robotToFieldX(double forward, double left) {
+        return forward * cos - left * sin;
+    }
+
+    public double robotToFieldY(double forward, double left) {
+        return forward * sin + left * cos;
+    }
+}
@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+/**
+ * Mecanum drive kinematics. Wheels are in FRONT_LEFT, BACK_LEFT, FRONT_RIGHT, BACK_RIGHT order.
+ *
+ * With real geometry (inches), forward/left are inches (per second) and turn is radians (per second).
+ * POWER uses a unit geometry, so forward, left and turn are all fractions of full power, as in our TeleOps.
+ */
+public class MecanumKinematics implements DriveKinematics {
+    public static final int FRONT_LEFT = 0;
+    public static final int BACK_LEFT = 1;
+    public static final int FRONT_RIGHT = 2;
+    public static final int BACK_RIGHT = 3;
+
+    // Kinematics for joystick-style powers: a turn of 1 is full power on every wheel.
+    public static final MecanumKinematics POWER = new MecanumKinematics(1, 1);
+
+    private final double turnRadius; // Half of track width + wheelbase: how far a wheel rolls per radian of turn.
+    private double lateralMultiplier = 1.0; // Mecanum wheels strafe a bit less than they should; tune by strafing a known distance.
+
+    /**
+     * @param trackWidth Left to right wheel distance.
+     * @param wheelBase  Front to back wheel distance.
+     */
+    public MecanumKinematics(double trackWidth, double wheelBase) {
+        this.turnRadius = (trackWidth + wheelBase) / 2;
+    }
+
+    public MecanumKinematics setLateralMultiplier(double lateralMultiplier) {
+        this.lateralMultiplier = lateralMultiplier;
+        return this;
+    }
+
+    @Override
+    public int getWheelCount() {
+        return 4;
+    }
+
+    @Override
+    public void toWheels(double forward, double left, double turn, double[] wheels) {
+        double strafe = left / lateralMultiplier;
+        double spin = turn * turnRadius;
+        wheels[FRONT_LEFT] = forward - strafe - spin;
+        wheels[BACK_LEFT] = forward + strafe - spin;
+        wheels[FRONT_RIGHT] = forward + strafe + spin;
+        wheels[BACK_RIGHT] = forward - strafe + spin;
+    }
+
+    @Override
+    public void toChassis(double[] wheels, ChassisMotion out) {
+        double fl = wheels[FRONT_LEFT];
+        double bl = wheels[BACK_LEFT];
+        double fr = wheels[FRONT_RIGHT];
+        double br = wheels[BACK_RIGHT];
+        out.forward = (fl + bl + fr + br) / 4;
+        out.left = (-fl + bl + fr - br) / 4 * lateralMultiplier;
+        out.turn = (-fl - bl + fr + br) / (4 * turnRadius);
+    }
+}
@@ -0,0 +1,43 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+/**
+ * Kinematics for an X-drive: four omni wheels at the corners, each at 45 degrees to the robot
+ * (the layout of the BasicOmniOpMode_Linear sample). Wheels are in MecanumKinematics order.
+ * Wheel values are the distance (or speed) each wheel rolls along its own direction.
+ */
+public class OmniKinematics implements DriveKinematics {
+    private static final double HALF_SQRT_2 = Math.sqrt(2) / 2; // cos(45 degrees) and sin(45 degrees).
+
+    private final double wheelRadius; // Distance from the center of the robot to each wheel.
+
+    public OmniKinematics(double wheelRadius) {
+        this.wheelRadius = wheelRadius;
+    }
+
+    @Override
+    public int getWheelCount() {
+        return 4;
+    }
+
+    @Override
+    public void toWheels(double forward, double left, double turn, double[] wheels) {
+        double f = forward * HALF_SQRT_2;
+        double l = left * HALF_SQRT_2;
+        double spin = turn * wheelRadius;
+        wheels[MecanumKinematics.FRONT_LEFT] = f - l - spin;
+        wheels[MecanumKinematics.BACK_LEFT] = f + l - spin;
+        wheels[MecanumKinematics.FRONT_RIGHT] = f + l + spin;
+        wheels[MecanumKinematics.BACK_RIGHT] = f - l + spin;
+    }
+
+    @Override
+    public void toChassis(double[] wheels, ChassisMotion out) {
+        double fl = wheels[MecanumKinematics.FRONT_LEFT];
+        double bl = wheels[MecanumKinematics.BACK_LEFT];
+        double fr = wheels[MecanumKinematics.FRONT_RIGHT];
+        double br = wheels[MecanumKinematics.BACK_RIGHT];
+        out.forward = (fl + bl + fr + br) / (4 * HALF_SQRT_2);
+        out.left = (-fl + bl + fr - br) / (4 * HALF_SQRT_2);
+        out.turn = (-fl - bl + fr + br) / (4 * wheelRadius);
+    }
+}
@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+/**
+ * Kinematics for a tank (differential) drive. Wheels are in LEFT, RIGHT order; a tank drive can't strafe,
+ * so toWheels() ignores left and toChassis() always gives 0 for it.
+ */
+public class TankKinematics implements DriveKinematics {
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+
+    // Kinematics for joystick-style powers: a turn of 1 is full power on each side.
+    public static final TankKinematics POWER = new TankKinematics(2);
+
+    private final double trackWidth;
+
+    public TankKinematics(double trackWidth) {
+        this.trackWidth = trackWidth;
+    }
+
+    @Override
+    public int getWheelCount() {
+        return 2;
+    }
+
+    @Override
+    public void toWheels(double forward, double left, double turn, double[] wheels) {
+        double spin = turn * trackWidth / 2;
+        wheels[LEFT] = forward - spin;
+        wheels[RIGHT] = forward + spin;
+    }
+
+    @Override
+    public void toChassis(double[] wheels, ChassisMotion out) {
+        out.forward = (wheels[LEFT] + wheels[RIGHT]) / 2;
+        out.left = 0;
+        out.turn = (wheels[RIGHT] - wheels[LEFT]) / trackWidth;
+    }
+}
@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.teamcode.kinematics;
+
+// Helpers for the wheel power arrays written by DriveKinematics.toWheels().
+public final class WheelPowers {
+    private WheelPowers() {
+    }
+
+    /**
+     * If any wheel is over the limit, scales every wheel down by the same amount so the largest is exactly at the limit.
+     * Keeping the ratios keeps the robot moving in the direction that was asked for, only slower
+     * (clipping each wheel on its own would change the direction).
+     */
+    public static void desaturate(double[] wheels, int count, double limit) {
+        double largest = 0;
+        for (int i = 0; i < count; i++) {
+            largest = Math.max(largest, Math.abs(wheels[i]));
+        }
+        if (largest > limit) scale(wheels, count, limit / largest);
+    }
+
+    public static void scale(double[] wheels, int count, double factor) {
+        for (int i = 0; i < count; i++) {
+            wheels[i] *= factor;
+        }
+    }
+}
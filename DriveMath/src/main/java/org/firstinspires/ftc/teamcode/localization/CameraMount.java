@@ -0,0 +1,17 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+/**
+ * Where a camera sits on the robot: its lens position relative to the robot's center, and which way it points.
+ * Measure these on the robot; errors here show up directly as errors in the pose from AprilTags.
+ */
+public class CameraMount {
+    public final double forward; // Inches ahead of the robot's center (negative if behind).
+    public final double left; // Inches left of the robot's center (negative if right).
+    public final double heading; // Radians from the robot's forward direction, counter clockwise positive (pi for a rear camera).
+
+    public CameraMount(double forward, double left, double headingDegrees) {
+        this.forward = forward;
+        this.left = left;
+        this.heading = Math.toRadians(headingDegrees);
+    }
+}
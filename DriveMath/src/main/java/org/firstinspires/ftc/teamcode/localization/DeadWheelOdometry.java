@@ -0,0 +1,101 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+/**
+ * Tracks the robot's field pose from unpowered "dead wheel" odometry pods, which don't slip like mecanum wheels.
+ * Supports the two common layouts:
+ *
+ *   Three pods - left and right pods parallel to the robot's forward direction, plus one perpendicular pod.
+ *                Heading comes from the difference between the left and right pods (or the IMU if given).
+ *   Two pods   - one parallel and one perpendicular pod. Heading must come from the IMU.
+ *
+ * Call update() once per control cycle with bulk-read encoder positions; it never allocates.
+ * All distances are in inches; pod encoders must count up when the robot moves forward (parallel) or left (perpendicular).
+ */
+public class DeadWheelOdometry {
+    private final double ticksPerInch;
+    private final double trackWidth; // Distance between the left and right parallel pods (three-pod layout only).
+    private final double parallelOffset; // How far left of the center the parallel pod is (two-pod layout only; left is positive).
+    private final double perpendicularOffset; // How far forward of the center the perpendicular pod is.
+    private final boolean threePods;
+
+    private final Pose2d pose = new Pose2d();
+    private int lastLeft, lastRight, lastPerpendicular;
+    private double lastImuHeading = Double.NaN;
+    private double imuHeadingOffset = 0;
+    private boolean initialized = false;
+
+    private DeadWheelOdometry(double ticksPerInch, double trackWidth, double parallelOffset, double perpendicularOffset, boolean threePods) {
+        this.ticksPerInch = ticksPerInch;
+        this.trackWidth = trackWidth;
+        this.parallelOffset = parallelOffset;
+        this.perpendicularOffset = perpendicularOffset;
+        this.threePods = threePods;
+    }
+
+    public static DeadWheelOdometry threePods(double ticksPerInch, double trackWidth, double perpendicularOffset) {
+        return new DeadWheelOdometry(ticksPerInch, trackWidth, 0, perpendicularOffset, true);
+    }
+
+    public static DeadWheelOdometry twoPods(double ticksPerInch, double parallelOffset, double perpendicularOffset) {
+        return new DeadWheelOdometry(ticksPerInch, 0, parallelOffset, perpendicularOffset, false);
+    }
+
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    public void setPose(double x, double y, double heading) {
+        pose.set(x, y, heading);
+        initialized = false;
+    }
+
+    // Three-pod update. imuHeading may be Double.NaN to use the pods' heading.
+    public void update(int left, int right, int perpendicular, double imuHeading) {
+        if (!threePods) throw new IllegalStateException("This odometry was set up with two pods");
+        updateInternal(left, right, perpendicular, imuHeading);
+    }
+
+    // Two-pod update. The IMU heading is required.
+    public void update(int parallel, int perpendicular, double imuHeading) {
+        if (threePods) throw new IllegalStateException("This odometry was set up with three pods");
+        updateInternal(parallel, parallel, perpendicular, imuHeading);
+    }
+
+    private void updateInternal(int left, int right, int perpendicular, double imuHeading) {
+        if (!initialized) {
+            lastLeft = left;
+            lastRight = right;
+            lastPerpendicular = perpendicular;
+            if (!Double.isNaN(imuHeading)) {
+                imuHeadingOffset = pose.heading - imuHeading;
+                lastImuHeading = imuHeading;
+            }
+            initialized = true;
+            return;
+        }
+
+        double dLeft = (left - lastLeft) / ticksPerInch;
+        double dRight = (right - lastRight) / ticksPerInch;
+        double dPerpendicular = (perpendicular - lastPerpendicular) / ticksPerInch;
+        lastLeft = left;
+        lastRight = right;
+        lastPerpendicular = perpendicular;
+
+        double headingChange;
+        if (!Double.isNaN(imuHeading) && !Double.isNaN(lastImuHeading)) {
+            headingChange = PoseIntegrator.normalizeRadians(imuHeading - lastImuHeading);
+        } else if (threePods) {
+            headingChange = (dRight - dLeft) / trackWidth;
+        } else {
+            throw new IllegalArgumentException("Two-pod odometry needs an IMU heading");
+        }
+        if (!Double.isNaN(imuHeading)) lastImuHeading = imuHeading;
+
+        // Remove the part of each pod's motion that comes from turning rather than from the robot moving.
+        double forward = threePods ? (dLeft + dRight) / 2 : dLeft + parallelOffset * headingChange;
+        double strafe = dPerpendicular - perpendicularOffset * headingChange;
+
+        PoseIntegrator.integrate(pose, forward, strafe, headingChange);
+        if (!Double.isNaN(imuHeading)) pose.heading = PoseIntegrator.normalizeRadians(imuHeading + imuHeadingOffset);
+    }
+}
@@ -0,0 +1,93 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+import org.firstinspires.ftc.teamcode.kinematics.ChassisMotion;
+import org.firstinspires.ftc.teamcode.kinematics.MecanumKinematics;
+
+/**
+ * Tracks the robot's field pose from the four mecanum drive encoders, optionally using the IMU for heading.
+ * Call update() once per control cycle with bulk-read encoder positions; it never allocates.
+ *
+ * Encoder positions must be "forward positive" for every wheel (i.e. read after setDirection() has reversed
+ * the right side), in MecanumMath order: front left, back left, front right, back right.
+ *
+ * The IMU heading is far more reliable than wheel-based heading on mecanum wheels (they slip when strafing),
+ * so pass it in whenever you have it. Pass Double.NaN to use the wheels only.
+ */
+public class MecanumOdometry {
+    private final double ticksPerInch;
+    private final MecanumKinematics kinematics;
+    private final double[] wheelDeltas = new double[4]; // Inches each wheel rolled this cycle.
+    private final ChassisMotion motion = new ChassisMotion();
+
+    private final Pose2d pose = new Pose2d();
+    private final int[] lastTicks = new int[4];
+    private double lastImuHeading = Double.NaN;
+    private double imuHeadingOffset = 0; // Field heading minus IMU heading.
+    private boolean initialized = false;
+
+    /**
+     * @param trackWidth Left to right wheel distance, inches.
+     * @param wheelBase  Front to back wheel distance, inches.
+     */
+    public MecanumOdometry(double ticksPerInch, double trackWidth, double wheelBase) {
+        this.ticksPerInch = ticksPerInch;
+        this.kinematics = new MecanumKinematics(trackWidth, wheelBase);
+    }
+
+    // See MecanumKinematics.setLateralMultiplier().
+    public MecanumOdometry setLateralMultiplier(double lateralMultiplier) {
+        kinematics.setLateralMultiplier(lateralMultiplier);
+        return this;
+    }
+
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    // Sets the current pose (e.g. the starting position on the field). The next update() measures from here.
+    public void setPose(double x, double y, double heading) {
+        pose.set(x, y, heading);
+        initialized = false;
+    }
+
+    public void update(int frontLeft, int backLeft, int frontRight, int backRight, double imuHeading) {
+        if (!initialized) {
+            lastTicks[0] = frontLeft;
+            lastTicks[1] = backLeft;
+            lastTicks[2] = frontRight;
+            lastTicks[3] = backRight;
+            if (!Double.isNaN(imuHeading)) {
+                imuHeadingOffset = pose.heading - imuHeading;
+                lastImuHeading = imuHeading;
+            }
+            initialized = true;
+            return;
+        }
+
+        wheelDeltas[MecanumKinematics.FRONT_LEFT] = (frontLeft - lastTicks[0]) / ticksPerInch;
+        wheelDeltas[MecanumKinematics.BACK_LEFT] = (backLeft - lastTicks[1]) / ticksPerInch;
+        wheelDeltas[MecanumKinematics.FRONT_RIGHT] = (frontRight - lastTicks[2]) / ticksPerInch;
+        wheelDeltas[MecanumKinematics.BACK_RIGHT] = (backRight - lastTicks[3]) / ticksPerInch;
+        lastTicks[0] = frontLeft;
+        lastTicks[1] = backLeft;
+        lastTicks[2] = frontRight;
+        lastTicks[3] = backRight;
+
+        kinematics.toChassis(wheelDeltas, motion); // How far the robot moved this cycle, in its own frame.
+        double headingChange = motion.turn;
+
+        if (!Double.isNaN(imuHeading)) {
+            if (Double.isNaN(lastImuHeading)) {
+                imuHeadingOffset = pose.heading - imuHeading;
+            } else {
+                headingChange = PoseIntegrator.normalizeRadians(imuHeading - lastImuHeading);
+            }
+            lastImuHeading = imuHeading;
+        }
+
+        PoseIntegrator.integrate(pose, motion.forward, motion.left, headingChange);
+
+        // Don't let the integrated heading drift away from the IMU's.
+        if (!Double.isNaN(imuHeading)) pose.heading = PoseIntegrator.normalizeRadians(imuHeading + imuHeadingOffset);
+    }
+}
@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+/**
+ * A robot position and heading on the field. x is forward from where the pose was reset, y is to the left,
+ * and heading is in radians, counter clockwise positive (FTC field convention).
+ * It is mutable so the estimators can update one instance every cycle without allocating.
+ */
+public class Pose2d {
+    public double x;
+    public double y;
+    public double heading;
+
+    public Pose2d() {
+    }
+
+    public Pose2d(double x, double y, double heading) {
+        set(x, y, heading);
+    }
+
+    public void set(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    public void set(Pose2d other) {
+        set(other.x, other.y, other.heading);
+    }
+
+    public double getHeadingDegrees() {
+        return Math.toDegrees(heading);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%.1f, %.1f) @ %.1f deg", x, y, getHeadingDegrees());
+    }
+}
@@ -0,0 +1,36 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+/**
+ * Weighted average of several pose estimates, e.g. one per AprilTag seen in a cycle.
+ * Headings are averaged as unit vectors, so estimates on either side of +/-180 degrees average correctly.
+ * Reuse one instance: call reset(), add() each estimate, then get().
+ */
+public class PoseAverage {
+    private double sumX, sumY, sumCos, sumSin, totalWeight;
+    private int count;
+
+    public void reset() {
+        sumX = sumY = sumCos = sumSin = totalWeight = 0;
+        count = 0;
+    }
+
+    public void add(Pose2d pose, double weight) {
+        sumX += pose.x * weight;
+        sumY += pose.y * weight;
+        sumCos += Math.cos(pose.heading) * weight;
+        sumSin += Math.sin(pose.heading) * weight;
+        totalWeight += weight;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Sets out to the average and returns true, or returns false (leaving out alone) if nothing was added.
+    public boolean get(Pose2d out) {
+        if (totalWeight <= 0) return false;
+        out.set(sumX / totalWeight, sumY / totalWeight, Math.atan2(sumSin, sumCos));
+        return true;
+    }
+}
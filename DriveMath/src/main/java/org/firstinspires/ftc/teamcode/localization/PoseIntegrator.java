@@ -0,0 +1,44 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+/**
+ * Adds a small robot-relative motion to a field pose, assuming the robot moved along a circular arc
+ * during the cycle (the "pose exponential"). This is much more accurate than adding the straight-line
+ * displacement when the robot drives and turns at the same time.
+ */
+public final class PoseIntegrator {
+    private PoseIntegrator() {
+    }
+
+    /**
+     * @param pose          The pose to update. Its heading must be the heading at the start of the cycle.
+     * @param forward       Distance moved forward during the cycle, in the robot's frame.
+     * @param left          Distance moved left during the cycle, in the robot's frame.
+     * @param headingChange Heading change during the cycle, in radians.
+     */
+    public static void integrate(Pose2d pose, double forward, double left, double headingChange) {
+        double sinTerm, cosTerm;
+        if (Math.abs(headingChange) < 1e-6) {
+            // Taylor series, to avoid dividing by ~0 when driving straight.
+            sinTerm = 1 - headingChange * headingChange / 6;
+            cosTerm = headingChange / 2;
+        } else {
+            sinTerm = Math.sin(headingChange) / headingChange;
+            cosTerm = (1 - Math.cos(headingChange)) / headingChange;
+        }
+        double dx = forward * sinTerm - left * cosTerm;
+        double dy = forward * cosTerm + left * sinTerm;
+
+        double cos = Math.cos(pose.heading);
+        double sin = Math.sin(pose.heading);
+        pose.x += dx * cos - dy * sin;
+        pose.y += dx * sin + dy * cos;
+        pose.heading = normalizeRadians(pose.heading + headingChange);
+    }
+
+    // Wraps an angle into [-pi, pi).
+    public static double normalizeRadians(double radians) {
+        double wrapped = (radians + Math.PI) % (2 * Math.PI);
+        if (wrapped < 0) wrapped += 2 * Math.PI;
+        return wrapped - Math.PI;
+    }
+}
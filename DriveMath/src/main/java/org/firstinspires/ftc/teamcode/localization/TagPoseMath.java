@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+/**
+ * Works out the robot's field pose from one AprilTag seen by a camera on the robot, in 2D.
+ *
+ * The tag's field pose is its center, with heading being the direction its face points (out into the field).
+ * The measurement is the tag as the camera sees it, as in the SDK's AprilTagPoseFtc: forward (y) and right (x)
+ * distances from the lens, and the tag's yaw, counter clockwise positive as seen from above.
+ */
+public final class TagPoseMath {
+    private TagPoseMath() {
+    }
+
+    /**
+     * @param tag     Field pose of the tag (inches, radians).
+     * @param mount   Where the camera is on the robot.
+     * @param forward Distance from the camera to the tag along the camera's axis, in inches (AprilTagPoseFtc.y).
+     * @param right   Distance of the tag to the right of the camera's axis, in inches (AprilTagPoseFtc.x).
+     * @param yaw     Yaw of the tag relative to the camera, in radians (AprilTagPoseFtc.yaw).
+     * @param out     Set to the robot's field pose.
+     */
+    public static void robotPose(Pose2d tag, CameraMount mount, double forward, double right, double yaw, Pose2d out) {
+        // Squarely facing the tag (yaw 0), the camera points opposite to the tag's face.
+        double cameraHeading = tag.heading + Math.PI - yaw;
+        double cos = Math.cos(cameraHeading);
+        double sin = Math.sin(cameraHeading);
+        double left = -right;
+        double cameraX = tag.x - (forward * cos - left * sin);
+        double cameraY = tag.y - (forward * sin + left * cos);
+
+        double robotHeading = cameraHeading - mount.heading;
+        cos = Math.cos(robotHeading);
+        sin = Math.sin(robotHeading);
+        out.x = cameraX - (mount.forward * cos - mount.left * sin);
+        out.y = cameraY - (mount.forward * sin + mount.left * cos);
+        out.heading = PoseIntegrator.normalizeRadians(robotHeading);
+    }
+}
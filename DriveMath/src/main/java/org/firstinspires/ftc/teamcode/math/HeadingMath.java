@@ -0,0 +1,33 @@
+package org.firstinspires.ftc.teamcode.math;
+
+/**
+ * Heading helpers for gyro-based driving, taken from RobotAutoDriveByGyro_Linear.getSteeringCorrection().
+ * All angles are in degrees, positive is counter clockwise (FTC field convention).
+ */
+public final class HeadingMath {
+    private HeadingMath() {
+    }
+
+    // Wraps an angle into the range (-180, 180].
+    // Uses a remainder instead of the sample's while loops, so the cost does not depend on how far out of range the angle is.
+    public static double normalizeDegrees(double degrees) {
+        double wrapped = degrees % 360.0;
+        if (wrapped > 180.0) wrapped -= 360.0;
+        else if (wrapped <= -180.0) wrapped += 360.0;
+        return wrapped;
+    }
+
+    // The shortest signed angle to turn from the current heading to the desired heading.
+    public static double headingError(double desiredHeading, double currentHeading) {
+        return normalizeDegrees(desiredHeading - currentHeading);
+    }
+
+    // Proportional steering: heading error times gain, limited to [-1, 1].
+    public static double steeringCorrection(double desiredHeading, double currentHeading, double proportionalGain) {
+        return clip(headingError(desiredHeading, currentHeading) * proportionalGain, -1.0, 1.0);
+    }
+
+    public static double clip(double value, double min, double max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+}
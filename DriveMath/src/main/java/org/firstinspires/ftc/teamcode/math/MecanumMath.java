@@ -0,0 +1,75 @@
+package org.firstinspires.ftc.teamcode.math;
+
+import org.firstinspires.ftc.teamcode.kinematics.HeadingRotation;
+import org.firstinspires.ftc.teamcode.kinematics.MecanumKinematics;
+import org.firstinspires.ftc.teamcode.kinematics.WheelPowers;
+
+/**
+ * Gamepad-style mecanum drive used by our TeleOps and AutonomousOpMode, on top of MecanumKinematics.POWER.
+ * This is plain Java (no Android or FTC SDK classes) so it can be benchmarked on a computer, see DriveMathBenchmark.
+ *
+ * Inputs follow the gamepad: sideways/x is to the right and rotation is clockwise.
+ * Results are written into a caller-supplied double[4] in FRONT_LEFT, BACK_LEFT, FRONT_RIGHT, BACK_RIGHT order,
+ * so nothing is allocated in the control loop. Powers are always desaturated (scaled down together so none is
+ * over 1) before the speed is applied, so the robot drives in the direction of the stick even at full deflection.
+ */
+public final class MecanumMath {
+    public static final int FRONT_LEFT = MecanumKinematics.FRONT_LEFT;
+    public static final int BACK_LEFT = MecanumKinematics.BACK_LEFT;
+    public static final int FRONT_RIGHT = MecanumKinematics.FRONT_RIGHT;
+    public static final int BACK_RIGHT = MecanumKinematics.BACK_RIGHT;
+
+    private MecanumMath() {
+    }
+
+    // Robot-centric drive: forward/sideways/rotation are relative to the robot.
+    public static void robotCentric(double forward, double sideways, double rotation, double speed, double[] powers) {
+        toPowers(forward, sideways, rotation, speed, powers);
+    }
+
+    // Field-centric drive: x/y are relative to the field, so they are rotated counter to the robot's heading (in radians) first.
+    public static void fieldCentric(double x, double y, double rotation, double headingRadians, double speed, double[] powers) {
+        fieldCentric(x, y, rotation, Math.cos(headingRadians), Math.sin(headingRadians), speed, powers);
+    }
+
+    // Field-centric drive with a heading whose sine and cosine were already worked out this cycle.
+    public static void fieldCentric(double x, double y, double rotation, HeadingRotation heading, double speed, double[] powers) {
+        fieldCentric(x, y, rotation, heading.cos(), heading.sin(), speed, powers);
+    }
+
+    private static void fieldCentric(double x, double y, double rotation, double cos, double sin, double speed, double[] powers) {
+        double rotX = x * cos + y * sin;
+        double rotY = -x * sin + y * cos;
+        toPowers(rotY, rotX, rotation, speed, powers);
+    }
+
+    private static void toPowers(double forward, double right, double clockwise, double speed, double[] powers) {
+        MecanumKinematics.POWER.toWheels(forward, -right, -clockwise, powers);
+        WheelPowers.desaturate(powers, 4, 1);
+        WheelPowers.scale(powers, 4, speed);
+    }
+
+    // How much each wheel has to turn (as a fraction of the distance) to drive in a straight line at the given angle,
+    // as used by AutonomousOpMode.move(). 0 degrees is along the robot's x axis.
+    public static void translationAtAngle(double degrees, double[] factors) {
+        double radians = Math.toRadians(degrees);
+        double x = Math.cos(radians);
+        double y = Math.sin(radians);
+
+        double denominator = Math.max(Math.abs(x) + Math.abs(y), 1);
+        factors[FRONT_LEFT] = (x + y) / denominator;
+        factors[BACK_LEFT] = (-x + y) / denominator;
+        factors[FRONT_RIGHT] = (x - y) / denominator;
+        factors[BACK_RIGHT] = (-x - y) / denominator;
+    }
+
+    // Encoder ticks needed for a wheel to roll the given distance.
+    public static double distanceToTicks(double distance, double wheelCircumference, double ticksPerRevolution) {
+        return distance * ticksPerRevolution / wheelCircumference;
+    }
+
+    // Encoder ticks each wheel has to turn for the robot to spin in place by the given angle.
+    public static double turnToTicks(double degrees, double wheelbaseWidth, double wheelCircumference, double ticksPerRevolution) {
+        return (Math.PI * wheelbaseWidth * degrees) / 360.0 / wheelCircumference * ticksPerRevolution;
+    }
+}
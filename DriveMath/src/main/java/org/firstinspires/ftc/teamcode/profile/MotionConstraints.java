@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.profile;
+
+/**
+ * Limits for a motion profile, in whatever units the profile uses (encoder ticks, inches, ...) per second.
+ * A jerk of 0 (or less) means no jerk limit, which gives a trapezoidal profile; any positive jerk gives an S-curve.
+ */
+public class MotionConstraints {
+    public final double maxVelocity;
+    public final double maxAcceleration;
+    public final double maxJerk;
+
+    public MotionConstraints(double maxVelocity, double maxAcceleration) {
+        this(maxVelocity, maxAcceleration, 0);
+    }
+
+    public MotionConstraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0) {
+            throw new IllegalArgumentException("maxVelocity and maxAcceleration must be positive");
+        }
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+    }
+
+    public boolean isJerkLimited() {
+        return maxJerk > 0;
+    }
+}
@@ -0,0 +1,68 @@
+package org.firstinspires.ftc.teamcode.profile;
+
+/**
+ * A rest-to-rest motion profile, precomputed into primitive arrays at a fixed time step.
+ * Create one with MotionProfileGenerator at init; sample() is then just an array lookup and
+ * a linear interpolation, and never allocates, so it is cheap to call every control cycle.
+ */
+public class MotionProfile {
+    private final double dt;
+    private final double duration;
+    private final double[] position;
+    private final double[] velocity;
+    private final double[] acceleration;
+
+    MotionProfile(double dt, double duration, double[] position, double[] velocity, double[] acceleration) {
+        this.dt = dt;
+        this.duration = duration;
+        this.position = position;
+        this.velocity = velocity;
+        this.acceleration = acceleration;
+    }
+
+    // Total time of the profile in seconds.
+    public double getDuration() {
+        return duration;
+    }
+
+    // The distance the profile covers (negative for a backwards move).
+    public double getDistance() {
+        return position[position.length - 1];
+    }
+
+    public int getSampleCount() {
+        return position.length;
+    }
+
+    public double getTimeStep() {
+        return dt;
+    }
+
+    // Writes the setpoint at time t (seconds from the start of the profile) into out.
+    // Before the start the profile is at rest at 0, and after the end it is at rest at getDistance().
+    public void sample(double t, MotionState out) {
+        int last = position.length - 1;
+        if (t <= 0) {
+            out.set(position[0], velocity[0], acceleration[0]);
+            return;
+        }
+        if (t >= duration) {
+            out.set(position[last], 0, 0);
+            return;
+        }
+        double index = t / dt;
+        int i = (int) index;
+        if (i >= last) {
+            out.set(position[last], velocity[last], acceleration[last]);
+            return;
+        }
+        double f = index - i;
+        out.set(position[i] + (position[i + 1] - position[i]) * f,
+                velocity[i] + (velocity[i + 1] - velocity[i]) * f,
+                acceleration[i] + (acceleration[i + 1] - acceleration[i]) * f);
+    }
+
+    public boolean isFinished(double t) {
+        return t >= duration;
+    }
+}
@@ -0,0 +1,147 @@
+package org.firstinspires.ftc.teamcode.profile;
+
+/**
+ * Builds rest-to-rest motion profiles that respect velocity, acceleration and (optionally) jerk limits.
+ *
+ * Without a jerk limit the profile is a trapezoid: constant acceleration, cruise, constant deceleration.
+ * With a jerk limit it is an S-curve with up to seven phases, where the acceleration itself ramps up and down,
+ * which is much gentler on the drivetrain and slides and makes overshoot less likely.
+ *
+ * If the move is too short to reach the maximum velocity (or acceleration), the peak is lowered so the profile
+ * still ends exactly at the requested distance.
+ */
+public final class MotionProfileGenerator {
+    public static final double DEFAULT_TIME_STEP = 0.005; // 5 ms, finer than any control loop we run.
+
+    private MotionProfileGenerator() {
+    }
+
+    public static MotionProfile generate(double distance, MotionConstraints constraints) {
+        return generate(distance, constraints, DEFAULT_TIME_STEP);
+    }
+
+    public static MotionProfile generate(double distance, MotionConstraints constraints, double timeStep) {
+        double sign = Math.signum(distance);
+        double length = Math.abs(distance);
+        if (length == 0) {
+            // Nothing to move: a profile that is finished right away (the segment math below would divide by zero).
+            return new MotionProfile(timeStep, 0, new double[] {0}, new double[] {0}, new double[] {0});
+        }
+
+        Segment[] segments = constraints.isJerkLimited()
+                ? sCurve(length, constraints)
+                : trapezoid(length, constraints);
+
+        // Integrate the segments exactly so each one starts where the last one ended.
+        double p = 0, v = 0, a = 0;
+        double duration = 0;
+        for (Segment segment : segments) {
+            if (!Double.isNaN(segment.setAcceleration)) a = segment.setAcceleration;
+            segment.p0 = p;
+            segment.v0 = v;
+            segment.a0 = a;
+            segment.t0 = duration;
+            double t = segment.duration;
+            p += v * t + a * t * t / 2 + segment.jerk * t * t * t / 6;
+            v += a * t + segment.jerk * t * t / 2;
+            a += segment.jerk * t;
+            duration += t;
+        }
+
+        int count = (int) Math.ceil(duration / timeStep) + 1;
+        double[] position = new double[count];
+        double[] velocity = new double[count];
+        double[] acceleration = new double[count];
+        int s = 0;
+        for (int i = 0; i < count; i++) {
+            double t = Math.min(i * timeStep, duration);
+            while (s < segments.length - 1 && t > segments[s].t0 + segments[s].duration) s++;
+            Segment segment = segments[s];
+            double tau = t - segment.t0;
+            position[i] = sign * (segment.p0 + segment.v0 * tau + segment.a0 * tau * tau / 2 + segment.jerk * tau * tau * tau / 6);
+            velocity[i] = sign * (segment.v0 + segment.a0 * tau + segment.jerk * tau * tau / 2);
+            acceleration[i] = sign * (segment.a0 + segment.jerk * tau);
+        }
+        position[count - 1] = distance; // Remove any rounding error at the end point.
+        velocity[count - 1] = 0;
+        acceleration[count - 1] = 0;
+
+        return new MotionProfile(timeStep, duration, position, velocity, acceleration);
+    }
+
+    // A piece of the profile with constant jerk. For a trapezoid the acceleration is set directly and jerk is 0.
+    private static class Segment {
+        final double duration;
+        final double jerk;
+        final double setAcceleration; // NaN unless this segment sets the acceleration directly (trapezoid).
+        double t0, p0, v0, a0;
+
+        Segment(double duration, double jerk) {
+            this(duration, jerk, Double.NaN);
+        }
+
+        Segment(double duration, double jerk, double setAcceleration) {
+            this.duration = Math.max(0, duration);
+            this.jerk = jerk;
+            this.setAcceleration = setAcceleration;
+        }
+    }
+
+    private static Segment[] trapezoid(double length, MotionConstraints constraints) {
+        double accel = constraints.maxAcceleration;
+        double peak = Math.min(constraints.maxVelocity, Math.sqrt(length * accel)); // Triangle if the move is too short to cruise.
+        double rampTime = peak / accel;
+        double cruiseTime = peak > 0 ? (length - peak * rampTime) / peak : 0;
+        // Without a jerk limit the acceleration jumps straight to +/- accel at the start of each ramp.
+        return new Segment[] {
+                new Segment(rampTime, 0, accel),
+                new Segment(cruiseTime, 0, 0),
+                new Segment(rampTime, 0, -accel),
+        };
+    }
+
+    private static Segment[] sCurve(double length, MotionConstraints constraints) {
+        double jerk = constraints.maxJerk;
+        double peakVelocity = constraints.maxVelocity;
+
+        // Find the highest peak velocity whose accelerate + decelerate distance fits in the move.
+        if (2 * accelDistance(peakVelocity, constraints) > length) {
+            double low = 0, high = peakVelocity;
+            for (int i = 0; i < 60; i++) {
+                double mid = (low + high) / 2;
+                if (2 * accelDistance(mid, constraints) > length) high = mid;
+                else low = mid;
+            }
+            peakVelocity = low;
+        }
+
+        double peakAccel = peakAcceleration(peakVelocity, constraints);
+        double jerkTime = peakAccel / jerk;
+        double constantAccelTime = peakAccel > 0 ? peakVelocity / peakAccel - jerkTime : 0;
+        double cruiseTime = peakVelocity > 0 ? (length - 2 * accelDistance(peakVelocity, constraints)) / peakVelocity : 0;
+
+        return new Segment[] {
+                new Segment(jerkTime, jerk),
+                new Segment(constantAccelTime, 0),
+                new Segment(jerkTime, -jerk),
+                new Segment(cruiseTime, 0),
+                new Segment(jerkTime, -jerk),
+                new Segment(constantAccelTime, 0),
+                new Segment(jerkTime, jerk),
+        };
+    }
+
+    // The highest acceleration reached while speeding up to the given velocity.
+    private static double peakAcceleration(double velocity, MotionConstraints constraints) {
+        return Math.min(constraints.maxAcceleration, Math.sqrt(velocity * constraints.maxJerk));
+    }
+
+    // Distance covered while speeding up from rest to the given velocity (an S-curve ramp is symmetric, so the average speed is half).
+    private static double accelDistance(double velocity, MotionConstraints constraints) {
+        double peakAccel = peakAcceleration(velocity, constraints);
+        if (peakAccel <= 0) return 0;
+        double jerkTime = peakAccel / constraints.maxJerk;
+        double rampTime = velocity / peakAccel + jerkTime; // 2 * jerkTime + constantAccelTime.
+        return velocity * rampTime / 2;
+    }
+}
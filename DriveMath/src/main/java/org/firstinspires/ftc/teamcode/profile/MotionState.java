@@ -0,0 +1,21 @@
+package org.firstinspires.ftc.teamcode.profile;
+
+/**
+ * A setpoint sampled from a motion profile. It is mutable so one instance can be reused every control cycle.
+ */
+public class MotionState {
+    public double position;
+    public double velocity;
+    public double acceleration;
+
+    public void set(double position, double velocity, double acceleration) {
+        this.position = position;
+        this.velocity = velocity;
+        this.acceleration = acceleration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p=%.2f v=%.2f a=%.2f", position, velocity, acceleration);
+    }
+}
@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+import org.junit.Test;
+
+import static org.firstinspires.ftc.teamcode.localization.PoseIntegratorTest.assertPose;
+
+public class MecanumOdometryTest {
+    private static final double TICKS_PER_INCH = 50;
+
+    private final MecanumOdometry odometry = new MecanumOdometry(TICKS_PER_INCH, 14, 12);
+
+    @Test
+    public void straightLine() {
+        odometry.update(0, 0, 0, 0, Double.NaN);
+        int ticks = (int) (24 * TICKS_PER_INCH);
+        odometry.update(ticks, ticks, ticks, ticks, Double.NaN);
+        assertPose(24, 0, 0, odometry.getPose());
+    }
+
+    // Strafing left: front left and back right roll backwards, the other two forwards.
+    @Test
+    public void strafeLeft() {
+        odometry.update(0, 0, 0, 0, Double.NaN);
+        int ticks = (int) (10 * TICKS_PER_INCH);
+        odometry.update(-ticks, ticks, ticks, -ticks, Double.NaN);
+        assertPose(0, 10, 0, odometry.getPose());
+    }
+
+    // Turning counter clockwise in place: each wheel rolls (trackWidth + wheelBase) / 2 inches per radian.
+    @Test
+    public void turnInPlace() {
+        odometry.update(0, 0, 0, 0, Double.NaN);
+        int ticks = (int) Math.round(13 * Math.PI / 2 * TICKS_PER_INCH);
+        odometry.update(-ticks, -ticks, ticks, ticks, Double.NaN);
+        assertPose(0, 0, ticks / TICKS_PER_INCH / 13, odometry.getPose()); // About 90 degrees; ticks are whole numbers.
+    }
+
+    // The IMU heading wins over the wheels, relative to the pose it started from.
+    @Test
+    public void imuHeading() {
+        odometry.setPose(0, 0, Math.PI / 2);
+        odometry.update(0, 0, 0, 0, 1.0);
+        int ticks = (int) (24 * TICKS_PER_INCH);
+        odometry.update(ticks, ticks, ticks, ticks, 1.0);
+        assertPose(0, 24, Math.PI / 2, odometry.getPose());
+    }
+}
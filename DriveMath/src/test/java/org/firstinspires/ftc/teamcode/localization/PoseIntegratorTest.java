@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PoseIntegratorTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void straightLine() {
+        Pose2d pose = new Pose2d();
+        PoseIntegrator.integrate(pose, 10, 0, 0);
+        assertPose(10, 0, 0, pose);
+
+        pose.set(0, 0, Math.PI / 2); // Facing left on the field: forward is +y.
+        PoseIntegrator.integrate(pose, 10, 0, 0);
+        assertPose(0, 10, Math.PI / 2, pose);
+    }
+
+    @Test
+    public void strafe() {
+        Pose2d pose = new Pose2d();
+        PoseIntegrator.integrate(pose, 0, 5, 0);
+        assertPose(0, 5, 0, pose);
+    }
+
+    // A quarter circle of radius 20, turning left: ends 20 ahead and 20 to the left, facing left.
+    @Test
+    public void arcInOneStep() {
+        Pose2d pose = new Pose2d();
+        PoseIntegrator.integrate(pose, 20 * Math.PI / 2, 0, Math.PI / 2);
+        assertPose(20, 20, Math.PI / 2, pose);
+    }
+
+    // The exponential is exact for arcs, so splitting one into steps lands in the same place.
+    @Test
+    public void arcInManySteps() {
+        Pose2d pose = new Pose2d();
+        int steps = 100;
+        for (int i = 0; i < steps; i++) {
+            PoseIntegrator.integrate(pose, 20 * Math.PI / 2 / steps, 0, Math.PI / 2 / steps);
+        }
+        assertPose(20, 20, Math.PI / 2, pose);
+    }
+
+    @Test
+    public void normalizeRadians() {
+        assertEquals(0, PoseIntegrator.normalizeRadians(2 * Math.PI), EPSILON);
+        assertEquals(-Math.PI / 2, PoseIntegrator.normalizeRadians(3 * Math.PI / 2), EPSILON);
+        assertEquals(Math.PI / 2, PoseIntegrator.normalizeRadians(-3 * Math.PI / 2), EPSILON);
+    }
+
+    static void assertPose(double x, double y, double heading, Pose2d pose) {
+        assertEquals("x", x, pose.x, 1e-6);
+        assertEquals("y", y, pose.y, 1e-6);
+        assertEquals("heading", 0, PoseIntegrator.normalizeRadians(pose.heading - heading), 1e-6);
+    }
+}
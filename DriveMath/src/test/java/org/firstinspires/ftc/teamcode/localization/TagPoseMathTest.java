@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.localization;
+
+import org.junit.Test;
+
+import static org.firstinspires.ftc.teamcode.localization.PoseIntegratorTest.assertPose;
+
+public class TagPoseMathTest {
+    // A tag on the far wall, 72 inches ahead of the origin, facing back into the field.
+    private final Pose2d tag = new Pose2d(72, 0, Math.PI);
+    private final CameraMount centered = new CameraMount(0, 0, 0);
+    private final Pose2d out = new Pose2d();
+
+    @Test
+    public void squarelyInFront() {
+        TagPoseMath.robotPose(tag, centered, 72, 0, 0, out);
+        assertPose(0, 0, 0, out);
+    }
+
+    // Standing 10 inches left of the tag's line, the tag is 10 inches to the camera's right.
+    @Test
+    public void offToTheSide() {
+        TagPoseMath.robotPose(tag, centered, 72, 10, 0, out);
+        assertPose(0, 10, 0, out);
+    }
+
+    // Turned 0.2 rad to the left at the origin: the tag is to the right, and its yaw is the opposite of the turn.
+    @Test
+    public void turned() {
+        double turn = 0.2;
+        TagPoseMath.robotPose(tag, centered, 72 * Math.cos(turn), 72 * Math.sin(turn), -turn, out);
+        assertPose(0, 0, turn, out);
+    }
+
+    // A camera 6 inches ahead of the center sees the tag 6 inches closer.
+    @Test
+    public void cameraAheadOfCenter() {
+        TagPoseMath.robotPose(tag, new CameraMount(6, 0, 0), 66, 0, 0, out);
+        assertPose(0, 0, 0, out);
+    }
+
+    // A rear camera on a robot facing away from the tag.
+    @Test
+    public void rearCamera() {
+        TagPoseMath.robotPose(tag, new CameraMount(-6, 0, 180), 66, 0, 0, out);
+        assertPose(0, 0, Math.PI, out);
+    }
+}
@@ -0,0 +1,69 @@
+package org.firstinspires.ftc.teamcode.math;
+
+import org.junit.Test;
+
+import static org.firstinspires.ftc.teamcode.math.MecanumMath.BACK_LEFT;
+import static org.firstinspires.ftc.teamcode.math.MecanumMath.BACK_RIGHT;
+import static org.firstinspires.ftc.teamcode.math.MecanumMath.FRONT_LEFT;
+import static org.firstinspires.ftc.teamcode.math.MecanumMath.FRONT_RIGHT;
+import static org.junit.Assert.assertEquals;
+
+public class MecanumMathTest {
+    private static final double EPSILON = 1e-9;
+
+    private final double[] powers = new double[4];
+
+    // The wheel signs of the original Robot_Centric_MecanumTeleOp:
+    //   front left  = forward + sideways + rotation    back left  = forward - sideways + rotation
+    //   front right = forward - sideways - rotation    back right = forward + sideways - rotation
+    @Test
+    public void wheelSignsMatchTheTeleOps() {
+        MecanumMath.robotCentric(0.5, 0, 0, 1, powers);
+        assertPowers(0.5, 0.5, 0.5, 0.5);
+
+        MecanumMath.robotCentric(0, 0.5, 0, 1, powers); // Strafe right.
+        assertPowers(0.5, -0.5, -0.5, 0.5);
+
+        MecanumMath.robotCentric(0, 0, 0.5, 1, powers); // Turn clockwise.
+        assertPowers(0.5, 0.5, -0.5, -0.5);
+
+        MecanumMath.robotCentric(0.3, 0.2, 0.1, 1, powers);
+        assertPowers(0.3 + 0.2 + 0.1, 0.3 - 0.2 + 0.1, 0.3 - 0.2 - 0.1, 0.3 + 0.2 - 0.1);
+    }
+
+    @Test
+    public void speedScalesEveryWheel() {
+        MecanumMath.robotCentric(0.3, 0.2, 0.1, 0.5, powers);
+        assertPowers(0.3, 0.1, 0, 0.2);
+    }
+
+    // Full stick forward and right asks for 2 on two wheels: every wheel is halved, so the robot still goes diagonally.
+    @Test
+    public void desaturationKeepsTheDirection() {
+        MecanumMath.robotCentric(1, 1, 0, 1, powers);
+        assertPowers(1, 0, 0, 1);
+
+        MecanumMath.robotCentric(1, 0.5, 0.5, 1, powers);
+        assertPowers(1, 0.5, 0, 0.5);
+
+        MecanumMath.robotCentric(1, 1, 0, 0.5, powers); // Desaturated first, then the speed is applied.
+        assertPowers(0.5, 0, 0, 0.5);
+    }
+
+    // With the robot turned 90 degrees counter clockwise, pushing the stick forward (field +y) strafes it right.
+    @Test
+    public void fieldCentricRotatesTheStick() {
+        MecanumMath.fieldCentric(0, 0.5, 0, 0, 1, powers);
+        assertPowers(0.5, 0.5, 0.5, 0.5);
+
+        MecanumMath.fieldCentric(0, 0.5, 0, Math.PI / 2, 1, powers);
+        assertPowers(0.5, -0.5, -0.5, 0.5);
+    }
+
+    private void assertPowers(double frontLeft, double backLeft, double frontRight, double backRight) {
+        assertEquals("front left", frontLeft, powers[FRONT_LEFT], EPSILON);
+        assertEquals("back left", backLeft, powers[BACK_LEFT], EPSILON);
+        assertEquals("front right", frontRight, powers[FRONT_RIGHT], EPSILON);
+        assertEquals("back right", backRight, powers[BACK_RIGHT], EPSILON);
+    }
+}
@@ -0,0 +1,121 @@
+package org.firstinspires.ftc.teamcode.profile;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MotionProfileGeneratorTest {
+    private static final double EPSILON = 1e-6;
+
+    private final MotionState state = new MotionState();
+
+    // 100 units at up to 50/s and 100/s^2: 0.5 s ramps covering 12.5 each, and 1.5 s of cruise in between.
+    @Test
+    public void trapezoidEndpoints() {
+        MotionProfile profile = MotionProfileGenerator.generate(100, new MotionConstraints(50, 100));
+        assertEquals(2.5, profile.getDuration(), EPSILON);
+        assertEquals(100, profile.getDistance(), EPSILON);
+
+        profile.sample(0, state);
+        assertEquals(0, state.position, EPSILON);
+        assertEquals(0, state.velocity, EPSILON);
+
+        profile.sample(0.5, state);
+        assertEquals(12.5, state.position, 1e-3);
+        assertEquals(50, state.velocity, 1e-3);
+
+        profile.sample(1.25, state);
+        assertEquals(50, state.position, 1e-3);
+        assertEquals(50, state.velocity, 1e-3);
+
+        profile.sample(2.5, state);
+        assertEquals(100, state.position, EPSILON);
+        assertEquals(0, state.velocity, EPSILON);
+        assertEquals(0, state.acceleration, EPSILON);
+        assertTrue(profile.isFinished(2.5));
+    }
+
+    // Too short to reach 50/s: the peak drops to sqrt(distance * acceleration).
+    @Test
+    public void shortTrapezoidIsATriangle() {
+        MotionProfile profile = MotionProfileGenerator.generate(10, new MotionConstraints(50, 100));
+        double peak = Math.sqrt(10 * 100);
+        assertEquals(2 * peak / 100, profile.getDuration(), EPSILON);
+
+        profile.sample(profile.getDuration() / 2, state);
+        assertEquals(5, state.position, 1e-3);
+        assertEquals(peak, state.velocity, 0.5); // Within one time step of the peak.
+
+        profile.sample(profile.getDuration(), state);
+        assertEquals(10, state.position, EPSILON);
+    }
+
+    @Test
+    public void backwardsMove() {
+        MotionProfile profile = MotionProfileGenerator.generate(-100, new MotionConstraints(50, 100));
+        assertEquals(2.5, profile.getDuration(), EPSILON);
+
+        profile.sample(1.25, state);
+        assertEquals(-50, state.position, 1e-3);
+        assertEquals(-50, state.velocity, 1e-3);
+
+        profile.sample(10, state);
+        assertEquals(-100, state.position, EPSILON);
+    }
+
+    // With a jerk of 1000/s^3 the acceleration takes 0.1 s to build up: 0.6 s ramps covering 15 each, 1.4 s of cruise.
+    @Test
+    public void sCurveEndpoints() {
+        MotionProfile profile = MotionProfileGenerator.generate(100, new MotionConstraints(50, 100, 1000));
+        assertEquals(2.6, profile.getDuration(), EPSILON);
+
+        profile.sample(0, state);
+        assertEquals(0, state.position, EPSILON);
+        assertEquals(0, state.velocity, EPSILON);
+        assertEquals(0, state.acceleration, EPSILON); // Unlike the trapezoid, the acceleration starts at 0.
+
+        profile.sample(0.6, state);
+        assertEquals(15, state.position, 1e-3);
+        assertEquals(50, state.velocity, 1e-3);
+
+        profile.sample(1.3, state);
+        assertEquals(50, state.position, 1e-3);
+
+        profile.sample(2.6, state);
+        assertEquals(100, state.position, EPSILON);
+        assertEquals(0, state.velocity, EPSILON);
+        assertEquals(0, state.acceleration, EPSILON);
+    }
+
+    @Test
+    public void sCurveStaysWithinLimits() {
+        MotionProfile profile = MotionProfileGenerator.generate(100, new MotionConstraints(50, 100, 1000));
+        for (int i = 0; i < profile.getSampleCount(); i++) {
+            profile.sample(i * profile.getTimeStep(), state);
+            assertTrue(state.velocity <= 50 + 1e-6);
+            assertTrue(Math.abs(state.acceleration) <= 100 + 1e-6);
+        }
+    }
+
+    @Test
+    public void zeroDistanceIsFinishedRightAway() {
+        MotionProfile[] profiles = {
+                MotionProfileGenerator.generate(0, new MotionConstraints(50, 100)),
+                MotionProfileGenerator.generate(0, new MotionConstraints(50, 100, 1000)),
+        };
+        for (MotionProfile profile : profiles) {
+            assertEquals(0, profile.getDuration(), 0);
+            assertEquals(0, profile.getDistance(), 0);
+            assertTrue(profile.isFinished(0));
+
+            profile.sample(0, state);
+            assertEquals(0, state.position, 0);
+            assertEquals(0, state.velocity, 0);
+            assertEquals(0, state.acceleration, 0);
+
+            profile.sample(1, state);
+            assertEquals(0, state.position, 0);
+        }
+    }
+}
@@ -1,25 +1,77 @@
 package org.firstinspires.ftc.teamcode;
 
-import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.teamcode.action.Action;
+import org.firstinspires.ftc.teamcode.action.ActionScheduler;
+import org.firstinspires.ftc.teamcode.action.Actions;
+import org.firstinspires.ftc.teamcode.action.FollowProfileAction;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.localization.MecanumOdometry;
+import org.firstinspires.ftc.teamcode.localization.Pose2d;
+import org.firstinspires.ftc.teamcode.math.MecanumMath;
+import org.firstinspires.ftc.teamcode.profile.MotionConstraints;
+import org.firstinspires.ftc.teamcode.profile.MotionProfileGenerator;
+import org.firstinspires.ftc.teamcode.sensors.AsyncHeadingProvider;
+import org.firstinspires.ftc.teamcode.sensors.HeadingSnapshot;
+import org.firstinspires.ftc.teamcode.sensors.HeadingSources;
+import org.firstinspires.ftc.teamcode.sensors.ImuStartup;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
 
 @com.qualcomm.robotcore.eventloop.opmode.Autonomous
-public class AutonomousOpMode extends LinearOpMode {
+// Runs its moves as actions on ControlLoopOpMode instead of busy-waiting, so Stop works at any time,
+// and other mechanisms can run at the same time as the drivetrain with Actions.parallel().
+public class AutonomousOpMode extends ControlLoopOpMode {
 
     // Defines 4 Mecanum Wheel Motors.
-    DcMotor motorFrontLeft;
-    DcMotor motorBackLeft;
-    DcMotor motorFrontRight;
-    DcMotor motorBackRight;
+    DcMotorEx motorFrontLeft;
+    DcMotorEx motorBackLeft;
+    DcMotorEx motorFrontRight;
+    DcMotorEx motorBackRight;
+    DcMotorEx[] driveMotors; // All four, in MecanumMath order (front left, back left, front right, back right).
+
+    static final double WHEEL_CIRCUMFERENCE_FEET = 11.875 / 12.0; // Wheel circumference in feet
+    static final double TICKS_PER_REVOLUTION = 1440.0; // Assuming 1440 encoder ticks per rotation
+    static final double WHEELBASE_WIDTH_FEET = 1.0; // Adjust this based on your robot's wheelbase width
+    static final double WHEELBASE_LENGTH_FEET = 1.0; // Front to back wheel distance; adjust this too.
+
+    IMU imu;
+    ImuStartup imuStartup; // Initializes the IMU in the background, while the routine is built.
+    AsyncHeadingProvider heading; // Reads the IMU on its own thread, so the drive loop never waits for I2C.
+    final HeadingSnapshot headingSample = new HeadingSnapshot(); // Reused every cycle.
+
+    TelemetryBoard dashboard; // Sends about 4 times a second; the loop never formats telemetry itself.
+    TelemetrySlot statusLine;
+
+    // Tracks where the robot is on the field every cycle, from the drive encoders and the IMU heading.
+    final MecanumOdometry odometry = new MecanumOdometry(
+            TICKS_PER_REVOLUTION / (WHEEL_CIRCUMFERENCE_FEET * 12), // Ticks per inch.
+            WHEELBASE_WIDTH_FEET * 12,
+            WHEELBASE_LENGTH_FEET * 12);
+
+    // Limits for the motion profiles of each move, in encoder ticks of the fastest wheel.
+    // Tune these on your robot: the velocity should be a bit under the motors' free speed, and the acceleration low enough that the wheels don't slip.
+    static final MotionConstraints DRIVE_CONSTRAINTS = new MotionConstraints(
+            2400, // Max velocity (ticks/second).
+            3600, // Max acceleration (ticks/second^2).
+            24000); // Max jerk (ticks/second^3), which gives an S-curve. Use 0 for a trapezoid.
+
+    Action routine; // The whole autonomous routine, built (and its profiles computed) during init.
+
+    final ActionScheduler scheduler = new ActionScheduler(); // Runs the autonomous routine one step per cycle.
 
     @Override
-    public void runOpMode() throws InterruptedException {
+    protected void initialize() {
         // Declares motors using IDs that match the configuration on the REV Control Hub.
-        motorFrontLeft = hardwareMap.dcMotor.get("motorFrontLeft"); // Front Left Motor.
-        motorBackLeft = hardwareMap.dcMotor.get("motorBackLeft"); // Back Left Motor.
-        motorFrontRight = hardwareMap.dcMotor.get("motorFrontRight"); // Front Right Motor.
-        motorBackRight = hardwareMap.dcMotor.get("motorBackRight"); // Back Right Motor.
+        motorFrontLeft = getMotor("motorFrontLeft"); // Front Left Motor.
+        motorBackLeft = getMotor("motorBackLeft"); // Back Left Motor.
+        motorFrontRight = getMotor("motorFrontRight"); // Front Right Motor.
+        motorBackRight = getMotor("motorBackRight"); // Back Right Motor.
 
         // Sets all motors to use encoders.
         motorBackLeft.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
@@ -38,111 +90,102 @@ public class AutonomousOpMode extends LinearOpMode {
         motorFrontRight.setDirection(DcMotorSimple.Direction.REVERSE);
         motorBackRight.setDirection(DcMotorSimple.Direction.REVERSE);
 
-        // Adds telemetry to the Driver Station.
-        telemetry.addData("Status", "Initialized"); // Adds Initialized Status.
-        telemetry.update();
+        driveMotors = new DcMotorEx[] {motorFrontLeft, motorBackLeft, motorFrontRight, motorBackRight};
+
+        imu = hardwareMap.get(IMU.class, "imu"); // Same orientation as Combined_MecanumTeleOp.
+        imuStartup = ImuStartup.begin(imu, new IMU.Parameters(new RevHubOrientationOnRobot(
+                RevHubOrientationOnRobot.LogoFacingDirection.UP,
+                RevHubOrientationOnRobot.UsbFacingDirection.FORWARD)));
+        heading = new AsyncHeadingProvider(HeadingSources.of(imu));
+        heading.startAfter(imuStartup.getReady()); // Starts reading as soon as the IMU is ready.
+
+        // Usage of move and turn actions.
+        // The routine is built here, so every motion profile is computed before the match starts.
+        routine = Actions.sequence(
+                move(180, 0.5),
+                move(270, 0.5)
+        );
+
+        // Sets up the telemetry lines shown on the Driver Station.
+        dashboard = new TelemetryBoard(telemetry);
+        statusLine = dashboard.addText("Status").set("Initialized"); // Adds Initialized Status.
+        dashboard.addLine("IMU", imuStartup::getStatus); // How long the IMU took to start, or that it is still starting.
+        dashboard.addLine("Pose", () -> {
+            Pose2d pose = odometry.getPose();
+            return String.format("x %.1f in, y %.1f in, heading %.1f deg", pose.x, pose.y, pose.getHeadingDegrees());
+        }); // Only formatted when the board sends.
+        dashboard.forceUpdate();
+    }
 
-        waitForStart(); // Wait for the game to start (driver presses PLAY).
+    @Override
+    protected void initLoop() {
+        dashboard.update();
+    }
 
-        // Usage of move and turn functions:
+    @Override
+    protected void onStart() {
+        heading.resetYaw(); // If the IMU is still starting, its first reading becomes 0; the odometry uses the wheels until then.
+        odometry.setPose(0, 0, 0); // The robot's starting position; change this to measure from the field's origin instead.
+        scheduler.schedule(routine);
+        statusLine.set("Running");
+    }
 
-        move(180, 0.5);
-        move(270, 0.5);
+    @Override
+    protected void cycle() {
+        updatePose(); // Before the actions run, so they can use where the robot is this cycle.
+        scheduler.update(); // Moves every running action forward by one step.
+        dashboard.update();
     }
 
-    // Define a method to perform a move action at a specific angle for a given distance.
-    private void move(double degrees, double distanceInFeet) {
-        // Calculate the encoder ticks based on the desired distance in feet.
-        double wheelCircumferenceInFeet = 11.875 / 12.0; // Wheel circumference in feet
-        double encoderTicks = (distanceInFeet * 1440.0) / wheelCircumferenceInFeet; // Assuming 1440 encoder ticks per rotation
-
-        // Calculate the motor powers based on the specified degrees
-        double radians = Math.toRadians(degrees);
-        double x = Math.cos(radians);
-        double y = Math.sin(radians);
-
-        // Denominator is the largest motor power (absolute value) or 1.
-        double denominator = Math.max(Math.abs(x) + Math.abs(y), 1);
-        double frontLeftPower = (x + y) / denominator;
-        double backLeftPower = (-x + y) / denominator;
-        double frontRightPower = (x - y) / denominator;
-        double backRightPower = (-x - y) / denominator;
-
-        // Set target encoder positions for each motor based on distance
-        int targetFrontLeft = motorFrontLeft.getCurrentPosition() + (int) (encoderTicks * frontLeftPower);
-        int targetBackLeft = motorBackLeft.getCurrentPosition() + (int) (encoderTicks * backLeftPower);
-        int targetFrontRight = motorFrontRight.getCurrentPosition() + (int) (encoderTicks * frontRightPower);
-        int targetBackRight = motorBackRight.getCurrentPosition() + (int) (encoderTicks * backRightPower);
-
-        // Set target positions for each motor
-        motorFrontLeft.setTargetPosition(targetFrontLeft);
-        motorBackLeft.setTargetPosition(targetBackLeft);
-        motorFrontRight.setTargetPosition(targetFrontRight);
-        motorBackRight.setTargetPosition(targetBackRight);
-
-        // Set motor run mode to RUN_TO_POSITION
-        motorFrontLeft.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorBackLeft.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorFrontRight.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorBackRight.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-
-        // Calculate motor powers
-        double power = 0.5; // You can adjust the power based on your robot's capabilities
-        motorFrontLeft.setPower(power);
-        motorBackLeft.setPower(power);
-        motorFrontRight.setPower(power);
-        motorBackRight.setPower(power);
-
-        // Wait until the motors reach their targets
-        while (motorFrontLeft.isBusy() || motorBackLeft.isBusy() || motorFrontRight.isBusy() || motorBackRight.isBusy()) {
-            // Wait for the motors to finish
-        }
-
-        // Stop all motors
-        setMotorPower(0);
+    // Feeds this cycle's bulk-read encoder positions and the latest IMU yaw into the odometry.
+    // Until the first IMU sample arrives, the odometry works the heading out from the wheels.
+    private void updatePose() {
+        odometry.update(
+                motorFrontLeft.getCurrentPosition(),
+                motorBackLeft.getCurrentPosition(),
+                motorFrontRight.getCurrentPosition(),
+                motorBackRight.getCurrentPosition(),
+                heading.getSnapshot(headingSample) ? headingSample.yawRadians : Double.NaN);
+    }
+
+    @Override
+    protected boolean isFinished() {
+        return scheduler.isIdle(); // The OpMode ends as soon as the routine is done.
+    }
+
+    @Override
+    protected void onStop() {
+        scheduler.cancelAll(); // Stops whatever is still running if Stop was pressed mid-routine.
+        if (heading != null) heading.stop(); // Stops reading the IMU.
+        if (motorBackRight != null) setMotorPower(0); // null if initialize() failed before getting the motors.
     }
 
+    // Define a method that returns an action to move at a specific angle for a given distance.
+    // The wheels follow a motion profile, so the move speeds up and slows down as fast as DRIVE_CONSTRAINTS allow.
+    private Action move(double degrees, double distanceInFeet) {
+        // Calculate the encoder ticks based on the desired distance in feet.
+        double encoderTicks = MecanumMath.distanceToTicks(distanceInFeet, WHEEL_CIRCUMFERENCE_FEET, TICKS_PER_REVOLUTION);
+
+        // Calculate how far each wheel turns based on the specified degrees
+        // (divided by the largest motor power (absolute value) or 1).
+        double[] wheelFactors = new double[4];
+        MecanumMath.translationAtAngle(degrees, wheelFactors);
 
+        return new FollowProfileAction(driveMotors, wheelFactors, MotionProfileGenerator.generate(encoderTicks, DRIVE_CONSTRAINTS));
+    }
 
-    // Method to turn the robot using encoders.
-    private void turn(double degrees) {
+    // Define a method that returns an action to turn the robot in place by the given degrees.
+    // Like move(), the wheels follow a motion profile: the left side turns forward and the right side backward.
+    private Action turn(double degrees) {
         // Calculate the encoder ticks for the turn
-        double wheelbaseWidthInFeet = 1.0; // Adjust this based on your robot's wheelbase width
-        double wheelCircumferenceInFeet = 11.875 / 12.0; // Wheel circumference in feet
-        double encoderTicks = (Math.PI * wheelbaseWidthInFeet * degrees) / 360.0 / wheelCircumferenceInFeet * 1440.0;
-
-        // Set target positions for the motors to perform the turn
-        int targetFrontLeft = motorFrontLeft.getCurrentPosition() + (int) encoderTicks;
-        int targetBackLeft = motorBackLeft.getCurrentPosition() + (int) encoderTicks;
-        int targetFrontRight = motorFrontRight.getCurrentPosition() - (int) encoderTicks;
-        int targetBackRight = motorBackRight.getCurrentPosition() - (int) encoderTicks;
-
-        // Set target positions for each motor
-        motorFrontLeft.setTargetPosition(targetFrontLeft);
-        motorBackLeft.setTargetPosition(targetBackLeft);
-        motorFrontRight.setTargetPosition(targetFrontRight);
-        motorBackRight.setTargetPosition(targetBackRight);
-
-        // Set motor run mode to RUN_TO_POSITION
-        motorFrontLeft.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorBackLeft.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorFrontRight.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorBackRight.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-
-        // Calculate motor powers
-        double power = 0.5; // You can adjust the power based on your robot's capabilities
-        motorFrontLeft.setPower(power);
-        motorBackLeft.setPower(power);
-        motorFrontRight.setPower(power);
-        motorBackRight.setPower(power);
-
-        // Wait until the motors reach their targets
-        while (motorFrontLeft.isBusy() || motorBackLeft.isBusy() || motorFrontRight.isBusy() || motorBackRight.isBusy()) {
-            // Wait for the motors to finish
-        }
-
-        // Stop all motors
-        setMotorPower(0);
+        double encoderTicks = MecanumMath.turnToTicks(degrees, WHEELBASE_WIDTH_FEET, WHEEL_CIRCUMFERENCE_FEET, TICKS_PER_REVOLUTION);
+        double[] wheelFactors = new double[4];
+        wheelFactors[MecanumMath.FRONT_LEFT] = 1;
+        wheelFactors[MecanumMath.BACK_LEFT] = 1;
+        wheelFactors[MecanumMath.FRONT_RIGHT] = -1;
+        wheelFactors[MecanumMath.BACK_RIGHT] = -1;
+
+        return new FollowProfileAction(driveMotors, wheelFactors, MotionProfileGenerator.generate(encoderTicks, DRIVE_CONSTRAINTS));
     }
 
     // Define methods to set motor powers
@@ -152,4 +195,4 @@ public class AutonomousOpMode extends LinearOpMode {
         motorFrontRight.setPower(-power);
         motorBackRight.setPower(-power);
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,6 @@
 package org.firstinspires.ftc.teamcode;
 
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
-import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotor.ZeroPowerBehavior;
@@ -12,11 +11,24 @@ import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.IMU;
 import com.qualcomm.robotcore.hardware.Servo;
 
-import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.control.LoopProfiler;
+import org.firstinspires.ftc.teamcode.input.Button;
+import org.firstinspires.ftc.teamcode.kinematics.HeadingRotation;
+import org.firstinspires.ftc.teamcode.math.MecanumMath;
+import org.firstinspires.ftc.teamcode.sensors.AsyncHeadingProvider;
+import org.firstinspires.ftc.teamcode.sensors.HeadingSnapshot;
+import org.firstinspires.ftc.teamcode.sensors.HeadingSources;
+import org.firstinspires.ftc.teamcode.sensors.ImuStartup;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecord;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecorder;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
 
 @TeleOp // Without this, this file will not show in the TeleOp section of the REV Driver Hub.
 // Note that REV Driver Hub and REV Driver Station are synonymous.
-public class Combined_MecanumTeleOp extends LinearOpMode {
+// Runs on ControlLoopOpMode, so every hub is bulk-read once per cycle (MANUAL caching) no matter how many times the slide encoders are read below.
+public class Combined_MecanumTeleOp extends ControlLoopOpMode {
     double accelerationFactor = 0.15; // Sets the default movement speed to 15% (0.15).
 
     // Defines 4 Mecanum Wheel Motors, and then the Viper Slide Motor.
@@ -27,26 +39,62 @@ public class Combined_MecanumTeleOp extends LinearOpMode {
     DcMotorEx motorLeftViperSlide;
     DcMotorEx motorRightViperSlide;
 
+    // Defines the 2 Claw Servos.
+    Servo servoLeftClaw;
+    Servo servoRightClaw;
+
     // Creates IMU that is set to imu.
     IMU imu;
+    ImuStartup imuStartup; // Initializes the IMU in the background during init.
+    AsyncHeadingProvider heading; // Reads the IMU on its own thread, so the loop never waits for it.
 
-    String last_button = ""; // Variable that stores the last gamepad1 press/call, which is displayed on REV control hub using telemetry.addData();
+    String last_button = ""; // Variable that stores the last gamepad1 press/call, which is displayed on REV control hub using lastButtonLine.
 
     boolean isFieldCentric = true; // Sets the default to field-centric mode when CombinedMecanumTeleOp is initialized on the REV Driver Hub.
 
+    double motorViperSlideSpeed = 0.4; // Variable that stores the speed of the viper slide motor, modify based on what works best for your robot.
+
+    int newLeftViperSlidePosition = 0; // Variable that stores the encoder tick of where the left viper slide need to go to.
+    // It updates whenever a gamepad button that affects the viper slides is pressed.
+
+    int newRightViperSlidePosition = 0; // Variable that stores the encoder tick of where the right viper slide need to go to.
+    // It updates whenever a gamepad button that affects the viper slides is pressed.
+
+    final double[] wheelPowers = new double[4]; // Mecanum wheel powers from MecanumMath, reused every cycle so nothing is allocated.
+    final HeadingRotation headingRotation = new HeadingRotation(); // Sine and cosine of the heading, worked out once per cycle.
+
+    static final int FIELD_CENTRIC_FLAG = 1; // Set in MatchRecord.flags while in Field-Centric mode.
+    MatchRecorder recorder; // Records every cycle to /sdcard/FIRST/data/matches, for looking at after the match (see sim.MatchLogDecoder).
+    final HeadingSnapshot headingSample = new HeadingSnapshot(); // Reused every cycle for the recording.
+
+    // Telemetry lines, set up once in initialize(). The loop only stores values in them; the board sends about 4 times a second.
+    TelemetryBoard dashboard;
+    TelemetrySlot statusLine;
+    TelemetrySlot modeLine;
+    TelemetrySlot frontLeftPowerLine;
+    TelemetrySlot backLeftPowerLine;
+    TelemetrySlot frontRightPowerLine;
+    TelemetrySlot backRightPowerLine;
+    TelemetrySlot speedLine;
+    TelemetrySlot rightViperSlideLine;
+    TelemetrySlot leftViperSlideLine;
+    TelemetrySlot viperSlideModeLine;
+    TelemetrySlot lastButtonLine;
+
     @Override
-    public void runOpMode() throws InterruptedException {
+    protected void initialize() {
         // Declares motors using ID's that match the configuration on the REV Control Hub.
-        motorFrontLeft = hardwareMap.dcMotor.get("motorFrontLeft"); // Front Left Motor.
-        motorBackLeft = hardwareMap.dcMotor.get("motorBackLeft"); // Back Left Motor.
-        motorFrontRight = hardwareMap.dcMotor.get("motorFrontRight"); // Front Right Motor.
-        motorBackRight = hardwareMap.dcMotor.get("motorBackRight"); // Back Right Motor.
-        motorLeftViperSlide = hardwareMap.get(DcMotorEx.class, "motorLeftViperSlide"); // Viper Slide Motor.
-        motorRightViperSlide = hardwareMap.get(DcMotorEx.class, "motorRightViperSlide"); // Viper Slide Motor.
+        // getMotor() and getServo() wrap every device so writes that don't change anything (which is most of them, since this is a loop) are never sent to the hub.
+        motorFrontLeft = getMotor("motorFrontLeft"); // Front Left Motor.
+        motorBackLeft = getMotor("motorBackLeft"); // Back Left Motor.
+        motorFrontRight = getMotor("motorFrontRight"); // Front Right Motor.
+        motorBackRight = getMotor("motorBackRight"); // Back Right Motor.
+        motorLeftViperSlide = getMotor("motorLeftViperSlide"); // Viper Slide Motor.
+        motorRightViperSlide = getMotor("motorRightViperSlide"); // Viper Slide Motor.
 
         // Declares servos using ID's that match the configuration on the REV Control Hub.
-        Servo servoLeftClaw = hardwareMap.get(Servo.class, "servoLeftClaw");
-        Servo servoRightClaw = hardwareMap.get(Servo.class, "servoRightClaw");
+        servoLeftClaw = getServo("servoLeftClaw");
+        servoRightClaw = getServo("servoRightClaw");
 
         // Sets all motors to use encoders.
         motorLeftViperSlide.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
@@ -85,246 +133,311 @@ public class Combined_MecanumTeleOp extends LinearOpMode {
                 RevHubOrientationOnRobot.LogoFacingDirection.UP,
                 RevHubOrientationOnRobot.UsbFacingDirection.FORWARD));
 
-        imu.initialize(parameters); // Without this, the REV Hub's orientation is assumed to be logo up / USB forward.
-
-        double motorViperSlideSpeed = 0.4; // Variable that stores the speed of the viper slide motor, modify based on what works best for your robot.
+        // Without this, the REV Hub's orientation is assumed to be logo up / USB forward.
+        // It takes about a second, so it runs in the background while the rest of init goes on.
+        imuStartup = ImuStartup.begin(imu, parameters);
+
+        heading = new AsyncHeadingProvider(HeadingSources.of(imu));
+        heading.startAfter(imuStartup.getReady()); // Starts reading as soon as the IMU is ready, so there is a heading by the time PLAY is pressed.
+
+        recorder = openRecorder(); // Maps the recording file now, so the loop only writes to memory.
+
+        // Sets up the telemetry lines shown on the Driver Station.
+        dashboard = new TelemetryBoard(telemetry);
+        statusLine = dashboard.addText("Status").set("Initialized"); // Adds Initialized Status.
+        modeLine = dashboard.addText("Mode").set("Field-Centric"); // Since the default mode is Field-Centric, sets Field-Centric to be the mode that is added to REV Driver Hub.
+        frontLeftPowerLine = dashboard.addNumber("Front Left Power", 2); // Power of the front left mecanum wheel.
+        backLeftPowerLine = dashboard.addNumber("Back Left Power", 2); // Power of the back left mecanum wheel.
+        frontRightPowerLine = dashboard.addNumber("Front Right Power", 2); // Power of the front right mecanum wheel.
+        backRightPowerLine = dashboard.addNumber("Back Right Power", 2); // Power of the back right mecanum wheel.
+        speedLine = dashboard.addNumber("Speed (Left Trigger)", 2); // Speed of robot mecanum wheel movement using the left trigger (between 0.15 and 1).
+        rightViperSlideLine = dashboard.addNumber("Right Viper Slide Position", 0); // motorRightViperSlide encoder position.
+        leftViperSlideLine = dashboard.addNumber("Left Viper Slide Position", 0); // motorLeftViperSlide encoder position.
+        viperSlideModeLine = dashboard.addText("ViperSlide Mode"); // motorRightViperSlide mode.
+        lastButtonLine = dashboard.addText("Last button pressed"); // The last gamepad 1 press/call (excluding joystick movement).
+        dashboard.addLine("IMU", imuStartup::getStatus); // How long the IMU took to start, or that it is still starting.
+        dashboard.addLine("Hub Writes", hubWrites::toString); // How many motor/servo writes were sent vs. skipped.
+        profiler.addTelemetry(dashboard); // p50/p95/p99/max loop times for the whole cycle and each phase.
+        dashboard.forceUpdate();
+    }
 
-        int newLeftViperSlidePosition = 0; // Variable that stores the encoder tick of where the left viper slide need to go to.
-        // It updates whenever a gamepad button that affects the viper slides is pressed.
+    // Where the match is recorded. The simulator and MatchReplay override this with MatchRecorder.disabled(),
+    // so running on a computer doesn't need /sdcard or leave a recording behind.
+    protected MatchRecorder openRecorder() {
+        return MatchRecorder.forOpMode(getClass().getSimpleName());
+    }
 
-        int newRightViperSlidePosition = 0; // Variable that stores the encoder tick of where the right viper slide need to go to.
-        // It updates whenever a gamepad button that affects the viper slides is pressed.
+    @Override
+    protected void onStart() {
+        heading.resetYaw(); // Resets the heading at the start of code (if the IMU is still starting, its first reading becomes 0).
+        statusLine.set("Running");
+    }
 
-        // Adds telemetry to the Driver Station.
-        telemetry.addData("Status", "Initialized"); // Adds Initialized Status.
-        telemetry.addData("Mode", "Field-Centric"); // Since the default mode is Field-Centric, sets Field-Centric to be the mode that is added to REV Driver Hub.
-        telemetry.update();
+    @Override
+    protected void onStop() {
+        if (heading != null) heading.stop(); // Stops reading the IMU.
+        if (recorder != null) recorder.close(); // Flushes the recording to flash.
+    }
 
-        waitForStart(); // Wait for the game to start (driver presses PLAY).
+    // Runs once per control cycle until the end of the match (driver presses STOP).
+    @Override
+    protected void cycle() {
+        // Toggle control mode on left joystick button press.
+        // wasPressed() is only true in the cycle the button goes down, so holding it doesn't toggle again (and nothing has to wait).
+        if (input1.wasPressed(Button.LEFT_STICK_BUTTON)) {
+            isFieldCentric = !isFieldCentric; // Toggle the mode.
+            last_button = "left stick button"; // Sets last button to "left stick button".
+
+            if (isFieldCentric) { // Activates when the mode is Field Centric.
+                modeLine.set("Field-Centric"); // Report the mode change to Field-Centric on Driver Hub.
+            } else { // Activates when the mode is Field Centric.
+                modeLine.set("Robot-Centric"); // Report the mode change to Robot-Centric on Driver Hub.
+            }
+        }
 
-        imu.resetYaw(); // Resets imu at the start of code.
+        // Get raw values from the gamepad (as copied at the start of this cycle).
+        double y = -input1.getLeftStickY(); // Negative because the gamepad's y-axis is inverted.
+        double x = input1.getLeftStickX() * 1.1; // Counteract imperfect strafing.
+        double rx = input1.getRightStickX();
+
+        servoRightClaw.setDirection(Servo.Direction.REVERSE); // Reverses Direction of Right Servo Claw (since it needs to move counterclockwise to close the claw and clockwise to open the claw).
+
+        int small_pole = -1710; // The encoder position for the small pole.
+        int medium_pole = -2840; // The encoder position for the medium pole.
+        int large_pole = -4087; // The encoder position for the large pole.
+        // Note that all encoder positions are negative because moving the right viper slide counterclockwise moves the slide up.
+
+        // Controls for vipers slide using presets.
+        // Due to the fact that if the claw is opened and the viper slide is moving, it can hit the camera.
+        // As a result, moving the gamepad through any gamepad button first forces the claw to be closed.
+        // When the "a" button is pressed, the viper slide motor will move to the bottom (0) using encoders.
+        if (input1.isDown(Button.A)) {
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = 0;
+            newRightViperSlidePosition = 0;
+            motorViperSlideSpeed = 0.4;
+            last_button = "a"; // Sets last button to "a".
+
+            // When the "x" button is pressed, the viper slide motor will move to the small pole position using encoders.
+        } else if (input1.isDown(Button.X)) {
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = -small_pole;
+            newRightViperSlidePosition = small_pole;
+            motorViperSlideSpeed = 0.4;
+            last_button = "x"; // Sets last button to "x".
+
+            // When the "y" button is pressed, the viper slide motor will move to the medium pole position using encoders.
+        } else if (input1.isDown(Button.Y)) {
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = -medium_pole;
+            newRightViperSlidePosition = medium_pole;
+            motorViperSlideSpeed = 0.4;
+            last_button = "y"; // Sets last button to "y".
+
+            // When the "b" button is pressed, the viper slide motor will move to the large pole position using encoders.
+        } else if (input1.isDown(Button.B)) {
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = -large_pole;
+            newRightViperSlidePosition = large_pole;
+            motorViperSlideSpeed = 0.4;
+            last_button = "b"; // Sets last button to "b".
+
+            // Control motorLeftViperSlide & motorRightViperSlide without using presets.
+            // When the down dpad is pressed, the viper slide motor will move down using encoders.
+        } else if ((input1.isDown(Button.DPAD_DOWN) && motorRightViperSlide.getCurrentPosition() < 0) &&  motorLeftViperSlide.getCurrentPosition() > 0) { // Checks if the motor is at the bottom to make sure it cannot run past it.
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = (motorLeftViperSlide.getCurrentPosition() - 100);
+            newRightViperSlidePosition = (motorRightViperSlide.getCurrentPosition() + 100);
+            motorViperSlideSpeed = 0.4;
+            last_button = "dPad - down"; // Sets last button to "dPad - down".
+
+            // When the up dpad is pressed, the viper slide motor will move up using encoders.
+        } else if ((input1.isDown(Button.DPAD_UP) && motorRightViperSlide.getCurrentPosition() > -4300) && motorLeftViperSlide.getCurrentPosition() > -300) { // Checks if the motor is nearly at the top to make sure it cannot run past it.
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = (motorLeftViperSlide.getCurrentPosition() + 100);
+            newRightViperSlidePosition = (motorRightViperSlide.getCurrentPosition() - 100);
+            motorViperSlideSpeed = -0.4;
+            last_button = "dPad - up"; // Sets last button to "dPad - up".
+
+            // When the right trigger is pressed, the viper slide motor will move down using encoders at a fixed speed.
+            // It can move higher past viper slide encoder value 0 (positive numbers).
+            // THIS IS A FAIL SAFE ONLY IN CASE THE ENCODER VALUE IS RESET TO 0 IN THE WRONG PLACE!
+        } else if (input1.getRightTrigger() > 0) {
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            newLeftViperSlidePosition = (motorLeftViperSlide.getCurrentPosition() - 100);
+            newRightViperSlidePosition = (motorRightViperSlide.getCurrentPosition() + 100);
+            motorViperSlideSpeed = 0.4;
+            last_button = "right trigger"; // Sets last button to "right bumper".
+
+            // When the left bumper is pressed, the claw will open.
+        } else if ((newLeftViperSlidePosition + 25 > motorLeftViperSlide.getCurrentPosition()) && (newLeftViperSlidePosition - 25  < motorLeftViperSlide.getCurrentPosition()) &&
+                ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition())) && (input1.isDown(Button.LEFT_BUMPER))) {
+            servoLeftClaw.setPosition(0.3); // Opens Left Claw.
+            servoRightClaw.setPosition(0.62); // Opens Right Claw (remember, the direction has been reversed).
+            last_button = "right bumper"; // Sets last button to "left bumper".
+
+            // When the right bumper is pressed, the claw will close.
+        } else if ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition()) &&
+                ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition())) && (input1.isDown(Button.RIGHT_BUMPER))) {
+            servoLeftClaw.setPosition(0.415); // Closes Left Claw.
+            servoRightClaw.setPosition(0.735); // Closes Right Claw.
+            last_button = "left bumper"; // Sets last button to "right bumper".
+        }
 
-        // Run until the end of the match (driver presses STOP).
-        if (isStopRequested()) return;
+        profiler.lap(LoopProfiler.COMPUTE); // Everything so far (gamepad + slide presets) is charged to compute, including the cycle's bulk read.
 
-        while (opModeIsActive()) {
-            // Toggle control mode on left joystick button press.
-            if (gamepad1.left_stick_button) {
-                isFieldCentric = !isFieldCentric; // Toggle the mode.
-                last_button = "left stick button"; // Sets last button to "left stick button".
-                sleep(200); // Small delay to avoid multiple toggles.
+        // Moves Right Viper Slide
+        motorRightViperSlide.setPower(motorViperSlideSpeed); // This sets the speed at which the right viper slide will run at.
+        motorRightViperSlide.setTargetPosition(newRightViperSlidePosition); // This sets the target position of the right viper slide to newViperSlidePosition.
+        motorRightViperSlide.setMode(DcMotor.RunMode.RUN_TO_POSITION); // This causes the right viper slide motor to move to the value of newViperSlidePosition.
 
-                if (isFieldCentric) { // Activates when the mode is Field Centric.
-                    telemetry.addData("Mode", "Field-Centric"); // Report the mode change to Field-Centric on Driver Hub.
-                } else { // Activates when the mode is Field Centric.
-                    telemetry.addData("Mode", "Robot-Centric"); // Report the mode change to Robot-Centric on Driver Hub.
-                }
+        // Moves Left Viper Slide
+        motorLeftViperSlide.setPower(-motorViperSlideSpeed); // This sets the speed at which the left viper slide will run at.
+        // Reversed since it is built inverted.
+        motorLeftViperSlide.setTargetPosition(newLeftViperSlidePosition); // This sets the target position of the right viper slide to newViperSlidePosition.
+        motorLeftViperSlide.setMode(DcMotor.RunMode.RUN_TO_POSITION); // This moves the left viper slide motors to move to the value of newViperSlidePosition.
 
-                telemetry.update(); // Adds the mode telemetry to REV Driver Hub.
-            }
+        // Recorded here, since motorViperSlideSpeed can still change below (it takes effect next cycle).
+        MatchRecord record = recorder.getRecord();
+        record.powers[MatchRecord.RIGHT_SLIDE] = (float) motorViperSlideSpeed;
+        record.powers[MatchRecord.LEFT_SLIDE] = (float) -motorViperSlideSpeed;
 
-            // Get raw values from the gamepad.
-            double y = -gamepad1.left_stick_y; // Negative because the gamepad's y-axis is inverted.
-            double x = gamepad1.left_stick_x * 1.1; // Counteract imperfect strafing.
-            double rx = gamepad1.right_stick_x;
-
-            servoRightClaw.setDirection(Servo.Direction.REVERSE); // Reverses Direction of Right Servo Claw (since it needs to move counterclockwise to close the claw and clockwise to open the claw).
-
-            int small_pole = -1710; // The encoder position for the small pole.
-            int medium_pole = -2840; // The encoder position for the medium pole.
-            int large_pole = -4087; // The encoder position for the large pole.
-            // Note that all encoder positions are negative because moving the right viper slide counterclockwise moves the slide up.
-
-            // Controls for vipers slide using presets.
-            // Due to the fact that if the claw is opened and the viper slide is moving, it can hit the camera.
-            // As a result, moving the gamepad through any gamepad button first forces the claw to be closed.
-            // When the "a" button is pressed, the viper slide motor will move to the bottom (0) using encoders.
-            if (gamepad1.a) {
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = 0;
-                newRightViperSlidePosition = 0;
-                motorViperSlideSpeed = 0.4;
-                last_button = "a"; // Sets last button to "a".
-
-                // When the "x" button is pressed, the viper slide motor will move to the small pole position using encoders.
-            } else if (gamepad1.x) {
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = -small_pole;
-                newRightViperSlidePosition = small_pole;
-                motorViperSlideSpeed = 0.4;
-                last_button = "x"; // Sets last button to "x".
-
-                // When the "y" button is pressed, the viper slide motor will move to the medium pole position using encoders.
-            } else if (gamepad1.y) {
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = -medium_pole;
-                newRightViperSlidePosition = medium_pole;
-                motorViperSlideSpeed = 0.4;
-                last_button = "y"; // Sets last button to "y".
-
-                // When the "b" button is pressed, the viper slide motor will move to the large pole position using encoders.
-            } else if (gamepad1.b) {
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = -large_pole;
-                newRightViperSlidePosition = large_pole;
-                motorViperSlideSpeed = 0.4;
-                last_button = "b"; // Sets last button to "b".
-
-                // Control motorLeftViperSlide & motorRightViperSlide without using presets.
-                // When the down dpad is pressed, the viper slide motor will move down using encoders.
-            } else if ((gamepad1.dpad_down && motorRightViperSlide.getCurrentPosition() < 0) &&  motorLeftViperSlide.getCurrentPosition() > 0) { // Checks if the motor is at the bottom to make sure it cannot run past it.
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = (motorLeftViperSlide.getCurrentPosition() - 100);
-                newRightViperSlidePosition = (motorRightViperSlide.getCurrentPosition() + 100);
-                motorViperSlideSpeed = 0.4;
-                last_button = "dPad - down"; // Sets last button to "dPad - down".
-
-                // When the up dpad is pressed, the viper slide motor will move up using encoders.
-            } else if ((gamepad1.dpad_up && motorRightViperSlide.getCurrentPosition() > -4300) && motorLeftViperSlide.getCurrentPosition() > -300) { // Checks if the motor is nearly at the top to make sure it cannot run past it.
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = (motorLeftViperSlide.getCurrentPosition() + 100);
-                newRightViperSlidePosition = (motorRightViperSlide.getCurrentPosition() - 100);
-                motorViperSlideSpeed = -0.4;
-                last_button = "dPad - up"; // Sets last button to "dPad - up".
-
-                // When the right trigger is pressed, the viper slide motor will move down using encoders at a fixed speed.
-                // It can move higher past viper slide encoder value 0 (positive numbers).
-                // THIS IS A FAIL SAFE ONLY IN CASE THE ENCODER VALUE IS RESET TO 0 IN THE WRONG PLACE!
-            } else if (gamepad1.right_trigger > 0) {
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                newLeftViperSlidePosition = (motorLeftViperSlide.getCurrentPosition() - 100);
-                newRightViperSlidePosition = (motorRightViperSlide.getCurrentPosition() + 100);
-                motorViperSlideSpeed = 0.4;
-                last_button = "right trigger"; // Sets last button to "right bumper".
-
-                // When the left bumper is pressed, the claw will open.
-            } else if ((newLeftViperSlidePosition + 25 > motorLeftViperSlide.getCurrentPosition()) && (newLeftViperSlidePosition - 25  < motorLeftViperSlide.getCurrentPosition()) &&
-                    ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition())) && (gamepad1.left_bumper)) {
-                servoLeftClaw.setPosition(0.3); // Opens Left Claw.
-                servoRightClaw.setPosition(0.62); // Opens Right Claw (remember, the direction has been reversed).
-                last_button = "right bumper"; // Sets last button to "left bumper".
-
-                // When the right bumper is pressed, the claw will close.
-            } else if ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition()) &&
-                    ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition())) && (gamepad1.right_bumper)) {
-                servoLeftClaw.setPosition(0.415); // Closes Left Claw.
-                servoRightClaw.setPosition(0.735); // Closes Right Claw.
-                last_button = "left bumper"; // Sets last button to "right bumper".
-            }
+        profiler.lap(LoopProfiler.ACTUATOR_WRITE);
 
-            // Moves Right Viper Slide
-            motorRightViperSlide.setPower(motorViperSlideSpeed); // This sets the speed at which the right viper slide will run at.
-            motorRightViperSlide.setTargetPosition(newRightViperSlidePosition); // This sets the target position of the right viper slide to newViperSlidePosition.
-            motorRightViperSlide.setMode(DcMotor.RunMode.RUN_TO_POSITION); // This causes the right viper slide motor to move to the value of newViperSlidePosition.
-
-            // Moves Left Viper Slide
-            motorLeftViperSlide.setPower(-motorViperSlideSpeed); // This sets the speed at which the left viper slide will run at.
-            // Reversed since it is built inverted.
-            motorLeftViperSlide.setTargetPosition(newLeftViperSlidePosition); // This sets the target position of the right viper slide to newViperSlidePosition.
-            motorLeftViperSlide.setMode(DcMotor.RunMode.RUN_TO_POSITION); // This moves the left viper slide motors to move to the value of newViperSlidePosition.
-
-            // Sets viper slide speed to 0 when it is very close to its position that it needs to go to, which prevents the  viper slide motors from stalling and burning out.
-            // This happens because this TeleOp code is in a while loop, meaning that the viper slides are constantly moving and they are never set to 0.
-            if ((newRightViperSlidePosition + 25 > motorLeftViperSlide.getCurrentPosition()) && (newLeftViperSlidePosition - 25  < motorLeftViperSlide.getCurrentPosition()) &&
-                    ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition())) && (gamepad1.left_bumper)) {
-                motorViperSlideSpeed = 0;
-            }
+        // Sets viper slide speed to 0 when it is very close to its position that it needs to go to, which prevents the  viper slide motors from stalling and burning out.
+        // This happens because this TeleOp code is in a while loop, meaning that the viper slides are constantly moving and they are never set to 0.
+        if ((newRightViperSlidePosition + 25 > motorLeftViperSlide.getCurrentPosition()) && (newLeftViperSlidePosition - 25  < motorLeftViperSlide.getCurrentPosition()) &&
+                ((newRightViperSlidePosition + 25 > motorRightViperSlide.getCurrentPosition()) && (newRightViperSlidePosition - 25  < motorRightViperSlide.getCurrentPosition())) && (input1.isDown(Button.LEFT_BUMPER))) {
+            motorViperSlideSpeed = 0;
+        }
 
-            // Creates three variables that are used for the Mecanum wheel calculations.
-            double forward, sideways, rotation;
+        // Creates three variables that are used for the Mecanum wheel calculations.
+        double forward, sideways, rotation;
 
-            // Convert the raw x and y values to robot-centric forward and sideways velocities for easier understanding.
-            forward = y;
-            sideways = x;
-            rotation = rx; // Set to right stick rotation value.
+        // Convert the raw x and y values to robot-centric forward and sideways velocities for easier understanding.
+        forward = y;
+        sideways = x;
+        rotation = rx; // Set to right stick rotation value.
 
-            // Use the LT value as an acceleration factor for all mecanum wheel movement.
-            // LT value is between 0.15 (not pressed) and 1 (fully pressed).
-            double lt = gamepad1.left_trigger;
-            double ltSpeed = accelerationFactor + (1 - accelerationFactor) * lt;
+        // Use the LT value as an acceleration factor for all mecanum wheel movement.
+        // LT value is between 0.15 (not pressed) and 1 (fully pressed).
+        double lt = input1.getLeftTrigger();
+        double ltSpeed = accelerationFactor + (1 - accelerationFactor) * lt;
 
-            // Reset the yaw angle to 0 degrees when the "Back" button is pressed. Is used for Field-Centric mode, but can be activated during Robot-Centric Mode for Field-Centric mode.
-            if (gamepad1.back) {
-                imu.resetYaw();
-                last_button = "back"; // Sets last button to "back".
-            }
+        // Reset the yaw angle to 0 degrees when the "Back" button is pressed. Is used for Field-Centric mode, but can be activated during Robot-Centric Mode for Field-Centric mode.
+        if (input1.wasPressed(Button.BACK)) {
+            heading.resetYaw();
+            last_button = "back"; // Sets last button to "back".
+        }
 
-            // Resets encoder value of viper slide motor to 0 when the right joystick button is pressed.
-            // Can be used in both Field-Centric and Robot-Centric mode.
-            if (gamepad1.right_stick_button) {
-                motorRightViperSlide.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-                motorLeftViperSlide.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-                last_button = "right stick button"; // Sets last button to "right stick button".
-            }
+        // Resets encoder value of viper slide motor to 0 when the right joystick button is pressed.
+        // Can be used in both Field-Centric and Robot-Centric mode.
+        if (input1.wasPressed(Button.RIGHT_STICK_BUTTON)) {
+            motorRightViperSlide.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+            motorLeftViperSlide.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+            last_button = "right stick button"; // Sets last button to "right stick button".
+        }
 
-            // If the robot is in Field-Centric Mode, the robot will NOT have a head (meaning that the robot's controls WILL NOT change based off the direction it is facing).
-            // What direction is forward can be done be resetting the yaw angle to 0 degrees (through pressing gamepad.back).
-            if (isFieldCentric) {
-
-                // Calculate motor powers using mecanum drive kinematics.
-                double botHeading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
-
-                // Rotate the movement direction counter to the robot's rotation.
-                double rotX = x * Math.cos(-botHeading) - y * Math.sin(-botHeading);
-                double rotY = x * Math.sin(-botHeading) + y * Math.cos(-botHeading);
-
-                // Denominator is the largest motor power (absolute value) or 1.
-                // This ensures all the powers maintain the same ratio, but only when at least one is out of the range [-1, 1].
-                double denominator = Math.max(Math.abs(rotY) + Math.abs(rotX) + Math.abs(rx), 1);
-                double frontLeftPower = (rotY + rotX + rotation) / denominator * ltSpeed;
-                double backLeftPower = (rotY - rotX + rotation) / denominator * ltSpeed;
-                double frontRightPower = (rotY - rotX - rotation) / denominator * ltSpeed;
-                double backRightPower = (rotY + rotX - rotation) / denominator * ltSpeed;
-
-                // Set motor powers.
-                motorFrontLeft.setPower(-frontLeftPower);
-                motorBackLeft.setPower(-backLeftPower);
-                motorFrontRight.setPower(-frontRightPower);
-                motorBackRight.setPower(-backRightPower);
-
-                // Display mode + wheel powers.
-                telemetry.addData("Mode:", "Field-Centric"); // Displays current mode (Field-Centric).
-                telemetry.addData("Front Left Power", frontLeftPower); // Displays power of the front left mecanum wheel.
-                telemetry.addData("Back Left Power", backLeftPower); // Displays power of the back left mecanum wheel.
-                telemetry.addData("Front Right Power", frontRightPower); // Displays power of the front right mecanum wheel.
-                telemetry.addData("Back Right Power", backRightPower); // Displays power of the back right mecanum wheel.
-            }
+        // If the robot is in Field-Centric Mode, the robot will NOT have a head (meaning that the robot's controls WILL NOT change based off the direction it is facing).
+        // What direction is forward can be done be resetting the yaw angle to 0 degrees (through pressing gamepad.back).
+        if (isFieldCentric) {
+
+            // Calculate motor powers using mecanum drive kinematics.
+            profiler.lap(LoopProfiler.COMPUTE);
+            headingRotation.set(heading.getExtrapolatedHeading()); // The latest IMU heading, moved forward to now by the yaw rate.
+            profiler.lap(LoopProfiler.SENSOR_READ);
+
+            // Rotate the movement direction counter to the robot's rotation, then scale the powers down together if any is out of [-1, 1].
+            // This ensures all the powers maintain the same ratio.
+            MecanumMath.fieldCentric(x, y, rotation, headingRotation, ltSpeed, wheelPowers);
+            double frontLeftPower = wheelPowers[MecanumMath.FRONT_LEFT];
+            double backLeftPower = wheelPowers[MecanumMath.BACK_LEFT];
+            double frontRightPower = wheelPowers[MecanumMath.FRONT_RIGHT];
+            double backRightPower = wheelPowers[MecanumMath.BACK_RIGHT];
+
+            profiler.lap(LoopProfiler.COMPUTE);
+
+            // Set motor powers.
+            motorFrontLeft.setPower(-frontLeftPower);
+            motorBackLeft.setPower(-backLeftPower);
+            motorFrontRight.setPower(-frontRightPower);
+            motorBackRight.setPower(-backRightPower);
+            profiler.lap(LoopProfiler.ACTUATOR_WRITE);
+
+            // Display mode + wheel powers.
+            modeLine.set("Field-Centric"); // Displays current mode (Field-Centric).
+            frontLeftPowerLine.set(frontLeftPower); // Displays power of the front left mecanum wheel.
+            backLeftPowerLine.set(backLeftPower); // Displays power of the back left mecanum wheel.
+            frontRightPowerLine.set(frontRightPower); // Displays power of the front right mecanum wheel.
+            backRightPowerLine.set(backRightPower); // Displays power of the back right mecanum wheel.
+        }
 
-            // If the robot is in Robot-Centric Mode, the robot will WILL have a head (meaning that the robot's controls WILL change based off the direction it is facing).
-            // You can still reset the yaw angle to 0 by using the back button in Robot-Centric mode.
-            else {
-                // Calculate motor powers using mecanum drive kinematics.
-                // No denominator is needed here in Robot-Centric Mode.
-                double frontLeftPower = (forward + sideways + rotation) * ltSpeed;
-                double frontRightPower = (forward - sideways - rotation) * ltSpeed;
-                double backLeftPower = (forward - sideways + rotation) * ltSpeed;
-                double backRightPower = (forward + sideways - rotation) * ltSpeed;
-
-                // Set motor powers.
-                motorFrontLeft.setPower(-frontLeftPower);
-                motorBackLeft.setPower(-backLeftPower);
-                motorFrontRight.setPower(-frontRightPower);
-                motorBackRight.setPower(-backRightPower);
-
-                telemetry.addData("Mode:", "Robot-Centric"); // Displays current mode (Robot-Centric).
-                telemetry.addData("Front Left Power", frontLeftPower); // Displays power of the front left mecanum wheel.
-                telemetry.addData("Back Left Power", backLeftPower); // Displays power of the back left mecanum wheel.
-                telemetry.addData("Front Right Power", frontRightPower); // Displays power of the front right mecanum wheel.
-                telemetry.addData("Back Right Power", backRightPower); // Displays power of the back right mecanum wheel.
-            }
-            telemetry.addData("Speed (Left Trigger)", ltSpeed); // Displays speed of robot mecanum wheel movement using the left trigger (between 0.15 and 1).
-            telemetry.addData("Right Viper Slide Position", motorRightViperSlide.getCurrentPosition());  // Displays motorRightViperSlide encoder position.
-            telemetry.addData("Left Viper Slide Position", motorLeftViperSlide.getCurrentPosition());  // Displays motorLeftViperSlide encoder position.
-            telemetry.addData("ViperSlide Mode", motorRightViperSlide.getMode()); // Displays motorRightViperSlide mode.
-            telemetry.addData("Last button pressed", last_button); // Displays the last gamepad 1 press/call (excluding joystick movement).
-            telemetry.update(); // Adds telemetry to REV Driver Hub.
+        // If the robot is in Robot-Centric Mode, the robot will WILL have a head (meaning that the robot's controls WILL change based off the direction it is facing).
+        // You can still reset the yaw angle to 0 by using the back button in Robot-Centric mode.
+        else {
+            // Calculate motor powers using mecanum drive kinematics.
+            // Powers are scaled down together if any is out of [-1, 1], same as Field-Centric Mode.
+            MecanumMath.robotCentric(forward, sideways, rotation, ltSpeed, wheelPowers);
+            double frontLeftPower = wheelPowers[MecanumMath.FRONT_LEFT];
+            double frontRightPower = wheelPowers[MecanumMath.FRONT_RIGHT];
+            double backLeftPower = wheelPowers[MecanumMath.BACK_LEFT];
+            double backRightPower = wheelPowers[MecanumMath.BACK_RIGHT];
+
+            profiler.lap(LoopProfiler.COMPUTE);
+
+            // Set motor powers.
+            motorFrontLeft.setPower(-frontLeftPower);
+            motorBackLeft.setPower(-backLeftPower);
+            motorFrontRight.setPower(-frontRightPower);
+            motorBackRight.setPower(-backRightPower);
+            profiler.lap(LoopProfiler.ACTUATOR_WRITE);
+
+            modeLine.set("Robot-Centric"); // Displays current mode (Robot-Centric).
+            frontLeftPowerLine.set(frontLeftPower); // Displays power of the front left mecanum wheel.
+            backLeftPowerLine.set(backLeftPower); // Displays power of the back left mecanum wheel.
+            frontRightPowerLine.set(frontRightPower); // Displays power of the front right mecanum wheel.
+            backRightPowerLine.set(backRightPower); // Displays power of the back right mecanum wheel.
         }
+        speedLine.set(ltSpeed); // Displays speed of robot mecanum wheel movement using the left trigger (between 0.15 and 1).
+        rightViperSlideLine.set(motorRightViperSlide.getCurrentPosition());  // Displays motorRightViperSlide encoder position.
+        leftViperSlideLine.set(motorLeftViperSlide.getCurrentPosition());  // Displays motorLeftViperSlide encoder position.
+        viperSlideModeLine.set(motorRightViperSlide.getMode()); // Displays motorRightViperSlide mode.
+        lastButtonLine.set(last_button); // Displays the last gamepad 1 press/call (excluding joystick movement).
+        recordCycle(); // Adds this cycle to the match recording.
+        dashboard.update(); // Sends to REV Driver Hub, at most every 250 ms and only if something changed.
+        profiler.lap(LoopProfiler.TELEMETRY);
+    }
+
+    // Copies what this cycle saw and did into the match recording: a few stores into mapped memory, nothing allocated.
+    // The drive encoders are the only new reads; they add the Control Hub's bulk read to the cycle.
+    private void recordCycle() {
+        MatchRecord record = recorder.getRecord();
+        record.flags = isFieldCentric ? FIELD_CENTRIC_FLAG : 0;
+        record.setGamepads(input1, input2);
+
+        record.encoders[MatchRecord.FRONT_LEFT] = motorFrontLeft.getCurrentPosition();
+        record.encoders[MatchRecord.BACK_LEFT] = motorBackLeft.getCurrentPosition();
+        record.encoders[MatchRecord.FRONT_RIGHT] = motorFrontRight.getCurrentPosition();
+        record.encoders[MatchRecord.BACK_RIGHT] = motorBackRight.getCurrentPosition();
+        record.encoders[MatchRecord.LEFT_SLIDE] = motorLeftViperSlide.getCurrentPosition();
+        record.encoders[MatchRecord.RIGHT_SLIDE] = motorRightViperSlide.getCurrentPosition();
+
+        // The wheel powers as they were sent (the motors are given the negated powers above).
+        record.powers[MatchRecord.FRONT_LEFT] = (float) -wheelPowers[MecanumMath.FRONT_LEFT];
+        record.powers[MatchRecord.BACK_LEFT] = (float) -wheelPowers[MecanumMath.BACK_LEFT];
+        record.powers[MatchRecord.FRONT_RIGHT] = (float) -wheelPowers[MecanumMath.FRONT_RIGHT];
+        record.powers[MatchRecord.BACK_RIGHT] = (float) -wheelPowers[MecanumMath.BACK_RIGHT];
+
+        heading.getSnapshot(headingSample);
+        record.headingRadians = (float) headingSample.yawRadians;
+        record.yawRateRadians = (float) headingSample.yawRateRadians;
+        recorder.write();
     }
-}
\ No newline at end of file
+}
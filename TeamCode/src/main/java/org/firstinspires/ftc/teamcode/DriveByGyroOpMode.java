@@ -0,0 +1,264 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.teamcode.action.Action;
+import org.firstinspires.ftc.teamcode.action.ActionScheduler;
+import org.firstinspires.ftc.teamcode.action.Actions;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.math.HeadingMath;
+import org.firstinspires.ftc.teamcode.sensors.AsyncHeadingProvider;
+import org.firstinspires.ftc.teamcode.sensors.HeadingSources;
+import org.firstinspires.ftc.teamcode.sensors.ImuStartup;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
+
+@Autonomous
+// RobotAutoDriveByGyro_Linear's route (drive, turn, hold a heading) on ControlLoopOpMode: driveStraight(),
+// turnToHeading() and holdHeading() are actions instead of while loops, so Stop works at any time, and the heading
+// comes from AsyncHeadingProvider instead of an I2C read in every loop.
+// Our mecanum drivetrain is driven like the sample's two-wheel robot: both left wheels get the left power, and both
+// right wheels the right power.
+public class DriveByGyroOpMode extends ControlLoopOpMode {
+    // Calculate the COUNTS_PER_INCH for your specific drive train, as in the sample.
+    static final double COUNTS_PER_MOTOR_REV = 537.7; // eg: GoBILDA 312 RPM Yellow Jacket
+    static final double DRIVE_GEAR_REDUCTION = 1.0; // No External Gearing.
+    static final double WHEEL_DIAMETER_INCHES = 96 / 25.4; // goBILDA 96 mm mecanum wheels.
+    static final double COUNTS_PER_INCH = (COUNTS_PER_MOTOR_REV * DRIVE_GEAR_REDUCTION) / (WHEEL_DIAMETER_INCHES * Math.PI);
+
+    // These constants define the desired driving/control characteristics; see the sample for how to tune them.
+    static final double DRIVE_SPEED = 0.4; // Max driving speed for better distance accuracy.
+    static final double TURN_SPEED = 0.2; // Max Turn speed to limit turn rate.
+    static final double HEADING_THRESHOLD = 1.0; // How close must the heading get to the target before moving to next step.
+    static final double P_TURN_GAIN = 0.02; // Larger is more responsive, but also less stable.
+    static final double P_DRIVE_GAIN = 0.03; // Larger is more responsive, but also less stable.
+
+    DcMotorEx motorFrontLeft;
+    DcMotorEx motorBackLeft;
+    DcMotorEx motorFrontRight;
+    DcMotorEx motorBackRight;
+
+    IMU imu;
+    ImuStartup imuStartup;
+    AsyncHeadingProvider heading;
+
+    // What the current step is doing, for telemetry.
+    String motion = "";
+    double targetHeading = 0;
+    double leftSpeed = 0;
+    double rightSpeed = 0;
+
+    TelemetryBoard dashboard;
+    TelemetrySlot statusLine;
+
+    Action routine;
+    final ActionScheduler scheduler = new ActionScheduler();
+
+    @Override
+    protected void initialize() {
+        motorFrontLeft = getMotor("motorFrontLeft");
+        motorBackLeft = getMotor("motorBackLeft");
+        motorFrontRight = getMotor("motorFrontRight");
+        motorBackRight = getMotor("motorBackRight");
+
+        // Same directions as AutonomousOpMode: positive power drives every wheel forward.
+        motorFrontRight.setDirection(DcMotorSimple.Direction.REVERSE);
+        motorBackRight.setDirection(DcMotorSimple.Direction.REVERSE);
+        for (DcMotorEx motor : driveMotors()) {
+            motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+            motor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+            motor.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+        }
+
+        imu = hardwareMap.get(IMU.class, "imu"); // Same orientation as AutonomousOpMode.
+        imuStartup = ImuStartup.begin(imu, new IMU.Parameters(new RevHubOrientationOnRobot(
+                RevHubOrientationOnRobot.LogoFacingDirection.UP,
+                RevHubOrientationOnRobot.UsbFacingDirection.FORWARD)));
+        heading = new AsyncHeadingProvider(HeadingSources.of(imu));
+        heading.startAfter(imuStartup.getReady());
+
+        // The sample's route. Distances are in inches, headings in degrees (positive is counter clockwise).
+        routine = Actions.sequence(
+                driveStraight(DRIVE_SPEED, 24.0, 0.0), // Drive Forward 24"
+                turnToHeading(TURN_SPEED, -45.0), // Turn  CW to -45 Degrees
+                holdHeading(TURN_SPEED, -45.0, 0.5), // Hold -45 Deg heading for a 1/2 second
+
+                driveStraight(DRIVE_SPEED, 17.0, -45.0), // Drive Forward 17" at -45 degrees (12"x and 12"y)
+                turnToHeading(TURN_SPEED, 45.0), // Turn  CCW  to  45 Degrees
+                holdHeading(TURN_SPEED, 45.0, 0.5), // Hold  45 Deg heading for a 1/2 second
+
+                driveStraight(DRIVE_SPEED, 17.0, 45.0), // Drive Forward 17" at 45 degrees (-12"x and 12"y)
+                turnToHeading(TURN_SPEED, 0.0), // Turn  CW  to 0 Degrees
+                holdHeading(TURN_SPEED, 0.0, 1.0), // Hold  0 Deg heading for 1 second
+
+                driveStraight(DRIVE_SPEED, -48.0, 0.0) // Drive in Reverse 48" (should return to approx. starting position)
+        );
+
+        dashboard = new TelemetryBoard(telemetry);
+        statusLine = dashboard.addText("Status").set("Initialized");
+        dashboard.addLine("IMU", imuStartup::getStatus);
+        dashboard.addLine("Motion", () -> motion);
+        dashboard.addLine("Heading- Target : Current", () ->
+                String.format("%5.2f : %5.0f", targetHeading, getHeadingDegrees()));
+        dashboard.addLine("Wheel Speeds L : R", () -> String.format("%5.2f : %5.2f", leftSpeed, rightSpeed));
+        dashboard.forceUpdate();
+    }
+
+    @Override
+    protected void initLoop() {
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStart() {
+        heading.resetYaw(); // Applied to the first sample if the IMU is still starting.
+        scheduler.schedule(routine);
+        statusLine.set("Running");
+    }
+
+    @Override
+    protected void cycle() {
+        scheduler.update();
+        dashboard.update();
+    }
+
+    @Override
+    protected boolean isFinished() {
+        return scheduler.isIdle();
+    }
+
+    @Override
+    protected void onStop() {
+        scheduler.cancelAll();
+        if (heading != null) heading.stop();
+        if (motorBackRight != null) moveRobot(0, 0); // null if initialize() failed before getting the motors.
+    }
+
+    private DcMotorEx[] driveMotors() {
+        return new DcMotorEx[] {motorFrontLeft, motorBackLeft, motorFrontRight, motorBackRight};
+    }
+
+    private double getHeadingDegrees() {
+        return Math.toDegrees(heading.getHeading());
+    }
+
+    // Drives a straight line at the given heading, using the encoders for the distance and the gyro to stay on the heading.
+    private Action driveStraight(final double maxDriveSpeed, final double distance, final double desiredHeading) {
+        return new Action() {
+            @Override
+            public void start() {
+                // Determine new target position, and pass to motor controller.
+                int moveCounts = (int) (distance * COUNTS_PER_INCH);
+                for (DcMotorEx motor : driveMotors()) {
+                    motor.setTargetPosition(motor.getCurrentPosition() + moveCounts);
+                    motor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
+                }
+                motion = "Drive Straight";
+                targetHeading = desiredHeading;
+                moveRobot(Math.abs(maxDriveSpeed), 0); // Start driving straight.
+            }
+
+            @Override
+            public boolean update() {
+                if (!motorFrontLeft.isBusy() || !motorBackLeft.isBusy()
+                        || !motorFrontRight.isBusy() || !motorBackRight.isBusy()) {
+                    return true;
+                }
+                // Determine required steering to keep on heading.
+                double turnSpeed = HeadingMath.steeringCorrection(desiredHeading, getHeadingDegrees(), P_DRIVE_GAIN);
+
+                // if driving in reverse, the motor correction also needs to be reversed
+                if (distance < 0) turnSpeed *= -1.0;
+
+                moveRobot(Math.abs(maxDriveSpeed), turnSpeed);
+                return false;
+            }
+
+            @Override
+            public void end(boolean interrupted) {
+                moveRobot(0, 0);
+                for (DcMotorEx motor : driveMotors()) {
+                    motor.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+                }
+            }
+        };
+    }
+
+    // Spins on the spot until the heading is within HEADING_THRESHOLD of the target.
+    private Action turnToHeading(final double maxTurnSpeed, final double desiredHeading) {
+        return new Action() {
+            @Override
+            public void start() {
+                motion = "Turning";
+                targetHeading = desiredHeading;
+            }
+
+            @Override
+            public boolean update() {
+                if (Math.abs(HeadingMath.headingError(desiredHeading, getHeadingDegrees())) <= HEADING_THRESHOLD) return true;
+                turnTowards(maxTurnSpeed, desiredHeading);
+                return false;
+            }
+
+            @Override
+            public void end(boolean interrupted) {
+                moveRobot(0, 0);
+            }
+        };
+    }
+
+    // Keeps turning towards the heading for holdTime seconds, so the robot settles before the next move.
+    private Action holdHeading(final double maxTurnSpeed, final double desiredHeading, double holdTime) {
+        final Action hold = new Action() {
+            @Override
+            public void start() {
+                motion = "Hold Heading";
+                targetHeading = desiredHeading;
+            }
+
+            @Override
+            public boolean update() {
+                turnTowards(maxTurnSpeed, desiredHeading);
+                return false;
+            }
+
+            @Override
+            public void end(boolean interrupted) {
+                moveRobot(0, 0);
+            }
+        };
+        return Actions.race(Actions.waitSeconds(holdTime), hold);
+    }
+
+    private void turnTowards(double maxTurnSpeed, double desiredHeading) {
+        double turnSpeed = HeadingMath.steeringCorrection(desiredHeading, getHeadingDegrees(), P_TURN_GAIN);
+        turnSpeed = HeadingMath.clip(turnSpeed, -maxTurnSpeed, maxTurnSpeed); // Clip the speed to the maximum permitted value.
+        moveRobot(0, turnSpeed); // Pivot in place by applying the turning correction.
+    }
+
+    // Takes separate drive (fwd/rev) and turn (right/left) requests, combines them and sets the wheel powers.
+    // Positive turn is counter clockwise (to the left).
+    private void moveRobot(double drive, double turn) {
+        double left = drive - turn;
+        double right = drive + turn;
+
+        // Scale speeds down if either one exceeds +/- 1.0;
+        double max = Math.max(Math.abs(left), Math.abs(right));
+        if (max > 1.0) {
+            left /= max;
+            right /= max;
+        }
+        leftSpeed = left;
+        rightSpeed = right;
+
+        motorFrontLeft.setPower(left);
+        motorBackLeft.setPower(left);
+        motorFrontRight.setPower(right);
+        motorBackRight.setPower(right);
+    }
+}
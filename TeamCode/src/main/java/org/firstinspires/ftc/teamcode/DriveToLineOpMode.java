@@ -0,0 +1,96 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.SwitchableLight;
+
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.sensors.ThresholdTrigger;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
+
+@Autonomous
+// Drives forward until the color sensor sees a white line, like RobotAutoDriveToLine_Linear, but the motors are
+// stopped by a ThresholdTrigger on the sensor's own thread as soon as the line is read, not on the next loop after a
+// telemetry update and a 5 ms sleep. The robot stops shorter and in the same place every time.
+public class DriveToLineOpMode extends ControlLoopOpMode {
+    static final double WHITE_THRESHOLD = 0.5; // Spans between 0.0 - 1.0 from dark to light.
+    static final double RELEASE_THRESHOLD = 0.4; // Must get this dark again before the trigger can trip again.
+    static final double APPROACH_SPEED = 0.25;
+
+    // Straight from the hardware map: the trigger stops them from its own thread, which the caching wrappers don't allow.
+    DcMotor leftDrive;
+    DcMotor rightDrive;
+    ThresholdTrigger lineTrigger;
+    long startNanos;
+
+    TelemetryBoard dashboard;
+    TelemetrySlot statusLine;
+    TelemetrySlot brightnessLine;
+    TelemetrySlot tripLine;
+
+    @Override
+    protected void initialize() {
+        leftDrive = hardwareMap.get(DcMotor.class, "left_drive");
+        rightDrive = hardwareMap.get(DcMotor.class, "right_drive");
+        leftDrive.setDirection(DcMotor.Direction.REVERSE);
+        rightDrive.setDirection(DcMotor.Direction.FORWARD);
+        leftDrive.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+        rightDrive.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+
+        NormalizedColorSensor colorSensor = hardwareMap.get(NormalizedColorSensor.class, "sensor_color");
+        if (colorSensor instanceof SwitchableLight) {
+            ((SwitchableLight) colorSensor).enableLight(true);
+        }
+        colorSensor.setGain(15);
+
+        lineTrigger = ThresholdTrigger.brightness(colorSensor, WHITE_THRESHOLD, RELEASE_THRESHOLD)
+                .setAction(() -> {
+                    leftDrive.setPower(0);
+                    rightDrive.setPower(0);
+                });
+        lineTrigger.start(); // Reading now shows the brightness during init.
+
+        dashboard = new TelemetryBoard(telemetry);
+        statusLine = dashboard.addText("Status");
+        brightnessLine = dashboard.addNumber("Light Level (0 to 1)", 2);
+        tripLine = dashboard.addText("Line");
+        dashboard.addLine("Sensor reads", () -> String.valueOf(lineTrigger.getReadCount()));
+        statusLine.set("Ready to drive to white line.");
+        dashboard.forceUpdate();
+    }
+
+    @Override
+    protected void initLoop() {
+        brightnessLine.set(lineTrigger.getValue());
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStart() {
+        startNanos = System.nanoTime();
+        leftDrive.setPower(APPROACH_SPEED);
+        rightDrive.setPower(APPROACH_SPEED);
+        lineTrigger.arm(); // After the motors start, so a robot already on the line is stopped again right away.
+        statusLine.set("Driving to the line");
+    }
+
+    @Override
+    protected void cycle() {
+        if (lineTrigger.hasTripped()) {
+            statusLine.set("Stopped at the line");
+            tripLine.set(String.format("found %.2f s after start (brightness %.2f)",
+                    (lineTrigger.getTripNanos() - startNanos) / 1e9, lineTrigger.getTripValue()));
+        }
+        brightnessLine.set(lineTrigger.getValue());
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStop() {
+        if (lineTrigger != null) lineTrigger.stop();
+        if (leftDrive != null) leftDrive.setPower(0);
+        if (rightDrive != null) rightDrive.setPower(0);
+    }
+}
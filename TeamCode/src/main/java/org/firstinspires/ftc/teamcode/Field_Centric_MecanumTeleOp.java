@@ -8,7 +8,10 @@ import com.qualcomm.robotcore.hardware.DcMotor.ZeroPowerBehavior;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.IMU;
 
-import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.math.MecanumMath;
+import org.firstinspires.ftc.teamcode.sensors.AsyncHeadingProvider;
+import org.firstinspires.ftc.teamcode.sensors.HeadingSources;
+import org.firstinspires.ftc.teamcode.sensors.ImuStartup;
 
 @TeleOp
 public class Field_Centric_MecanumTeleOp extends LinearOpMode {
@@ -18,6 +21,8 @@ public class Field_Centric_MecanumTeleOp extends LinearOpMode {
     DcMotor motorFrontRight;
     DcMotor motorBackRight;
     IMU imu;
+    AsyncHeadingProvider heading; // Reads the IMU on its own thread, so the loop never waits for it
+    final double[] wheelPowers = new double[4]; // Reused every loop so nothing is allocated
 
     @Override
     public void runOpMode() throws InterruptedException {
@@ -46,7 +51,18 @@ public class Field_Centric_MecanumTeleOp extends LinearOpMode {
                 RevHubOrientationOnRobot.LogoFacingDirection.UP,
                 RevHubOrientationOnRobot.UsbFacingDirection.FORWARD));
         // Without this, the REV Hub's orientation is assumed to be logo up / USB forward
-        imu.initialize(parameters);
+        // It takes about a second, so the IMU starts in the background, and is read as soon as it is ready
+        ImuStartup imuStartup = ImuStartup.begin(imu, parameters);
+        heading = new AsyncHeadingProvider(HeadingSources.of(imu));
+        heading.startAfter(imuStartup.getReady());
+        try {
+            driveLoop();
+        } finally {
+            heading.stop(); // Always stop reading the IMU, even if the OpMode ends with an error
+        }
+    }
+
+    private void driveLoop() throws InterruptedException {
         telemetry.addData("Status", "Initialized");
         telemetry.addData("Mode", "Field-Centric");
         telemetry.update();
@@ -61,11 +77,6 @@ public class Field_Centric_MecanumTeleOp extends LinearOpMode {
             double x = gamepad1.left_stick_x * 1.1; // Counteract imperfect strafing
             double rx = gamepad1.right_stick_x;
 
-            // Convert the raw x and y values to field-centric forward and sideways velocities
-            double forward = y * Math.cos(getBotHeading()) + x * Math.sin(getBotHeading());
-            double sideways = -y * Math.sin(getBotHeading()) + x * Math.cos(getBotHeading());
-            double rotation = rx;
-
             // Use the LT value as an acceleration factor.
             // LT value is between 0 (not pressed) and 1 (fully pressed).
             double lt = gamepad1.left_trigger;
@@ -73,24 +84,20 @@ public class Field_Centric_MecanumTeleOp extends LinearOpMode {
 
             // Reset the yaw angle to 0 degrees when the "Back" button is pressed.
             if (gamepad1.back) {
-                imu.resetYaw();
+                heading.resetYaw();
             }
 
             // Calculate motor powers using mecanum drive kinematics
-            double botHeading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
-
-            // Rotate the movement direction counter to the bot's rotation
-            double rotX = x * Math.cos(-botHeading) - y * Math.sin(-botHeading);
-            double rotY = x * Math.sin(-botHeading) + y * Math.cos(-botHeading);
+            double botHeading = getBotHeading();
 
-            // Denominator is the largest motor power (absolute value) or 1
+            // Rotate the movement direction counter to the bot's rotation, then divide by the largest motor power (absolute value) or 1
             // This ensures all the powers maintain the same ratio, but only when
             // at least one is out of the range [-1, 1]
-            double denominator = Math.max(Math.abs(rotY) + Math.abs(rotX) + Math.abs(rx), 1);
-            double frontLeftPower = (rotY + rotX + rx) / denominator * speed;
-            double backLeftPower = (rotY - rotX + rx) / denominator * speed;
-            double frontRightPower = (rotY - rotX - rx) / denominator * speed;
-            double backRightPower = (rotY + rotX - rx) / denominator * speed;
+            MecanumMath.fieldCentric(x, y, rx, botHeading, speed, wheelPowers);
+            double frontLeftPower = wheelPowers[MecanumMath.FRONT_LEFT];
+            double backLeftPower = wheelPowers[MecanumMath.BACK_LEFT];
+            double frontRightPower = wheelPowers[MecanumMath.FRONT_RIGHT];
+            double backRightPower = wheelPowers[MecanumMath.BACK_RIGHT];
 
             // Set motor powers
             motorFrontLeft.setPower(frontLeftPower);
@@ -107,8 +114,8 @@ public class Field_Centric_MecanumTeleOp extends LinearOpMode {
         }
     }
 
-    // Helper method to get the robot's heading (yaw) from the IMU
+    // Helper method to get the robot's heading (yaw) from the IMU, without waiting for an I2C read
     private double getBotHeading() {
-        return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+        return heading.getExtrapolatedHeading();
     }
 }
@@ -9,6 +9,7 @@ import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.IMU;
 
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.math.MecanumMath;
 
 @TeleOp
 public class Robot_Centric_MecanumTeleOp extends LinearOpMode {
@@ -18,6 +19,7 @@ public class Robot_Centric_MecanumTeleOp extends LinearOpMode {
     DcMotor motorFrontRight;
     DcMotor motorBackRight;
     IMU imu;
+    final double[] wheelPowers = new double[4]; // Reused every loop so nothing is allocated
 
     @Override
     public void runOpMode() throws InterruptedException {
@@ -78,10 +80,11 @@ public class Robot_Centric_MecanumTeleOp extends LinearOpMode {
             }
 
             // Calculate motor powers using mecanum drive kinematics
-            double frontLeftPower = (forward + sideways + rotation) * speed;
-            double backLeftPower = (forward - sideways + rotation) * speed;
-            double frontRightPower = (forward - sideways - rotation) * speed;
-            double backRightPower = (forward + sideways - rotation) * speed;
+            MecanumMath.robotCentric(forward, sideways, rotation, speed, wheelPowers);
+            double frontLeftPower = wheelPowers[MecanumMath.FRONT_LEFT];
+            double backLeftPower = wheelPowers[MecanumMath.BACK_LEFT];
+            double frontRightPower = wheelPowers[MecanumMath.FRONT_RIGHT];
+            double backRightPower = wheelPowers[MecanumMath.BACK_RIGHT];
 
             // Set motor powers
             motorFrontLeft.setPower(frontLeftPower);
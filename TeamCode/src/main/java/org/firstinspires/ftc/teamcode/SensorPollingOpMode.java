@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.sensors.PolledSensor;
+import org.firstinspires.ftc.teamcode.sensors.SensorPoller;
+import org.firstinspires.ftc.teamcode.sensors.SensorReaders;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
+
+@TeleOp
+// Shows the color and distance sensors from SensorColor and SensorREV2mDistance, read in the background by a
+// SensorPoller instead of on the loop thread, along with how fast each one is actually being read.
+public class SensorPollingOpMode extends ControlLoopOpMode {
+    final SensorPoller poller = new SensorPoller("Control Hub I2C");
+    PolledSensor color;
+    PolledSensor distance;
+    final double[] rgba = new double[4]; // Reused every cycle so nothing is allocated.
+
+    TelemetryBoard dashboard;
+    TelemetrySlot redLine, greenLine, blueLine, alphaLine;
+    TelemetrySlot distanceLine;
+    TelemetrySlot ageLine;
+
+    @Override
+    protected void initialize() {
+        NormalizedColorSensor colorSensor = hardwareMap.get(NormalizedColorSensor.class, "sensor_color");
+        colorSensor.setGain(2);
+        DistanceSensor distanceSensor = hardwareMap.get(DistanceSensor.class, "sensor_distance");
+
+        // The distance sensor guards against collisions, so it is read first when both are due.
+        distance = poller.register("Distance", SensorReaders.distance(distanceSensor, DistanceUnit.INCH), 40, 1);
+        color = poller.register("Color", SensorReaders.color(colorSensor), 20, 0);
+        poller.start();
+
+        dashboard = new TelemetryBoard(telemetry);
+        redLine = dashboard.addNumber("Red", 3);
+        greenLine = dashboard.addNumber("Green", 3);
+        blueLine = dashboard.addNumber("Blue", 3);
+        alphaLine = dashboard.addNumber("Alpha", 3);
+        distanceLine = dashboard.addNumber("Distance (in)", 1);
+        ageLine = dashboard.addNumber("Distance age (ms)", 0);
+        poller.addTelemetry(dashboard);
+        profiler.addTelemetry(dashboard);
+        dashboard.forceUpdate();
+    }
+
+    @Override
+    protected void initLoop() {
+        cycle();
+    }
+
+    @Override
+    protected void cycle() {
+        if (color.getSnapshot(rgba) != 0) { // Numbers, so nothing is formatted until the board sends.
+            redLine.set(rgba[SensorReaders.RED]);
+            greenLine.set(rgba[SensorReaders.GREEN]);
+            blueLine.set(rgba[SensorReaders.BLUE]);
+            alphaLine.set(rgba[SensorReaders.ALPHA]);
+        }
+        distanceLine.set(distance.get(0));
+        ageLine.set(distance.getAgeSeconds() * 1000);
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStop() {
+        poller.stop();
+    }
+}
@@ -0,0 +1,83 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.localization.CameraMount;
+import org.firstinspires.ftc.teamcode.localization.Pose2d;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
+import org.firstinspires.ftc.teamcode.vision.AprilTagChannel;
+import org.firstinspires.ftc.teamcode.vision.MultiCameraLocalizer;
+import org.firstinspires.ftc.teamcode.vision.TagLayout;
+import org.firstinspires.ftc.teamcode.vision.VisionScheduler;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagGameDatabase;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+
+@TeleOp
+// Finds the robot's field position from AprilTags, using a front and a rear webcam at the same time
+// (unlike ConceptAprilTagSwitchableCameras, where only one camera works at a time).
+// The camera that sees tags gets most of the processing; the other keeps watching at a lower rate.
+public class TwoCameraLocalizationOpMode extends ControlLoopOpMode {
+    // Where the cameras are on the robot. Measure these on your robot.
+    static final CameraMount FRONT_CAMERA = new CameraMount(7, 0, 0); // 7 inches ahead of center, facing forward.
+    static final CameraMount REAR_CAMERA = new CameraMount(-7, 0, 180); // 7 inches behind center, facing backward.
+
+    final MultiCameraLocalizer localizer = new MultiCameraLocalizer(TagLayout.centerStage());
+    VisionPortal frontPortal;
+    VisionPortal rearPortal;
+
+    TelemetryBoard dashboard;
+    TelemetrySlot poseLine;
+    TelemetrySlot poseAgeLine;
+    TelemetrySlot tagCountLine;
+
+    @Override
+    protected void initialize() {
+        frontPortal = buildPortal("Webcam 1", "Front", FRONT_CAMERA, true);
+        rearPortal = buildPortal("Webcam 2", "Rear", REAR_CAMERA, false); // One preview is enough; skipping the other saves CPU.
+
+        dashboard = new TelemetryBoard(telemetry);
+        poseLine = dashboard.addText("Pose");
+        poseAgeLine = dashboard.addNumber("Pose age (ms)", 0);
+        tagCountLine = dashboard.addNumber("Tags in pose", 0);
+        localizer.addTelemetry(dashboard);
+        profiler.addTelemetry(dashboard);
+        dashboard.forceUpdate();
+    }
+
+    private VisionPortal buildPortal(String webcamName, String name, CameraMount mount, boolean liveView) {
+        AprilTagChannel channel = new AprilTagChannel(new AprilTagProcessor.Builder()
+                .setTagLibrary(AprilTagGameDatabase.getCenterStageTagLibrary())
+                .build());
+        return new VisionPortal.Builder()
+                .setCamera(hardwareMap.get(WebcamName.class, webcamName)) // Must match the name in the robot configuration.
+                .addProcessor(localizer.addCamera(name, new VisionScheduler(30), channel, mount))
+                .enableLiveView(liveView)
+                .build();
+    }
+
+    @Override
+    protected void initLoop() {
+        cycle(); // Shows the pose during init too, to check the cameras and their mounts before the match.
+    }
+
+    @Override
+    protected void cycle() {
+        if (localizer.update()) {
+            Pose2d pose = localizer.getPose();
+            poseLine.set(pose.toString());
+            tagCountLine.set(localizer.getPoseTagCount());
+        }
+        poseAgeLine.set(localizer.getPoseCount() == 0 ? 0 : localizer.getPoseAgeSeconds() * 1000);
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStop() {
+        if (frontPortal != null) frontPortal.close();
+        if (rearPortal != null) rearPortal.close();
+    }
+}
@@ -0,0 +1,117 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.vision.VisionReplay;
+import org.opencv.core.Mat;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@TeleOp
+// Runs VisionReplay on the Control Hub, where the SDK's AprilTag library is, over the newest FrameRecorder recording
+// in /sdcard/FIRST/data/recordings (press X in VisionTestOpMode to save one). Every configuration is measured on a
+// background thread after PLAY; results show on the Driver Station as they come in, and are saved to replay.txt
+// in the recording's folder. No camera is needed.
+public class VisionReplayOpMode extends ControlLoopOpMode {
+    static final int MAX_FRAMES = 60; // At 640x480 RGBA, about 75 MB of frames.
+
+    final List<VisionReplay.Configuration> configurations = VisionReplay.configurations();
+    final AtomicReferenceArray<String> summaries = new AtomicReferenceArray<>(configurations.size()); // Set by the worker.
+    File folder;
+    Thread worker;
+    volatile String status = "press PLAY to start";
+
+    TelemetryBoard dashboard;
+
+    @Override
+    protected void initialize() {
+        folder = newestRecording(new File(AppUtil.ROBOT_DATA_DIR, "recordings"));
+        if (folder == null) status = "no recordings in " + AppUtil.ROBOT_DATA_DIR + "/recordings";
+
+        dashboard = new TelemetryBoard(telemetry);
+        dashboard.addLine("Recording", () -> folder == null ? "none" : folder.getName());
+        dashboard.addLine("Status", () -> status);
+        for (int i = 0; i < configurations.size(); i++) {
+            final int index = i;
+            dashboard.addLine(configurations.get(i).getName(), () -> summaries.get(index) == null ? "-" : summaries.get(index));
+        }
+        dashboard.forceUpdate();
+    }
+
+    // The most recent folder FrameRecorder wrote to (they are named after the time they were made).
+    static File newestRecording(File recordings) {
+        File[] folders = recordings.listFiles(File::isDirectory);
+        File newest = null;
+        if (folders == null) return null;
+        for (File candidate : folders) {
+            if (newest == null || candidate.getName().compareTo(newest.getName()) > 0) newest = candidate;
+        }
+        return newest;
+    }
+
+    @Override
+    protected void onStart() {
+        if (folder == null) return;
+        worker = new Thread(this::replay, "VisionReplay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void replay() {
+        status = "loading frames";
+        List<Mat> frames = VisionReplay.loadFrames(folder, MAX_FRAMES);
+        if (frames.isEmpty()) {
+            status = "no .png or .jpg frames in " + folder;
+            return;
+        }
+        try (PrintWriter out = new PrintWriter(new FileWriter(new File(folder, "replay.txt")))) {
+            for (int i = 0; i < configurations.size() && !Thread.currentThread().isInterrupted(); i++) {
+                VisionReplay.Configuration configuration = configurations.get(i);
+                status = String.format("%d frames, running %d of %d", frames.size(), i + 1, configurations.size());
+                String line;
+                try {
+                    VisionReplay.Result result = VisionReplay.run(configuration, frames);
+                    summaries.set(i, result.getSummary());
+                    line = result.toString();
+                } catch (RuntimeException e) {
+                    summaries.set(i, "failed: " + e);
+                    line = configuration.getName() + " failed: " + e;
+                }
+                out.println(line);
+                RobotLog.ii("VisionReplay", line);
+            }
+            status = Thread.currentThread().isInterrupted() ? "stopped" : "done; saved to " + folder.getName() + "/replay.txt";
+        } catch (IOException e) {
+            status = "could not write results: " + e.getMessage();
+        } finally {
+            for (Mat frame : frames) {
+                frame.release();
+            }
+        }
+    }
+
+    @Override
+    protected void cycle() {
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStop() {
+        if (worker == null) return;
+        worker.interrupt(); // VisionReplay.run() stops at the next frame.
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.action.ActionScheduler;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.input.Button;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetrySlot;
+import org.firstinspires.ftc.teamcode.vision.AdaptiveAprilTag;
+import org.firstinspires.ftc.teamcode.vision.AprilTagChannel;
+import org.firstinspires.ftc.teamcode.vision.AsyncTfod;
+import org.firstinspires.ftc.teamcode.vision.BlobFrame;
+import org.firstinspires.ftc.teamcode.vision.CameraExposure;
+import org.firstinspires.ftc.teamcode.vision.ColorBlobProcessor;
+import org.firstinspires.ftc.teamcode.vision.DetectionFrame;
+import org.firstinspires.ftc.teamcode.vision.ExposureTuner;
+import org.firstinspires.ftc.teamcode.vision.FrameRecorder;
+import org.firstinspires.ftc.teamcode.vision.VisionScheduler;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.firstinspires.ftc.vision.tfod.TfodProcessor;
+import org.opencv.core.Scalar;
+
+@TeleOp
+// Shows what the webcam sees, for checking the vision pipeline on the robot.
+// Detections come through an AprilTagChannel, so the loop only looks at them when the camera has a new frame.
+public class VisionTestOpMode extends ControlLoopOpMode {
+    WebcamName webcam;
+    AdaptiveAprilTag adaptiveAprilTag;
+    AprilTagChannel aprilTags;
+    AsyncTfod tfod; // Runs the model on its own thread, so it doesn't slow down the other processors.
+    ColorBlobProcessor redBlobs; // Red game pieces by color alone; much cheaper than TFOD, so it runs whenever the budget allows.
+    FrameRecorder recorder; // Keeps the last few seconds of frames; press X to save them.
+    VisionPortal visionPortal;
+    ExposureTuner exposureTuner; // Press Y with a tag in view to find (and save) the best exposure for this webcam.
+    final ActionScheduler actions = new ActionScheduler();
+
+    // AprilTag runs on every frame. The blob finder runs when its usual cost fits in what AprilTag left of a 30 ms
+    // budget, and at least every 3rd frame. TFOD only copies the frame on the camera thread (its inference runs on its
+    // own thread), so it runs on every frame and is not limited by the budget.
+    final VisionScheduler visionScheduler = new VisionScheduler(30);
+
+    TelemetryBoard dashboard;
+    TelemetrySlot frameLine;
+    TelemetrySlot frameAgeLine;
+    TelemetrySlot tagCountLine;
+    TelemetrySlot firstTagLine;
+    TelemetrySlot decimationLine;
+    TelemetrySlot regionLine;
+    TelemetrySlot recognitionLine;
+    TelemetrySlot blobLine;
+
+    long lastFrameNumber = 0;
+
+    @Override
+    protected void initialize() {
+        // Searches only around the last tags, with a decimation that follows their size, for a higher frame rate near tags.
+        adaptiveAprilTag = new AdaptiveAprilTag(new AprilTagProcessor.Builder().build());
+        aprilTags = new AprilTagChannel(adaptiveAprilTag);
+
+        webcam = hardwareMap.get(WebcamName.class, "Webcam 1");
+        tfod = new AsyncTfod(new TfodProcessor.Builder().build()); // The default model, as in ConceptDoubleVision.
+        // Hue wraps around 180 for red, so the range runs from 170 up through 10. Tune the ranges under your field's lighting.
+        redBlobs = new ColorBlobProcessor("Red", ColorBlobProcessor.ColorSpace.HSV, new Scalar(170, 120, 70), new Scalar(10, 255, 255));
+
+        // Every 3rd frame into a ring of 30, so about the last 3 seconds at 30 FPS.
+        recorder = new FrameRecorder(FrameRecorder.Mode.ON_TRIGGER, 30).setDecimation(3);
+
+        visionPortal = new VisionPortal.Builder()
+                .setCamera(webcam) // Must match the name in the robot configuration.
+                // The channel runs the AprilTag processor and hands its results to the loop. Added first, so it gets first claim on the budget.
+                .addProcessor(visionScheduler.everyNFrames("AprilTag", aprilTags, 1))
+                .addProcessor(visionScheduler.withinBudget("Blobs", redBlobs, 2))
+                .addProcessor(visionScheduler.everyNFrames("TFOD", tfod, 1))
+                .addProcessor(recorder)
+                .build();
+
+        exposureTuner = new ExposureTuner(visionPortal, aprilTags, webcam);
+        actions.schedule(CameraExposure.applySaved(visionPortal, webcam)); // Uses the last tuned exposure once the camera is streaming.
+
+        dashboard = new TelemetryBoard(telemetry);
+        frameLine = dashboard.addNumber("Frame", 0);
+        frameAgeLine = dashboard.addNumber("Frame age (ms)", 0);
+        tagCountLine = dashboard.addNumber("# AprilTags Detected", 0);
+        firstTagLine = dashboard.addText("First tag");
+        decimationLine = dashboard.addNumber("Decimation", 0);
+        regionLine = dashboard.addNumber("Region-only frames (%)", 0);
+        recognitionLine = dashboard.addLine("TFOD recognitions", () -> !tfod.isReady() ? "warming up" : String.format(
+                "%d (inference %.0f ms, result age %.0f ms, %d frames dropped)", tfod.getRecognitions().size(),
+                tfod.getLastInferenceMs(), tfod.getResultAgeSeconds() * 1000, tfod.getDroppedCount()));
+        blobLine = dashboard.addText("Biggest red blob");
+        visionScheduler.addTelemetry(dashboard);
+        dashboard.addLine("Exposure", () -> exposureTuner.getStatus());
+        dashboard.addLine("Recorder", () -> String.format("%d written, %d dropped (X saves the last 3 s)", recorder.getWrittenCount(), recorder.getDroppedCount()));
+        profiler.addTelemetry(dashboard);
+        dashboard.forceUpdate();
+    }
+
+    @Override
+    protected void initLoop() {
+        cycle(); // Shows detections during init too, to check the camera before the match.
+    }
+
+    @Override
+    protected void cycle() {
+        if (input1.wasPressed(Button.X)) recorder.saveLast(3);
+        if (input1.wasPressed(Button.Y) && !exposureTuner.isRunning()) actions.schedule(exposureTuner);
+        actions.update();
+
+        DetectionFrame frame = aprilTags.poll();
+        if (frame.getFrameNumber() != lastFrameNumber) { // Nothing to do until the camera has a new frame.
+            lastFrameNumber = frame.getFrameNumber();
+            frameLine.set(frame.getFrameNumber());
+            tagCountLine.set(frame.getCount());
+            if (frame.getCount() > 0) {
+                AprilTagDetection tag = frame.get(0);
+                firstTagLine.set(tag.ftcPose != null
+                        ? String.format("ID %d: range %.1f in, bearing %.1f deg", tag.id, tag.ftcPose.range, tag.ftcPose.bearing)
+                        : String.format("ID %d (unknown tag)", tag.id));
+            } else {
+                firstTagLine.set("none");
+            }
+        }
+        frameAgeLine.set(frame.getAgeSeconds() * 1000);
+
+        if (redBlobs.hasNewFrame()) {
+            BlobFrame blobs = redBlobs.poll();
+            blobLine.set(blobs.isEmpty() ? "none" : String.format("%d blobs, biggest %d px at %.1f deg",
+                    blobs.size(), blobs.get(0).getArea(), blobs.get(0).estimateAngleToObject(AngleUnit.DEGREES)));
+        }
+        decimationLine.set(adaptiveAprilTag.getDecimation());
+        regionLine.set(adaptiveAprilTag.getRegionFraction() * 100);
+        dashboard.update();
+    }
+
+    @Override
+    protected void onStop() {
+        actions.cancelAll();
+        if (visionPortal != null) visionPortal.close();
+        if (recorder != null) recorder.close();
+        if (tfod != null) tfod.close();
+    }
+}
@@ -0,0 +1,22 @@
+package org.firstinspires.ftc.teamcode.action;
+
+/**
+ * One step of a robot routine (drive somewhere, raise the slides, wait, ...) that runs a little bit every control cycle
+ * instead of blocking until it is done. Actions are combined with Actions.sequence(), parallel(), race() and deadline(),
+ * and run by an ActionScheduler.
+ *
+ * update() must return quickly: never sleep or busy-wait in it.
+ */
+public interface Action {
+    // Called once, in the first cycle the action runs, just before the first update().
+    default void start() {
+    }
+
+    // Called every cycle while the action runs. Returns true when the action is finished.
+    boolean update();
+
+    // Called once when the action stops, either because update() returned true (interrupted = false),
+    // or because it was cancelled, e.g. it lost a race or the OpMode stopped (interrupted = true).
+    default void end(boolean interrupted) {
+    }
+}
@@ -0,0 +1,63 @@
+package org.firstinspires.ftc.teamcode.action;
+
+/**
+ * Runs several actions at the same time. When the group finishes depends on its Mode:
+ *
+ *   ALL      - when every action has finished (Actions.parallel()).
+ *   RACE     - when any action finishes; the rest are cancelled (Actions.race()).
+ *   DEADLINE - when the first action finishes; the rest are cancelled (Actions.deadline()).
+ */
+public class ActionGroup implements Action {
+    public enum Mode { ALL, RACE, DEADLINE }
+
+    private final Mode mode;
+    private final Action[] actions;
+    private final boolean[] running;
+
+    public ActionGroup(Mode mode, Action... actions) {
+        this.mode = mode;
+        this.actions = actions;
+        this.running = new boolean[actions.length];
+    }
+
+    @Override
+    public void start() {
+        for (int i = 0; i < actions.length; i++) {
+            actions[i].start();
+            running[i] = true;
+        }
+    }
+
+    @Override
+    public boolean update() {
+        boolean anyRunning = false;
+        for (int i = 0; i < actions.length; i++) {
+            if (!running[i]) continue;
+            if (actions[i].update()) {
+                running[i] = false;
+                actions[i].end(false);
+                if (mode == Mode.RACE || (mode == Mode.DEADLINE && i == 0)) {
+                    cancelRunning();
+                    return true;
+                }
+            } else {
+                anyRunning = true;
+            }
+        }
+        return !anyRunning;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted) cancelRunning();
+    }
+
+    private void cancelRunning() {
+        for (int i = 0; i < actions.length; i++) {
+            if (running[i]) {
+                running[i] = false;
+                actions[i].end(true);
+            }
+        }
+    }
+}
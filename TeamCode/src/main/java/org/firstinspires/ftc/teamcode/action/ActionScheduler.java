@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode.action;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs any number of actions side by side, one update() each per control cycle.
+ * Call update() once per cycle, after the cycle's bulk read (ControlLoopOpMode does this before cycle()),
+ * so every action sees the same encoder values and the cycle costs one bulk read however many actions are running.
+ */
+public class ActionScheduler {
+    private final List<Action> running = new ArrayList<>();
+    private final List<Action> starting = new ArrayList<>(); // Scheduled since the last update(); started at the next one.
+
+    public void schedule(Action action) {
+        starting.add(action);
+    }
+
+    public void update() {
+        for (int i = 0; i < starting.size(); i++) {
+            Action action = starting.get(i);
+            action.start();
+            running.add(action);
+        }
+        starting.clear();
+
+        // Iterate backwards so finished actions can be removed in place.
+        for (int i = running.size() - 1; i >= 0; i--) {
+            Action action = running.get(i);
+            if (action.update()) {
+                running.remove(i);
+                action.end(false);
+            }
+        }
+    }
+
+    public boolean isIdle() {
+        return running.isEmpty() && starting.isEmpty();
+    }
+
+    // Stops every action, calling end(true) on the ones that had started. Call this when the OpMode stops.
+    public void cancelAll() {
+        for (Action action : running) {
+            action.end(true);
+        }
+        running.clear();
+        starting.clear();
+    }
+}
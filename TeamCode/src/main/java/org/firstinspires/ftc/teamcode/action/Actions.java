@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.action;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Factory methods for building routines out of actions, e.g.
+ *
+ *   Actions.sequence(
+ *       Actions.parallel(drive.move(90, 2), slides.toHighPole()),  // Drive and raise the slides at the same time.
+ *       claw.open(),
+ *       Actions.race(Actions.waitSeconds(0.5), Actions.waitUntil(() -> sensor.sawLine())));
+ */
+public final class Actions {
+    private Actions() {
+    }
+
+    public static Action sequence(Action... actions) {
+        return new SequentialAction(actions);
+    }
+
+    public static Action parallel(Action... actions) {
+        return new ActionGroup(ActionGroup.Mode.ALL, actions);
+    }
+
+    public static Action race(Action... actions) {
+        return new ActionGroup(ActionGroup.Mode.RACE, actions);
+    }
+
+    // Runs all the actions until the first one (the deadline) finishes.
+    public static Action deadline(Action deadline, Action... others) {
+        Action[] actions = new Action[others.length + 1];
+        actions[0] = deadline;
+        System.arraycopy(others, 0, actions, 1, others.length);
+        return new ActionGroup(ActionGroup.Mode.DEADLINE, actions);
+    }
+
+    // Runs the code once and finishes in the same cycle.
+    public static Action instant(final Runnable runnable) {
+        return new Action() {
+            @Override
+            public boolean update() {
+                runnable.run();
+                return true;
+            }
+        };
+    }
+
+    // Finishes once the given time has passed, without blocking the loop like sleep() does.
+    public static Action waitSeconds(final double seconds) {
+        return new Action() {
+            private long endNanos;
+
+            @Override
+            public void start() {
+                endNanos = System.nanoTime() + (long) (seconds * 1e9);
+            }
+
+            @Override
+            public boolean update() {
+                return System.nanoTime() >= endNanos;
+            }
+        };
+    }
+
+    // Finishes in the first cycle the condition is true.
+    public static Action waitUntil(final BooleanSupplier condition) {
+        return new Action() {
+            @Override
+            public boolean update() {
+                return condition.getAsBoolean();
+            }
+        };
+    }
+}
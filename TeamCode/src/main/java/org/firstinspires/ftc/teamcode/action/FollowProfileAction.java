@@ -0,0 +1,83 @@
+package org.firstinspires.ftc.teamcode.action;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+
+import org.firstinspires.ftc.teamcode.profile.MotionProfile;
+import org.firstinspires.ftc.teamcode.profile.MotionState;
+
+/**
+ * Moves one or more motors along a precomputed MotionProfile (in encoder ticks).
+ * Each cycle it samples the profile and commands each motor's velocity: the profile's velocity as feedforward,
+ * plus a proportional correction for any position error. Unlike RUN_TO_POSITION at a fixed power, this can use
+ * close to the motors' full speed without overshooting, because the profile slows down in time.
+ *
+ * Each motor has a scale, so the same profile can drive every wheel of a mecanum move (some forward, some backward).
+ * The action finishes once the profile is over and every motor is within tolerance, or settleSeconds after the profile ends.
+ */
+public class FollowProfileAction implements Action {
+    private final DcMotorEx[] motors;
+    private final double[] scales;
+    private final MotionProfile profile;
+
+    private double positionGain = 5.0; // ticks/second of extra velocity per tick of position error.
+    private int toleranceTicks = 15;
+    private double settleSeconds = 0.5;
+
+    private final int[] startPositions;
+    private final MotionState setpoint = new MotionState(); // Reused every cycle.
+    private long startNanos;
+
+    public FollowProfileAction(DcMotorEx[] motors, double[] scales, MotionProfile profile) {
+        this.motors = motors;
+        this.scales = scales;
+        this.profile = profile;
+        this.startPositions = new int[motors.length];
+    }
+
+    public FollowProfileAction setPositionGain(double positionGain) {
+        this.positionGain = positionGain;
+        return this;
+    }
+
+    public FollowProfileAction setTolerance(int toleranceTicks) {
+        this.toleranceTicks = toleranceTicks;
+        return this;
+    }
+
+    public FollowProfileAction setSettleSeconds(double settleSeconds) {
+        this.settleSeconds = settleSeconds;
+        return this;
+    }
+
+    @Override
+    public void start() {
+        for (int i = 0; i < motors.length; i++) {
+            startPositions[i] = motors[i].getCurrentPosition();
+            motors[i].setMode(DcMotor.RunMode.RUN_USING_ENCODER); // setVelocity() needs the hub's velocity control.
+        }
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public boolean update() {
+        double t = (System.nanoTime() - startNanos) / 1e9;
+        profile.sample(t, setpoint);
+
+        boolean settled = profile.isFinished(t);
+        for (int i = 0; i < motors.length; i++) {
+            double target = startPositions[i] + scales[i] * setpoint.position;
+            double error = target - motors[i].getCurrentPosition();
+            motors[i].setVelocity(scales[i] * setpoint.velocity + positionGain * error);
+            if (Math.abs(error) > toleranceTicks) settled = false;
+        }
+        return settled || t > profile.getDuration() + settleSeconds;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        for (DcMotorEx motor : motors) {
+            motor.setPower(0);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.firstinspires.ftc.teamcode.action;
+
+/**
+ * Runs actions one after another. The next action starts in the same cycle the previous one finishes,
+ * so no cycle is wasted between steps.
+ */
+public class SequentialAction implements Action {
+    private final Action[] actions;
+    private int index;
+    private boolean currentStarted;
+
+    public SequentialAction(Action... actions) {
+        this.actions = actions;
+    }
+
+    @Override
+    public void start() {
+        index = 0;
+        currentStarted = false;
+    }
+
+    @Override
+    public boolean update() {
+        while (index < actions.length) {
+            Action current = actions[index];
+            if (!currentStarted) {
+                current.start();
+                currentStarted = true;
+            }
+            if (!current.update()) return false;
+            current.end(false);
+            index++;
+            currentStarted = false;
+        }
+        return true;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted && index < actions.length && currentStarted) {
+            actions[index].end(true);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.Servo;
+
+import org.firstinspires.ftc.teamcode.hardware.BulkCacheHub;
+import org.firstinspires.ftc.teamcode.hardware.BulkCacheManager;
+import org.firstinspires.ftc.teamcode.hardware.CachingDcMotorEx;
+import org.firstinspires.ftc.teamcode.hardware.CachingServo;
+import org.firstinspires.ftc.teamcode.hardware.WriteCounter;
+import org.firstinspires.ftc.teamcode.input.GamepadInput;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A LinearOpMode that runs the robot as a series of control cycles instead of a hand-written while loop.
+ *
+ * Before every call to cycle() (and initLoop()), all hubs are in MANUAL bulk caching mode and their caches
+ * have been cleared exactly once, so a cycle costs one bulk read per hub however many encoders are read.
+ * Motors and servos from getMotor()/getServo() also skip redundant writes, and report any read that happens
+ * outside of a cycle (e.g. in initialize() or onStop()), since those reads may return stale data.
+ *
+ * The gamepads are copied into input1/input2 at the start of every cycle; read those instead of gamepad1/gamepad2,
+ * so the whole cycle sees the same gamepad and button presses can be handled as events (no sleep() to debounce).
+ *
+ * Every running cycle is timed by the profiler; subclasses can call profiler.lap() to split it into phases.
+ * The timings are written to a CSV file in /sdcard/FIRST/data when the OpMode stops.
+ *
+ * Subclasses implement initialize() and cycle(), and may override the other hooks.
+ */
+public abstract class ControlLoopOpMode extends LinearOpMode {
+    private static final long INIT_LOOP_PERIOD_MILLIS = 15; // Pause between initLoop() calls, so INIT leaves the CPU to the IMU and cameras starting up.
+
+    protected final BulkCacheManager bulkCache = new BulkCacheManager(); // Clears the hub caches once per cycle.
+    protected final WriteCounter hubWrites = new WriteCounter(); // Counts motor/servo writes sent vs. skipped.
+    protected final LoopProfiler profiler = new LoopProfiler(); // Timing histograms for the cycle and its phases.
+    protected final GamepadInput input1 = new GamepadInput(); // gamepad1, as of the start of this cycle.
+    protected final GamepadInput input2 = new GamepadInput(); // gamepad2, as of the start of this cycle.
+
+    // Called once after INIT is pressed. Get hardware and set it up here.
+    protected abstract void initialize() throws InterruptedException;
+
+    // Called every cycle between INIT and PLAY.
+    protected void initLoop() {
+    }
+
+    // Called once when PLAY is pressed, before the first cycle.
+    protected void onStart() {
+    }
+
+    // Called every cycle while the OpMode is running.
+    protected abstract void cycle();
+
+    // Return true to end the OpMode early (e.g. when an autonomous routine is complete).
+    protected boolean isFinished() {
+        return false;
+    }
+
+    // Called once when the OpMode stops (STOP pressed, isFinished() returned true, or the match ended).
+    // Also called if initialize() or a cycle throws, so anything set up in initialize() may still be null here.
+    // Stop every thread started in initialize() here; the Robot Controller app keeps running after the OpMode.
+    protected void onStop() {
+    }
+
+    @Override
+    public final void runOpMode() throws InterruptedException {
+        bulkCache.attach(hardwareMap); // Puts every hub in MANUAL bulk caching mode.
+        try {
+            initialize();
+
+            while (opModeInInit()) {
+                bulkCache.beginCycle();
+                updateInputs();
+                try {
+                    initLoop();
+                } finally {
+                    bulkCache.endCycle();
+                }
+                sleep(INIT_LOOP_PERIOD_MILLIS);
+            }
+
+            if (isStopRequested()) return;
+
+            onStart();
+
+            while (opModeIsActive() && !isFinished()) {
+                runCycle();
+            }
+        } finally {
+            onStop(); // Even if something above threw, so no background thread outlives the OpMode.
+            profiler.writeCsv(getClass().getSimpleName() + "_loop_timing.csv");
+        }
+    }
+
+    private void runCycle() {
+        profiler.beginCycle();
+        bulkCache.beginCycle();
+        updateInputs();
+        try {
+            cycle();
+        } finally {
+            bulkCache.endCycle();
+            profiler.endCycle();
+        }
+    }
+
+    private void updateInputs() {
+        long now = System.nanoTime();
+        input1.update(gamepad1, now);
+        input2.update(gamepad2, now);
+    }
+
+    /**
+     * Runs this OpMode without the SDK's event loop (no Driver Station, no INIT/PLAY/STOP), as if PLAY were pressed
+     * right after INIT. Used by the simulator to run OpModes on a computer.
+     * hardwareMap, telemetry and the gamepads must be set before calling this.
+     *
+     * @param hubs      Hubs to bulk-cache, in place of the LynxModules from the hardware map.
+     * @param maxCycles The most cycles to run.
+     * @param stop      Checked after every cycle; the OpMode stops when it returns true.
+     * @return          The number of cycles that were run.
+     */
+    public final int runHeadless(Iterable<? extends BulkCacheHub> hubs, int maxCycles, BooleanSupplier stop) throws InterruptedException {
+        for (BulkCacheHub hub : hubs) {
+            bulkCache.addHub(hub);
+        }
+        int cycles = 0;
+        try {
+            initialize();
+            onStart();
+
+            while (cycles < maxCycles && !isFinished()) {
+                runCycle();
+                cycles++;
+                if (stop.getAsBoolean()) break;
+            }
+        } finally {
+            onStop();
+        }
+        return cycles;
+    }
+
+    // Gets a motor from the hardware map, wrapped so that redundant writes are skipped and reads are checked.
+    protected CachingDcMotorEx getMotor(String name) {
+        return new CachingDcMotorEx(hardwareMap.get(DcMotorEx.class, name), hubWrites).setReadGuard(bulkCache, name);
+    }
+
+    // Gets a servo from the hardware map, wrapped so that redundant writes are skipped.
+    protected CachingServo getServo(String name) {
+        return new CachingServo(hardwareMap.get(Servo.class, name), hubWrites);
+    }
+}
@@ -0,0 +1,90 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * A fixed-bucket histogram of durations, used to find percentiles (p50/p95/p99) and the worst case of a loop phase.
+ * All storage is allocated up front, so record() never allocates and is cheap enough to call every cycle.
+ *
+ * Durations are put into buckets BUCKET_WIDTH_NANOS wide, from 0 up to BUCKET_COUNT buckets (100 ms).
+ * Anything longer goes into an overflow bucket; the exact maximum is always kept.
+ */
+public class LatencyHistogram {
+    public static final long BUCKET_WIDTH_NANOS = 100_000; // 0.1 ms per bucket.
+    public static final int BUCKET_COUNT = 1000; // 1000 buckets * 0.1 ms = 100 ms before overflow.
+
+    private final String name;
+    private final long[] buckets = new long[BUCKET_COUNT + 1]; // The last bucket holds every duration >= 100 ms.
+
+    private long count;
+    private long sumNanos;
+    private long maxNanos;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long bucket = nanos / BUCKET_WIDTH_NANOS;
+        buckets[bucket > BUCKET_COUNT ? BUCKET_COUNT : (int) bucket]++;
+        count++;
+        sumNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMs() {
+        return count == 0 ? 0.0 : sumNanos / 1e6 / count;
+    }
+
+    public double getMaxMs() {
+        return maxNanos / 1e6;
+    }
+
+    // Returns the given percentile (0 to 100) in milliseconds, accurate to one bucket (0.1 ms).
+    // The upper edge of the bucket is reported, so the value is never lower than the real percentile.
+    public double getPercentileMs(double percentile) {
+        if (count == 0) return 0.0;
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min((i + 1) * BUCKET_WIDTH_NANOS, maxNanos) / 1e6;
+            }
+        }
+        return getMaxMs(); // The percentile is in the overflow bucket.
+    }
+
+    // Fills out[0..percentiles.length) with the given percentiles (in ms) using a single pass over the buckets.
+    // percentiles must be sorted from smallest to largest.
+    public void getPercentilesMs(double[] percentiles, double[] out) {
+        int next = 0;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT && next < percentiles.length && count > 0; i++) {
+            seen += buckets[i];
+            while (next < percentiles.length && seen >= Math.max(1, (long) Math.ceil(percentiles[next] / 100.0 * count))) {
+                out[next++] = Math.min((i + 1) * BUCKET_WIDTH_NANOS, maxNanos) / 1e6;
+            }
+        }
+        while (next < percentiles.length) {
+            out[next++] = getMaxMs(); // Empty histogram (0) or the percentile is in the overflow bucket.
+        }
+    }
+}
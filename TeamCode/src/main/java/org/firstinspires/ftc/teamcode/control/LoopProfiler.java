@@ -0,0 +1,159 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Times each control cycle and the named phases inside it, and keeps a LatencyHistogram for each,
+ * so we can see the p95/p99/max spikes that an average "ms/loop" hides.
+ *
+ * Usage, once per cycle:
+ *   profiler.beginCycle();
+ *   ...read sensors...      profiler.lap(LoopProfiler.SENSOR_READ);
+ *   ...do the math...       profiler.lap(LoopProfiler.COMPUTE);
+ *   ...set motor powers...  profiler.lap(LoopProfiler.ACTUATOR_WRITE);
+ *   ...telemetry...         profiler.lap(LoopProfiler.TELEMETRY);
+ *   profiler.endCycle();
+ *
+ * lap() charges the time since the last lap (or beginCycle()) to the given phase. A phase may be lapped more than once
+ * in a cycle; its times are added together. Nothing here allocates except the telemetry and CSV output.
+ */
+public class LoopProfiler {
+    private static final String TAG = "LoopProfiler";
+
+    // The default phases. Other names can be passed to the constructor; their index is their position in the list.
+    public static final int SENSOR_READ = 0;
+    public static final int COMPUTE = 1;
+    public static final int ACTUATOR_WRITE = 2;
+    public static final int TELEMETRY = 3;
+
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    private final LatencyHistogram cycle = new LatencyHistogram("cycle"); // The whole cycle, from beginCycle() to endCycle().
+    private final LatencyHistogram[] phases;
+    private final long[] phaseNanos; // Time charged to each phase during the current cycle.
+    private final boolean[] phaseSeen; // Whether each phase was lapped during the current cycle.
+    private final double[] percentileScratch = new double[PERCENTILES.length];
+
+    private long cycleStartNanos;
+    private long lastLapNanos;
+    private boolean inCycle = false;
+
+    public LoopProfiler() {
+        this("sensor read", "compute", "actuator write", "telemetry");
+    }
+
+    public LoopProfiler(String... phaseNames) {
+        phases = new LatencyHistogram[phaseNames.length];
+        for (int i = 0; i < phaseNames.length; i++) {
+            phases[i] = new LatencyHistogram(phaseNames[i]);
+        }
+        phaseNanos = new long[phaseNames.length];
+        phaseSeen = new boolean[phaseNames.length];
+    }
+
+    public void beginCycle() {
+        cycleStartNanos = System.nanoTime();
+        lastLapNanos = cycleStartNanos;
+        inCycle = true;
+    }
+
+    public void lap(int phase) {
+        if (!inCycle) return;
+        long now = System.nanoTime();
+        phaseNanos[phase] += now - lastLapNanos;
+        phaseSeen[phase] = true;
+        lastLapNanos = now;
+    }
+
+    public void endCycle() {
+        if (!inCycle) return;
+        cycle.record(System.nanoTime() - cycleStartNanos);
+        for (int i = 0; i < phases.length; i++) {
+            if (phaseSeen[i]) {
+                phases[i].record(phaseNanos[i]);
+                phaseNanos[i] = 0;
+                phaseSeen[i] = false;
+            }
+        }
+        inCycle = false;
+    }
+
+    public LatencyHistogram getCycleHistogram() {
+        return cycle;
+    }
+
+    public LatencyHistogram getPhaseHistogram(int phase) {
+        return phases[phase];
+    }
+
+    public void reset() {
+        cycle.reset();
+        for (LatencyHistogram phase : phases) {
+            phase.reset();
+        }
+    }
+
+    // Adds one compact line per histogram (skipping phases that were never used) to the telemetry.
+    public void addTelemetry(Telemetry telemetry) {
+        addLine(telemetry, cycle);
+        for (LatencyHistogram phase : phases) {
+            if (phase.getCount() > 0) addLine(telemetry, phase);
+        }
+    }
+
+    private void addLine(Telemetry telemetry, LatencyHistogram histogram) {
+        telemetry.addData(histogram.getName() + " ms", summary(histogram));
+    }
+
+    // Adds the same lines to a TelemetryBoard. They are only worked out when the board sends.
+    public void addTelemetry(TelemetryBoard board) {
+        addLine(board, cycle);
+        for (LatencyHistogram phase : phases) {
+            addLine(board, phase);
+        }
+    }
+
+    private void addLine(TelemetryBoard board, final LatencyHistogram histogram) {
+        board.addLine(histogram.getName() + " ms", () -> histogram.getCount() > 0 ? summary(histogram) : "-");
+    }
+
+    private String summary(LatencyHistogram histogram) {
+        histogram.getPercentilesMs(PERCENTILES, percentileScratch);
+        return String.format("p50 %.1f p95 %.1f p99 %.1f max %.1f",
+                percentileScratch[0], percentileScratch[1], percentileScratch[2], histogram.getMaxMs());
+    }
+
+    // Writes a summary row for every histogram to a CSV file in the robot's data folder (/sdcard/FIRST/data).
+    // Returns the file, or null if it could not be written.
+    public File writeCsv(String fileName) {
+        File file = new File(AppUtil.ROBOT_DATA_DIR, fileName);
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            out.println("phase,count,mean_ms,p50_ms,p95_ms,p99_ms,max_ms");
+            writeRow(out, cycle);
+            for (LatencyHistogram phase : phases) {
+                writeRow(out, phase);
+            }
+        } catch (IOException e) {
+            RobotLog.ee(TAG, e, "Could not write loop timings to %s", file);
+            return null;
+        }
+        return file;
+    }
+
+    private void writeRow(PrintWriter out, LatencyHistogram histogram) {
+        histogram.getPercentilesMs(PERCENTILES, percentileScratch);
+        // Locale.US: with the device locale, some phones write decimal commas and break the columns.
+        out.printf(Locale.US, "%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", histogram.getName(), histogram.getCount(), histogram.getMeanMs(),
+                percentileScratch[0], percentileScratch[1], percentileScratch[2], histogram.getMaxMs());
+    }
+}
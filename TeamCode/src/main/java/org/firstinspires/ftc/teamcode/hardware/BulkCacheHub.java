@@ -0,0 +1,15 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+
+/**
+ * The part of a REV hub (LynxModule) that the bulk cache manager needs.
+ * It is an interface so that something other than a real LynxModule (like a simulated hub) can stand in for one.
+ */
+public interface BulkCacheHub {
+    String getName();
+
+    void setBulkCachingMode(LynxModule.BulkCachingMode mode);
+
+    void clearBulkCache();
+}
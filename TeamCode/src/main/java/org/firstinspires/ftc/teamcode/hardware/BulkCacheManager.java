@@ -0,0 +1,81 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts every hub in LynxModule.BulkCachingMode.MANUAL and clears the caches exactly once per control cycle,
+ * so each cycle costs one bulk read per hub no matter how many times the code reads an encoder (see ConceptMotorBulkRead).
+ *
+ * Reads made through a CachingDcMotorEx that has this manager as its read guard are checked: a read outside of
+ * beginCycle()/endCycle() may return data from the previous cycle, so it is counted and logged (once per device).
+ */
+public class BulkCacheManager {
+    private static final String TAG = "BulkCacheManager";
+
+    private final List<BulkCacheHub> hubs = new ArrayList<>();
+
+    private boolean inCycle = false;
+    private long cycleCount = 0;
+    private long readsOutsideCycle = 0;
+    private String lastReadOutsideCycle = ""; // Name of the last device that was read outside of a cycle.
+
+    // Finds every REV hub in the hardware map and switches it to MANUAL bulk caching.
+    public void attach(HardwareMap hardwareMap) {
+        for (LynxModule module : hardwareMap.getAll(LynxModule.class)) {
+            addHub(new LynxBulkCacheHub(module));
+        }
+    }
+
+    public void addHub(BulkCacheHub hub) {
+        hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        hubs.add(hub);
+    }
+
+    public List<BulkCacheHub> getHubs() {
+        return hubs;
+    }
+
+    // Starts a control cycle: throws away last cycle's bulk data so the first read of this cycle does one fresh bulk read per hub.
+    public void beginCycle() {
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).clearBulkCache();
+        }
+        inCycle = true;
+        cycleCount++;
+    }
+
+    public void endCycle() {
+        inCycle = false;
+    }
+
+    public boolean isInCycle() {
+        return inCycle;
+    }
+
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    public long getReadsOutsideCycle() {
+        return readsOutsideCycle;
+    }
+
+    public String getLastReadOutsideCycle() {
+        return lastReadOutsideCycle;
+    }
+
+    // Called by guarded devices on every read.
+    void onRead(String deviceName) {
+        if (inCycle) return;
+        readsOutsideCycle++;
+        if (!deviceName.equals(lastReadOutsideCycle)) {
+            lastReadOutsideCycle = deviceName;
+            RobotLog.ww(TAG, "%s was read outside of a control cycle; the value may be stale", deviceName);
+        }
+    }
+}
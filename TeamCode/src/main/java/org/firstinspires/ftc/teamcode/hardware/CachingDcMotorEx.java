@@ -0,0 +1,397 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.PIDCoefficients;
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+
+/**
+ * A DcMotorEx that remembers the last value written to the hub and drops writes that would not change anything.
+ * Every setPower(), setTargetPosition(), setMode() etc. on a real motor is its own Lynx USB transaction,
+ * so calling them every loop with the same value (like our viper slides do) costs time for nothing.
+ *
+ * Reads are passed straight through to the wrapped motor, so bulk caching still works as normal.
+ * If a read guard is set, every bulk-cached read (position, velocity, busy) is reported to it so reads made outside of a control cycle can be flagged.
+ */
+public class CachingDcMotorEx implements DcMotorEx {
+    public static final double DEFAULT_POWER_EPSILON = 0.001; // Power changes smaller than this are not sent.
+    public static final double DEFAULT_VELOCITY_EPSILON = 1.0; // Velocity changes (ticks/second) smaller than this are not sent.
+
+    private final DcMotorEx motor; // The real motor that writes are forwarded to.
+    private final WriteCounter counter; // Counts issued vs. suppressed writes (may be shared between devices).
+
+    private BulkCacheManager readGuard; // Told about every bulk-cached read, or null to not check reads.
+    private String name = "motor"; // Configuration name, used when reporting reads outside of a cycle.
+
+    private double powerEpsilon = DEFAULT_POWER_EPSILON;
+    private double velocityEpsilon = DEFAULT_VELOCITY_EPSILON;
+
+    // Last values sent to the hub. The "known" flags are false until the first write (or after invalidate()).
+    private double lastPower;
+    private boolean powerKnown;
+    private double lastVelocity;
+    private boolean velocityKnown;
+    private int lastTargetPosition;
+    private boolean targetPositionKnown;
+    private int lastTargetPositionTolerance;
+    private boolean targetPositionToleranceKnown;
+    private RunMode lastMode;
+    private Direction lastDirection;
+    private ZeroPowerBehavior lastZeroPowerBehavior;
+
+    public CachingDcMotorEx(DcMotorEx motor) {
+        this(motor, new WriteCounter());
+    }
+
+    public CachingDcMotorEx(DcMotorEx motor, WriteCounter counter) {
+        this.motor = motor;
+        this.counter = counter;
+    }
+
+    public DcMotorEx getWrappedMotor() {
+        return motor;
+    }
+
+    public WriteCounter getWriteCounter() {
+        return counter;
+    }
+
+    public CachingDcMotorEx setReadGuard(BulkCacheManager readGuard, String name) {
+        this.readGuard = readGuard;
+        this.name = name;
+        return this;
+    }
+
+    private void checkRead() {
+        if (readGuard != null) readGuard.onRead(name);
+    }
+
+    public CachingDcMotorEx setPowerEpsilon(double powerEpsilon) {
+        this.powerEpsilon = Math.abs(powerEpsilon);
+        return this;
+    }
+
+    public CachingDcMotorEx setVelocityEpsilon(double velocityEpsilon) {
+        this.velocityEpsilon = Math.abs(velocityEpsilon);
+        return this;
+    }
+
+    // Forgets everything we think the hub has, so the next write of every value goes through.
+    // Call this if something outside of this wrapper may have changed the motor (e.g. after a hub reset).
+    public void invalidate() {
+        powerKnown = false;
+        velocityKnown = false;
+        targetPositionKnown = false;
+        targetPositionToleranceKnown = false;
+        lastMode = null;
+        lastDirection = null;
+        lastZeroPowerBehavior = null;
+    }
+
+    // Returns true if the new value is close enough to the last one that it does not need to be sent.
+    // A write of exactly 0 always goes through when the last value was not 0, so a stop is never swallowed.
+    private static boolean isRedundant(boolean known, double last, double next, double epsilon) {
+        if (!known) return false;
+        if (next == 0.0) return last == 0.0;
+        return Math.abs(next - last) <= epsilon;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Cached writes.
+    // ---------------------------------------------------------------------------------------------
+
+    @Override
+    public void setPower(double power) {
+        if (isRedundant(powerKnown, lastPower, power, powerEpsilon)) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setPower(power);
+        lastPower = power;
+        powerKnown = true;
+        velocityKnown = false; // The hub now runs on power, so the next setVelocity() must be sent.
+        counter.issued++;
+    }
+
+    @Override
+    public void setVelocity(double angularRate) {
+        if (isRedundant(velocityKnown, lastVelocity, angularRate, velocityEpsilon)) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setVelocity(angularRate);
+        lastVelocity = angularRate;
+        velocityKnown = true;
+        powerKnown = false; // setVelocity() changes the power the hub reports, so the next setPower() must be sent.
+        counter.issued++;
+    }
+
+    @Override
+    public void setVelocity(double angularRate, AngleUnit unit) {
+        // Not cached by value since the unit can change between calls, but keep the other caches honest.
+        motor.setVelocity(angularRate, unit);
+        velocityKnown = false;
+        powerKnown = false;
+        counter.issued++;
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+        if (targetPositionKnown && position == lastTargetPosition) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setTargetPosition(position);
+        lastTargetPosition = position;
+        targetPositionKnown = true;
+        counter.issued++;
+    }
+
+    @Override
+    public void setTargetPositionTolerance(int tolerance) {
+        if (targetPositionToleranceKnown && tolerance == lastTargetPositionTolerance) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setTargetPositionTolerance(tolerance);
+        lastTargetPositionTolerance = tolerance;
+        targetPositionToleranceKnown = true;
+        counter.issued++;
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        // STOP_AND_RESET_ENCODER is an action, not just a setting, so it is always sent.
+        if (mode == lastMode && mode != RunMode.STOP_AND_RESET_ENCODER) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setMode(mode);
+        lastMode = mode;
+        if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+            powerKnown = false; // Resetting the encoder also stops the motor.
+            velocityKnown = false;
+        }
+        counter.issued++;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        if (direction == lastDirection) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setDirection(direction);
+        lastDirection = direction;
+        counter.issued++;
+    }
+
+    @Override
+    public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) {
+        if (zeroPowerBehavior == lastZeroPowerBehavior) {
+            counter.suppressed++;
+            return;
+        }
+        motor.setZeroPowerBehavior(zeroPowerBehavior);
+        lastZeroPowerBehavior = zeroPowerBehavior;
+        counter.issued++;
+    }
+
+    @Override
+    public void setMotorEnable() {
+        motor.setMotorEnable();
+        invalidate();
+        counter.issued++;
+    }
+
+    @Override
+    public void setMotorDisable() {
+        motor.setMotorDisable();
+        invalidate();
+        counter.issued++;
+    }
+
+    @Override
+    @Deprecated
+    public void setPowerFloat() {
+        motor.setPowerFloat();
+        powerKnown = false;
+        counter.issued++;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        motor.resetDeviceConfigurationForOpMode();
+        invalidate();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Everything else is passed straight through.
+    // ---------------------------------------------------------------------------------------------
+
+    @Override
+    public double getPower() {
+        return motor.getPower();
+    }
+
+    @Override
+    public Direction getDirection() {
+        return motor.getDirection();
+    }
+
+    @Override
+    public MotorConfigurationType getMotorType() {
+        return motor.getMotorType();
+    }
+
+    @Override
+    public void setMotorType(MotorConfigurationType motorType) {
+        motor.setMotorType(motorType);
+    }
+
+    @Override
+    public DcMotorController getController() {
+        return motor.getController();
+    }
+
+    @Override
+    public int getPortNumber() {
+        return motor.getPortNumber();
+    }
+
+    @Override
+    public ZeroPowerBehavior getZeroPowerBehavior() {
+        return motor.getZeroPowerBehavior();
+    }
+
+    @Override
+    public boolean getPowerFloat() {
+        return motor.getPowerFloat();
+    }
+
+    @Override
+    public int getTargetPosition() {
+        return motor.getTargetPosition();
+    }
+
+    @Override
+    public boolean isBusy() {
+        checkRead();
+        return motor.isBusy();
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        checkRead();
+        return motor.getCurrentPosition();
+    }
+
+    @Override
+    public RunMode getMode() {
+        return motor.getMode();
+    }
+
+    @Override
+    public boolean isMotorEnabled() {
+        return motor.isMotorEnabled();
+    }
+
+    @Override
+    public double getVelocity() {
+        checkRead();
+        return motor.getVelocity();
+    }
+
+    @Override
+    public double getVelocity(AngleUnit unit) {
+        checkRead();
+        return motor.getVelocity(unit);
+    }
+
+    @Override
+    @Deprecated
+    public void setPIDCoefficients(RunMode mode, PIDCoefficients pidCoefficients) {
+        motor.setPIDCoefficients(mode, pidCoefficients);
+    }
+
+    @Override
+    public void setPIDFCoefficients(RunMode mode, PIDFCoefficients pidfCoefficients) throws UnsupportedOperationException {
+        motor.setPIDFCoefficients(mode, pidfCoefficients);
+    }
+
+    @Override
+    public void setVelocityPIDFCoefficients(double p, double i, double d, double f) {
+        motor.setVelocityPIDFCoefficients(p, i, d, f);
+    }
+
+    @Override
+    public void setPositionPIDFCoefficients(double p) {
+        motor.setPositionPIDFCoefficients(p);
+    }
+
+    @Override
+    @Deprecated
+    public PIDCoefficients getPIDCoefficients(RunMode mode) {
+        return motor.getPIDCoefficients(mode);
+    }
+
+    @Override
+    public PIDFCoefficients getPIDFCoefficients(RunMode mode) {
+        return motor.getPIDFCoefficients(mode);
+    }
+
+    @Override
+    public int getTargetPositionTolerance() {
+        return motor.getTargetPositionTolerance();
+    }
+
+    @Override
+    public double getCurrent(CurrentUnit unit) {
+        return motor.getCurrent(unit);
+    }
+
+    @Override
+    public double getCurrentAlert(CurrentUnit unit) {
+        return motor.getCurrentAlert(unit);
+    }
+
+    @Override
+    public void setCurrentAlert(double current, CurrentUnit unit) {
+        motor.setCurrentAlert(current, unit);
+    }
+
+    @Override
+    public boolean isOverCurrent() {
+        checkRead();
+        return motor.isOverCurrent();
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return motor.getManufacturer();
+    }
+
+    @Override
+    public String getDeviceName() {
+        return motor.getDeviceName();
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return motor.getConnectionInfo();
+    }
+
+    @Override
+    public int getVersion() {
+        return motor.getVersion();
+    }
+
+    @Override
+    public void close() {
+        motor.close();
+    }
+}
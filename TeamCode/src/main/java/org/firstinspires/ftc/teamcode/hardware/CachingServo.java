@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ * A Servo that remembers the last position and direction written to the hub and drops writes that would not change anything.
+ * Our claw code calls setPosition() and setDirection() nearly every loop with the same values, and each of those
+ * is its own Lynx USB transaction on a real servo.
+ */
+public class CachingServo implements Servo {
+    public static final double DEFAULT_POSITION_EPSILON = 0.0005; // Position changes smaller than this are not sent.
+
+    private final Servo servo; // The real servo that writes are forwarded to.
+    private final WriteCounter counter; // Counts issued vs. suppressed writes (may be shared between devices).
+
+    private double positionEpsilon = DEFAULT_POSITION_EPSILON;
+
+    // Last values sent to the hub. lastDirection is null until the first write (or after invalidate()).
+    private double lastPosition;
+    private boolean positionKnown;
+    private Direction lastDirection;
+
+    public CachingServo(Servo servo) {
+        this(servo, new WriteCounter());
+    }
+
+    public CachingServo(Servo servo, WriteCounter counter) {
+        this.servo = servo;
+        this.counter = counter;
+    }
+
+    public Servo getWrappedServo() {
+        return servo;
+    }
+
+    public WriteCounter getWriteCounter() {
+        return counter;
+    }
+
+    public CachingServo setPositionEpsilon(double positionEpsilon) {
+        this.positionEpsilon = Math.abs(positionEpsilon);
+        return this;
+    }
+
+    // Forgets everything we think the hub has, so the next write of every value goes through.
+    public void invalidate() {
+        positionKnown = false;
+        lastDirection = null;
+    }
+
+    @Override
+    public void setPosition(double position) {
+        if (positionKnown && Math.abs(position - lastPosition) <= positionEpsilon) {
+            counter.suppressed++;
+            return;
+        }
+        servo.setPosition(position);
+        lastPosition = position;
+        positionKnown = true;
+        counter.issued++;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        if (direction == lastDirection) {
+            counter.suppressed++;
+            return;
+        }
+        servo.setDirection(direction);
+        lastDirection = direction;
+        positionKnown = false; // The same position now means the opposite end, so it has to be sent again.
+        counter.issued++;
+    }
+
+    @Override
+    public void scaleRange(double min, double max) {
+        servo.scaleRange(min, max);
+        positionKnown = false; // The same position now maps to a different pulse width.
+        counter.issued++;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        servo.resetDeviceConfigurationForOpMode();
+        invalidate();
+    }
+
+    @Override
+    public ServoController getController() {
+        return servo.getController();
+    }
+
+    @Override
+    public int getPortNumber() {
+        return servo.getPortNumber();
+    }
+
+    @Override
+    public Direction getDirection() {
+        return servo.getDirection();
+    }
+
+    @Override
+    public double getPosition() {
+        return servo.getPosition();
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return servo.getManufacturer();
+    }
+
+    @Override
+    public String getDeviceName() {
+        return servo.getDeviceName();
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return servo.getConnectionInfo();
+    }
+
+    @Override
+    public int getVersion() {
+        return servo.getVersion();
+    }
+
+    @Override
+    public void close() {
+        servo.close();
+    }
+}
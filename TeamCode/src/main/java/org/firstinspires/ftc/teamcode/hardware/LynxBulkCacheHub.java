@@ -0,0 +1,33 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+
+/**
+ * A BulkCacheHub backed by a real REV Control/Expansion Hub.
+ */
+public class LynxBulkCacheHub implements BulkCacheHub {
+    private final LynxModule module;
+
+    public LynxBulkCacheHub(LynxModule module) {
+        this.module = module;
+    }
+
+    public LynxModule getModule() {
+        return module;
+    }
+
+    @Override
+    public String getName() {
+        return module.getDeviceName();
+    }
+
+    @Override
+    public void setBulkCachingMode(LynxModule.BulkCachingMode mode) {
+        module.setBulkCachingMode(mode);
+    }
+
+    @Override
+    public void clearBulkCache() {
+        module.clearBulkCache();
+    }
+}
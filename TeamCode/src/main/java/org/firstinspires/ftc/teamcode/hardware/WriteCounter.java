@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/**
+ * Counts how many hardware writes were actually sent to a hub and how many were dropped as redundant.
+ * One counter can be shared by several caching devices to get a total for the whole robot.
+ * Only meant to be used from the OpMode thread, so the counts are plain longs.
+ */
+public class WriteCounter {
+    long issued; // Writes that were sent to the hub.
+    long suppressed; // Writes that were dropped because the value had not changed.
+
+    public long getIssued() {
+        return issued;
+    }
+
+    public long getSuppressed() {
+        return suppressed;
+    }
+
+    public long getTotal() {
+        return issued + suppressed;
+    }
+
+    // Fraction (0 to 1) of all writes that never had to go over USB.
+    public double getSuppressedRatio() {
+        long total = getTotal();
+        return total == 0 ? 0.0 : (double) suppressed / total;
+    }
+
+    public void reset() {
+        issued = 0;
+        suppressed = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d sent / %d skipped", issued, suppressed);
+    }
+}
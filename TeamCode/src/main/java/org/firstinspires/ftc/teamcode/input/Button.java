@@ -0,0 +1,11 @@
+package org.firstinspires.ftc.teamcode.input;
+
+// Every gamepad button GamepadInput tracks. The triggers count as buttons once they are past the trigger threshold.
+public enum Button {
+    A, B, X, Y,
+    DPAD_UP, DPAD_DOWN, DPAD_LEFT, DPAD_RIGHT,
+    LEFT_BUMPER, RIGHT_BUMPER,
+    LEFT_TRIGGER, RIGHT_TRIGGER,
+    LEFT_STICK_BUTTON, RIGHT_STICK_BUTTON,
+    BACK, START, GUIDE
+}
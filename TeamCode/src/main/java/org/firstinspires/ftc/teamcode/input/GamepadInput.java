@@ -0,0 +1,158 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/**
+ * A once-per-cycle copy of a gamepad, with button events worked out from the difference with the last cycle.
+ *
+ * The SDK updates the Gamepad objects from another thread whenever a new packet arrives from the Driver Station,
+ * so reading gamepad1.a twice in one loop can give two different answers. update() copies every field at once,
+ * and everything else reads that copy, so the whole cycle sees the same gamepad.
+ *
+ * Events replace sleep()-based debouncing: wasPressed() is true for exactly one cycle per press,
+ * and nothing here ever blocks. Nothing is allocated after construction.
+ */
+public class GamepadInput {
+    private static final Button[] BUTTONS = Button.values();
+
+    private final boolean[] down = new boolean[BUTTONS.length];
+    private final boolean[] previous = new boolean[BUTTONS.length];
+    private final long[] pressedAtNanos = new long[BUTTONS.length]; // When each button went down.
+    private final boolean[] holdReported = new boolean[BUTTONS.length]; // heldFor() already fired for this press.
+    private long nowNanos;
+    private boolean first = true;
+
+    private float leftStickX, leftStickY, rightStickX, rightStickY;
+    private float leftTrigger, rightTrigger;
+
+    private double triggerPressThreshold = 0.5;
+    private double triggerReleaseThreshold = 0.4; // A bit below the press threshold, so a trigger held near it doesn't flicker.
+
+    // Sets when a trigger counts as pressed (and a slightly lower level for released).
+    public GamepadInput setTriggerThreshold(double press, double release) {
+        triggerPressThreshold = press;
+        triggerReleaseThreshold = Math.min(release, press);
+        return this;
+    }
+
+    // Call once at the start of every cycle.
+    public void update(Gamepad gamepad) {
+        update(gamepad, System.nanoTime());
+    }
+
+    public void update(Gamepad gamepad, long nowNanos) {
+        this.nowNanos = nowNanos;
+        System.arraycopy(down, 0, previous, 0, down.length);
+
+        synchronized (gamepad) { // The SDK holds the gamepad's lock while it copies a new packet into it.
+            leftStickX = gamepad.left_stick_x;
+            leftStickY = gamepad.left_stick_y;
+            rightStickX = gamepad.right_stick_x;
+            rightStickY = gamepad.right_stick_y;
+            leftTrigger = gamepad.left_trigger;
+            rightTrigger = gamepad.right_trigger;
+
+            down[Button.A.ordinal()] = gamepad.a;
+            down[Button.B.ordinal()] = gamepad.b;
+            down[Button.X.ordinal()] = gamepad.x;
+            down[Button.Y.ordinal()] = gamepad.y;
+            down[Button.DPAD_UP.ordinal()] = gamepad.dpad_up;
+            down[Button.DPAD_DOWN.ordinal()] = gamepad.dpad_down;
+            down[Button.DPAD_LEFT.ordinal()] = gamepad.dpad_left;
+            down[Button.DPAD_RIGHT.ordinal()] = gamepad.dpad_right;
+            down[Button.LEFT_BUMPER.ordinal()] = gamepad.left_bumper;
+            down[Button.RIGHT_BUMPER.ordinal()] = gamepad.right_bumper;
+            down[Button.LEFT_STICK_BUTTON.ordinal()] = gamepad.left_stick_button;
+            down[Button.RIGHT_STICK_BUTTON.ordinal()] = gamepad.right_stick_button;
+            down[Button.BACK.ordinal()] = gamepad.back;
+            down[Button.START.ordinal()] = gamepad.start;
+            down[Button.GUIDE.ordinal()] = gamepad.guide;
+        }
+        down[Button.LEFT_TRIGGER.ordinal()] = triggerDown(leftTrigger, previous[Button.LEFT_TRIGGER.ordinal()]);
+        down[Button.RIGHT_TRIGGER.ordinal()] = triggerDown(rightTrigger, previous[Button.RIGHT_TRIGGER.ordinal()]);
+
+        if (first) {
+            // A button already held when the OpMode starts isn't a new press.
+            System.arraycopy(down, 0, previous, 0, down.length);
+            for (int i = 0; i < down.length; i++) {
+                pressedAtNanos[i] = nowNanos;
+                holdReported[i] = true;
+            }
+            first = false;
+        }
+        for (int i = 0; i < down.length; i++) {
+            if (down[i] && !previous[i]) {
+                pressedAtNanos[i] = nowNanos;
+                holdReported[i] = false;
+            }
+        }
+    }
+
+    private boolean triggerDown(float value, boolean wasDown) {
+        return value > (wasDown ? triggerReleaseThreshold : triggerPressThreshold);
+    }
+
+    // True while the button is held.
+    public boolean isDown(Button button) {
+        return down[button.ordinal()];
+    }
+
+    // True for the one cycle in which the button went down.
+    public boolean wasPressed(Button button) {
+        int i = button.ordinal();
+        return down[i] && !previous[i];
+    }
+
+    // True for the one cycle in which the button came back up.
+    public boolean wasReleased(Button button) {
+        int i = button.ordinal();
+        return !down[i] && previous[i];
+    }
+
+    // How long the button has been held, in seconds (0 if it isn't).
+    public double getHeldSeconds(Button button) {
+        int i = button.ordinal();
+        return down[i] ? (nowNanos - pressedAtNanos[i]) / 1e9 : 0;
+    }
+
+    // True for the one cycle in which the button has been held for the given time (e.g. a long press to reset something).
+    public boolean heldFor(Button button, double seconds) {
+        int i = button.ordinal();
+        if (!down[i] || holdReported[i] || getHeldSeconds(button) < seconds) return false;
+        holdReported[i] = true;
+        return true;
+    }
+
+    // Every button at once, as a bit per Button (bit n is Button.values()[n]), e.g. for recording a match.
+    public int getButtonBits() {
+        int bits = 0;
+        for (int i = 0; i < down.length; i++) {
+            if (down[i]) bits |= 1 << i;
+        }
+        return bits;
+    }
+
+    public float getLeftStickX() {
+        return leftStickX;
+    }
+
+    public float getLeftStickY() {
+        return leftStickY;
+    }
+
+    public float getRightStickX() {
+        return rightStickX;
+    }
+
+    public float getRightStickY() {
+        return rightStickY;
+    }
+
+    public float getLeftTrigger() {
+        return leftTrigger;
+    }
+
+    public float getRightTrigger() {
+        return rightTrigger;
+    }
+}
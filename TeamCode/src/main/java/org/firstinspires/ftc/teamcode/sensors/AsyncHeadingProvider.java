@@ -0,0 +1,219 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the heading on its own thread, so the control loop never waits for an I2C read.
+ * The control loop gets the latest sample with getHeading() (optionally extrapolated to "now" with the yaw rate),
+ * which only reads a few fields and never blocks or allocates.
+ *
+ * The sample is handed over with a SeqLock: the sampler makes its counter odd while it writes and even again when
+ * done, and a reader retries if the counter was odd or changed while it read.
+ * There is only one writer, so neither side ever waits on a lock.
+ *
+ * Call start() once the IMU is initialized (or startAfter() with ImuStartup.getReady()), and stop() when the OpMode ends.
+ */
+public class AsyncHeadingProvider {
+    private final HeadingSource source;
+    private long periodNanos = 10_000_000; // 100 Hz; more than that mostly just keeps the I2C bus busy.
+    private boolean readYawRate = false; // Reading the rate is a second I2C read, so by default it is worked out from the yaw.
+    private long maxExtrapolationNanos = 50_000_000; // Past this, the sample is too old to trust the rate.
+
+    // The published sample. Written only by the sampler thread.
+    private final SeqLock lock = new SeqLock();
+    private volatile double yawRadians;
+    private volatile double yawRateRadians;
+    private volatile long timestampNanos;
+    private volatile long sampleNumber = 0;
+
+    private volatile double yawOffsetRadians = 0; // Set by resetYaw(), or for it by the sampler.
+    private final AtomicBoolean resetPending = new AtomicBoolean(); // Set by resetYaw(); cleared by whichever side applies the reset.
+    private volatile long errorCount = 0;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public AsyncHeadingProvider(HeadingSource source) {
+        this.source = source;
+    }
+
+    public AsyncHeadingProvider setPeriodMillis(double millis) {
+        periodNanos = (long) (millis * 1_000_000);
+        return this;
+    }
+
+    // Reads the yaw rate from the sensor instead of working it out from successive yaws.
+    public AsyncHeadingProvider setReadYawRate(boolean readYawRate) {
+        this.readYawRate = readYawRate;
+        return this;
+    }
+
+    public AsyncHeadingProvider setMaxExtrapolationMillis(double millis) {
+        maxExtrapolationNanos = (long) (millis * 1_000_000);
+        return this;
+    }
+
+    public synchronized void start() {
+        startAfter(null);
+    }
+
+    // Starts now, but only samples once ready completes (e.g. ImuStartup.getReady()). If it fails, nothing is sampled.
+    public synchronized void startAfter(final Future<?> ready) {
+        if (running) return;
+        if (thread != null && thread.isAlive()) {
+            RobotLog.ww("AsyncHeadingProvider", "not restarted: the last sampler thread hasn't stopped yet");
+            return;
+        }
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                if (ready != null && !await(ready)) return;
+                sampleLoop();
+            }
+        }, "AsyncHeadingProvider");
+        thread.setDaemon(true); // Never keeps the app alive on its own.
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+        running = false;
+        if (SensorThreads.interruptAndJoin(thread)) thread = null; // Otherwise kept, so start() can tell it is still there.
+    }
+
+    private boolean await(Future<?> ready) {
+        try {
+            ready.get();
+            return true;
+        } catch (InterruptedException e) {
+            return false; // Stopped before the IMU was ready.
+        } catch (ExecutionException e) {
+            errorCount++;
+            return false;
+        }
+    }
+
+    private void sampleLoop() {
+        double lastYaw = 0;
+        long lastTimestamp = 0;
+        long samples = 0;
+
+        while (running) {
+            long start = System.nanoTime();
+            double yaw, yawRate;
+            try {
+                yaw = source.readYawRadians();
+                yawRate = readYawRate ? source.readYawRateRadians() : Double.NaN;
+            } catch (RuntimeException e) {
+                if (errorCount++ == 0) RobotLog.ee("AsyncHeadingProvider", e, "heading read failed");
+                if (!SensorThreads.pause(periodNanos)) break;
+                continue;
+            }
+            long end = System.nanoTime();
+            long timestamp = start + (end - start) / 2; // The sensor was read somewhere during the transaction.
+
+            if (Double.isNaN(yawRate)) {
+                yawRate = samples == 0 ? 0 : AngleUnit.normalizeRadians(yaw - lastYaw) / ((timestamp - lastTimestamp) / 1e9);
+            }
+            lastYaw = yaw;
+            lastTimestamp = timestamp;
+            samples++;
+
+            lock.beginWrite();
+            // Inside the write, so no reader sees this sample without the reset. Whichever of this and resetYaw()
+            // clears the flag applies it, so a reset is never lost or applied twice.
+            if (resetPending.compareAndSet(true, false)) yawOffsetRadians = yaw;
+            yawRadians = yaw;
+            yawRateRadians = yawRate;
+            timestampNanos = timestamp;
+            sampleNumber = samples;
+            lock.endWrite();
+
+            if (!SensorThreads.pause(periodNanos - (System.nanoTime() - start))) break;
+        }
+    }
+
+    /**
+     * Copies the latest sample into out.
+     *
+     * @return false if there is no sample yet.
+     */
+    public boolean getSnapshot(HeadingSnapshot out) {
+        long before;
+        do {
+            before = lock.readBegin();
+            out.yawRadians = yawRadians;
+            out.yawRateRadians = yawRateRadians;
+            out.timestampNanos = timestampNanos;
+            out.sampleNumber = sampleNumber;
+        } while (lock.readRetry(before));
+
+        out.yawRadians = AngleUnit.normalizeRadians(out.yawRadians - yawOffsetRadians);
+        return out.sampleNumber != 0;
+    }
+
+    // The heading at the latest sample, in radians. 0 until the first sample arrives.
+    public double getHeading() {
+        long before;
+        double yaw;
+        do {
+            before = lock.readBegin();
+            yaw = yawRadians;
+        } while (lock.readRetry(before));
+        return AngleUnit.normalizeRadians(yaw - yawOffsetRadians);
+    }
+
+    /**
+     * The heading now, in radians: the latest sample moved forward by its yaw rate for as long as it has been since
+     * the sample was taken (up to the max extrapolation). This makes up for the sample being a few milliseconds old
+     * while the robot is turning fast.
+     */
+    public double getExtrapolatedHeading() {
+        long before, timestamp;
+        double yaw, yawRate;
+        do {
+            before = lock.readBegin();
+            yaw = yawRadians;
+            yawRate = yawRateRadians;
+            timestamp = timestampNanos;
+        } while (lock.readRetry(before));
+
+        long age = Math.min(System.nanoTime() - timestamp, maxExtrapolationNanos);
+        return AngleUnit.normalizeRadians(yaw - yawOffsetRadians + yawRate * age / 1e9);
+    }
+
+    // Makes the current heading read as 0. Done in software, so it doesn't need the I2C bus.
+    // If there is no sample yet (the IMU is still starting), the first sample is what reads as 0.
+    public void resetYaw() {
+        // The flag is raised first, then the latest sample is read: if there was none, the sampler applies the reset
+        // to the first one. If a sample arrives in between, the sampler may take the flag first; either way exactly
+        // one of the two applies it.
+        resetPending.set(true);
+        long before, samples;
+        double yaw;
+        do {
+            before = lock.readBegin();
+            yaw = yawRadians;
+            samples = sampleNumber;
+        } while (lock.readRetry(before));
+        if (samples != 0 && resetPending.compareAndSet(true, false)) yawOffsetRadians = yaw;
+    }
+
+    public long getSampleCount() {
+        return sampleNumber;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,14 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+// One heading sample, copied out of AsyncHeadingProvider. Mutable so the control loop can reuse one instance.
+public class HeadingSnapshot {
+    public double yawRadians; // With the provider's resetYaw() offset applied.
+    public double yawRateRadians; // Radians per second.
+    public long timestampNanos; // System.nanoTime() at the middle of the read.
+    public long sampleNumber; // Counts up by one for every new sample; 0 means no sample yet.
+
+    // How old this sample is, in nanoseconds.
+    public long getAgeNanos() {
+        return System.nanoTime() - timestampNanos;
+    }
+}
@@ -0,0 +1,14 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+/**
+ * Something that can be asked for the robot's heading. Each call is a blocking read of the sensor (usually an I2C
+ * transaction of a few milliseconds), so these are meant to be called from AsyncHeadingProvider's thread,
+ * not from the control loop. See HeadingSources for the IMUs we support.
+ */
+public interface HeadingSource {
+    // Yaw in radians, counter clockwise positive.
+    double readYawRadians();
+
+    // Yaw rate in radians per second, counter clockwise positive. Costs another read on most sensors.
+    double readYawRateRadians();
+}
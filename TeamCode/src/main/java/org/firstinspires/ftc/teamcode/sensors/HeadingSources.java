@@ -0,0 +1,60 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.IntegratingGyroscope;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+
+// Adapts the IMUs we use to HeadingSource. The IMUs must already be initialized.
+public final class HeadingSources {
+    private HeadingSources() {
+    }
+
+    // The universal IMU interface (the Control Hub's BHI260AP or BNO055, set up with IMU.Parameters).
+    public static HeadingSource of(final IMU imu) {
+        return new HeadingSource() {
+            @Override
+            public double readYawRadians() {
+                return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+            }
+
+            @Override
+            public double readYawRateRadians() {
+                return imu.getRobotAngularVelocity(AngleUnit.RADIANS).zRotationRate;
+            }
+        };
+    }
+
+    // A BNO055 set up with the older BNO055IMU.Parameters (see SensorBNO055IMU).
+    public static HeadingSource of(final BNO055IMU imu) {
+        return new HeadingSource() {
+            @Override
+            public double readYawRadians() {
+                return imu.getAngularOrientation(AxesReference.INTRINSIC, AxesOrder.ZYX, AngleUnit.RADIANS).firstAngle;
+            }
+
+            @Override
+            public double readYawRateRadians() {
+                return imu.getAngularVelocity().toAngleUnit(AngleUnit.RADIANS).zRotationRate;
+            }
+        };
+    }
+
+    // A navX micro, or any other IntegratingGyroscope (see SensorKLNavxMicro).
+    public static HeadingSource of(final IntegratingGyroscope gyro) {
+        return new HeadingSource() {
+            @Override
+            public double readYawRadians() {
+                return gyro.getAngularOrientation(AxesReference.INTRINSIC, AxesOrder.ZYX, AngleUnit.RADIANS).firstAngle;
+            }
+
+            @Override
+            public double readYawRateRadians() {
+                return gyro.getAngularVelocity(AngleUnit.RADIANS).zRotationRate;
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.util.ReadWriteFile;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Initializes an IMU on a background thread, so the rest of init (motors, vision, telemetry) doesn't wait the
+ * second or so that IMU.initialize() takes. getReady() completes when the IMU can be read; AsyncHeadingProvider
+ * can be started right away with startAfter(getReady()), and begins sampling as soon as the IMU is up.
+ *
+ * For a BNO055 set up through BNO055IMU.Parameters, the calibration is restored from a 22 byte binary file
+ * (/sdcard/FIRST/data/bno055_calibration.bin) instead of having the SDK parse BNO055IMUCalibration.json every time.
+ * The first time, and again whenever SensorBNO055IMUCalibration saves a newer JSON, the JSON is read once and converted.
+ */
+public class ImuStartup {
+    private static final String TAG = "ImuStartup";
+    private static final File CALIBRATION_FILE = new File(AppUtil.ROBOT_DATA_DIR, "bno055_calibration.bin");
+    private static final String CALIBRATION_JSON = "BNO055IMUCalibration.json"; // What SensorBNO055IMUCalibration saves.
+
+    private interface Initializer {
+        boolean initialize();
+    }
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long readyNanos = 0;
+
+    private ImuStartup(final String name, final Initializer initializer) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // The future is completed before anything is logged, and whatever initialize() throws (including
+                // Errors) fails it, so getReady() always completes and nothing waiting on it hangs.
+                try {
+                    if (!initializer.initialize()) throw new IllegalStateException(name + " did not initialize");
+                } catch (Throwable t) {
+                    ready.completeExceptionally(t);
+                    RobotLog.ee(TAG, t, "%s failed to initialize", name);
+                    return;
+                }
+                readyNanos = System.nanoTime();
+                ready.complete(null);
+                RobotLog.ii(TAG, "%s ready after %.0f ms", name, getStartupMillis());
+            }
+        }, TAG);
+        thread.setDaemon(true); // Never keeps the app alive on its own.
+        thread.start();
+    }
+
+    // Starts initializing a universal IMU (BHI260AP or BNO055) with the given orientation.
+    public static ImuStartup begin(final IMU imu, final IMU.Parameters parameters) {
+        return new ImuStartup("IMU", new Initializer() {
+            @Override
+            public boolean initialize() {
+                return imu.initialize(parameters);
+            }
+        });
+    }
+
+    // Starts initializing a BNO055, with the cached calibration if there is one.
+    public static ImuStartup begin(final BNO055IMU imu, final BNO055IMU.Parameters parameters) {
+        return new ImuStartup("BNO055", new Initializer() {
+            @Override
+            public boolean initialize() {
+                BNO055IMU.CalibrationData calibration = loadCalibration();
+                if (calibration != null) {
+                    parameters.calibrationData = calibration;
+                    parameters.calibrationDataFile = null; // Already loaded; don't have the SDK read the JSON again.
+                }
+                return imu.initialize(parameters);
+            }
+        });
+    }
+
+    // Completes when the IMU is ready, or completes exceptionally if initialization failed.
+    public CompletableFuture<Void> getReady() {
+        return ready;
+    }
+
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    public boolean hasFailed() {
+        return ready.isCompletedExceptionally();
+    }
+
+    /**
+     * Waits up to timeoutMillis for the IMU to be ready; for the rare place that can't go on without it.
+     *
+     * @return true if it is ready.
+     */
+    public boolean await(long timeoutMillis) {
+        try {
+            ready.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    // Time from begin() until the IMU was ready, or until now if it isn't ready yet.
+    public double getStartupMillis() {
+        long end = readyNanos != 0 ? readyNanos : System.nanoTime();
+        return (end - startNanos) / 1e6;
+    }
+
+    public String getStatus() {
+        if (hasFailed()) return "failed to initialize";
+        if (isReady()) return String.format("ready in %.0f ms", getStartupMillis());
+        return String.format("starting (%.0f ms)", getStartupMillis());
+    }
+
+    // The cached calibration, or the one from BNO055IMUCalibration.json (cached for next time), or null if there is neither.
+    // The cache is only used while it is newer than the JSON, so recalibrating with SensorBNO055IMUCalibration replaces it.
+    public static BNO055IMU.CalibrationData loadCalibration() {
+        File json = AppUtil.getInstance().getSettingsFile(CALIBRATION_JSON);
+        boolean jsonIsNewer = json.isFile() && json.lastModified() > CALIBRATION_FILE.lastModified();
+        if (CALIBRATION_FILE.isFile() && !jsonIsNewer) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(CALIBRATION_FILE))) {
+                BNO055IMU.CalibrationData data = new BNO055IMU.CalibrationData();
+                data.dxAccel = in.readShort();
+                data.dyAccel = in.readShort();
+                data.dzAccel = in.readShort();
+                data.dxMag = in.readShort();
+                data.dyMag = in.readShort();
+                data.dzMag = in.readShort();
+                data.dxGyro = in.readShort();
+                data.dyGyro = in.readShort();
+                data.dzGyro = in.readShort();
+                data.radiusAccel = in.readShort();
+                data.radiusMag = in.readShort();
+                return data;
+            } catch (IOException e) {
+                RobotLog.ee(TAG, e, "could not read %s", CALIBRATION_FILE);
+            }
+        }
+
+        if (!json.isFile()) return null;
+        BNO055IMU.CalibrationData data = BNO055IMU.CalibrationData.deserialize(ReadWriteFile.readFile(json));
+        saveCalibration(data);
+        return data;
+    }
+
+    // Saves the calibration for the next loadCalibration(), e.g. imu.readCalibrationData() once the IMU is calibrated.
+    public static void saveCalibration(BNO055IMU.CalibrationData data) {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(CALIBRATION_FILE))) {
+            out.writeShort(data.dxAccel);
+            out.writeShort(data.dyAccel);
+            out.writeShort(data.dzAccel);
+            out.writeShort(data.dxMag);
+            out.writeShort(data.dyMag);
+            out.writeShort(data.dzMag);
+            out.writeShort(data.dxGyro);
+            out.writeShort(data.dyGyro);
+            out.writeShort(data.dzGyro);
+            out.writeShort(data.radiusAccel);
+            out.writeShort(data.radiusMag);
+        } catch (IOException e) {
+            RobotLog.ee(TAG, e, "could not save calibration to %s", CALIBRATION_FILE);
+        }
+    }
+}
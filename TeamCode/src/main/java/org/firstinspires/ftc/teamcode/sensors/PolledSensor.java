@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+/**
+ * The latest sample of one sensor registered with a SensorPoller, plus how well it is being kept up to date.
+ *
+ * The sample is handed over with a SeqLock, as in AsyncHeadingProvider, so reading it never blocks or allocates,
+ * and a reader never sees half of one sample and half of the next.
+ */
+public class PolledSensor {
+    public static final int MAX_VALUES = 4;
+
+    final String name;
+    final SensorReader reader;
+    final long periodNanos;
+    final int priority;
+    long nextDueNanos; // Poller thread only.
+    final double[] scratch = new double[MAX_VALUES]; // Poller thread only: filled by the reader, then published.
+
+    // The published sample. Written only by the poller thread.
+    private final SeqLock lock = new SeqLock();
+    private volatile double value0, value1, value2, value3;
+    private volatile long timestampNanos;
+    private volatile long sampleNumber = 0;
+
+    private volatile double rateHz = 0; // Achieved, as a moving average.
+    private volatile double busNanos = 0; // Time per read, as a moving average.
+    volatile long errorCount = 0;
+
+    PolledSensor(String name, SensorReader reader, double rateHz, int priority) {
+        this.name = name;
+        this.reader = reader;
+        this.periodNanos = (long) (1e9 / rateHz);
+        this.priority = priority;
+    }
+
+    // Poller thread: publishes scratch as the new sample.
+    void publish(long start, long end) {
+        long timestamp = start + (end - start) / 2; // The sensor was read somewhere during the transaction.
+        long previous = timestampNanos;
+        long samples = sampleNumber + 1;
+
+        lock.beginWrite();
+        value0 = scratch[0];
+        value1 = scratch[1];
+        value2 = scratch[2];
+        value3 = scratch[3];
+        timestampNanos = timestamp;
+        sampleNumber = samples;
+        lock.endWrite();
+
+        if (samples > 1) {
+            double rate = 1e9 / (timestamp - previous);
+            rateHz = samples == 2 ? rate : 0.9 * rateHz + 0.1 * rate;
+        }
+        busNanos = samples == 1 ? end - start : 0.9 * busNanos + 0.1 * (end - start);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Value number index of the latest sample (see SensorReaders for what each index holds). 0 until the first sample.
+    public double get(int index) {
+        long before;
+        double value;
+        do {
+            before = lock.readBegin();
+            switch (index) {
+                case 0: value = value0; break;
+                case 1: value = value1; break;
+                case 2: value = value2; break;
+                default: value = value3; break;
+            }
+        } while (lock.readRetry(before));
+        return value;
+    }
+
+    /**
+     * Copies the latest sample's values into out (up to its length), all from the same sample.
+     *
+     * @return The sample's timestamp (System.nanoTime()), or 0 if there is no sample yet.
+     */
+    public long getSnapshot(double[] out) {
+        long before, timestamp, samples;
+        double v0, v1, v2, v3;
+        do {
+            before = lock.readBegin();
+            v0 = value0;
+            v1 = value1;
+            v2 = value2;
+            v3 = value3;
+            timestamp = timestampNanos;
+            samples = sampleNumber;
+        } while (lock.readRetry(before));
+
+        if (out.length > 0) out[0] = v0;
+        if (out.length > 1) out[1] = v1;
+        if (out.length > 2) out[2] = v2;
+        if (out.length > 3) out[3] = v3;
+        return samples == 0 ? 0 : timestamp;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    // How old the latest sample is, in seconds.
+    public double getAgeSeconds() {
+        return (System.nanoTime() - timestampNanos) / 1e9;
+    }
+
+    public long getSampleCount() {
+        return sampleNumber;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public double getTargetRateHz() {
+        return 1e9 / periodNanos;
+    }
+
+    // Samples per second actually achieved.
+    public double getRateHz() {
+        return rateHz;
+    }
+
+    // How long one read of the sensor takes, in ms.
+    public double getBusTimeMs() {
+        return busNanos / 1e6;
+    }
+}
@@ -0,0 +1,130 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+
+import java.util.ArrayList;
+
+/**
+ * Reads I2C sensors on a background thread, each at its own rate, so a slow sensor (a HuskyLens takes tens of ms
+ * per read) no longer sets the control loop's period. The control loop reads the latest sample from each
+ * PolledSensor, which never waits for the bus.
+ *
+ * Each sensor is read when its period has passed. When several are due at once, the highest priority one is read
+ * first, so if the bus can't keep up, the low priority sensors are the ones that fall behind their rate.
+ * getRateHz() and getBusTimeMs() on each sensor show how that is working out.
+ *
+ * One hub can only do one I2C transaction at a time, so one poller per hub is enough; sensors on different hubs can
+ * use separate pollers to be read in parallel. Register sensors, then start() once they are initialized,
+ * and stop() when the OpMode ends.
+ */
+public class SensorPoller {
+    private final String name;
+    private final ArrayList<PolledSensor> sensors = new ArrayList<>();
+    private PolledSensor[] polled = new PolledSensor[0]; // Copy of sensors for the poller thread, made at start().
+
+    private volatile boolean running = false;
+    private volatile long busyNanos = 0;
+    private volatile long startNanos = 0;
+    private Thread thread;
+
+    public SensorPoller(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a sensor. Must be called before start().
+     *
+     * @param rateHz   How often to read it.
+     * @param priority Higher is read first when several sensors are due at the same time.
+     */
+    public PolledSensor register(String sensorName, SensorReader reader, double rateHz, int priority) {
+        if (thread != null) throw new IllegalStateException("register sensors before start()");
+        PolledSensor sensor = new PolledSensor(sensorName, reader, rateHz, priority);
+        sensors.add(sensor);
+        return sensor;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        if (thread != null && thread.isAlive()) {
+            RobotLog.ww("SensorPoller", "%s not restarted: the last poller thread hasn't stopped yet", name);
+            return;
+        }
+        polled = sensors.toArray(new PolledSensor[0]);
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pollLoop();
+            }
+        }, "SensorPoller " + name);
+        thread.setDaemon(true); // Never keeps the app alive on its own.
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+        running = false;
+        if (SensorThreads.interruptAndJoin(thread)) thread = null; // Otherwise kept, so start() can tell it is still there.
+    }
+
+    private void pollLoop() {
+        long now = System.nanoTime();
+        startNanos = now;
+        for (PolledSensor sensor : polled) {
+            sensor.nextDueNanos = now;
+        }
+
+        while (running) {
+            now = System.nanoTime();
+            PolledSensor next = null;
+            long earliestDue = Long.MAX_VALUE;
+            for (PolledSensor sensor : polled) {
+                earliestDue = Math.min(earliestDue, sensor.nextDueNanos);
+                if (sensor.nextDueNanos > now) continue;
+                if (next == null || sensor.priority > next.priority
+                        || (sensor.priority == next.priority && sensor.nextDueNanos < next.nextDueNanos)) {
+                    next = sensor;
+                }
+            }
+            if (next == null) {
+                if (!SensorThreads.pause(earliestDue - now)) break;
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                next.reader.read(next.scratch);
+                long end = System.nanoTime();
+                next.publish(start, end);
+                busyNanos += end - start;
+            } catch (RuntimeException e) {
+                if (next.errorCount++ == 0) RobotLog.ee("SensorPoller", e, "%s read failed", next.name);
+                busyNanos += System.nanoTime() - start;
+            }
+            // Keeps to the rate without trying to catch up on missed reads all at once.
+            next.nextDueNanos = Math.max(next.nextDueNanos + next.periodNanos, start);
+        }
+    }
+
+    // Fraction of the time since start() the poller spent reading sensors. Near 1 means the bus is saturated.
+    public double getBusyFraction() {
+        long elapsed = System.nanoTime() - startNanos;
+        return startNanos == 0 || elapsed <= 0 ? 0 : (double) busyNanos / elapsed;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Adds a line per sensor: achieved vs. target rate, and bus time per read.
+    public void addTelemetry(TelemetryBoard board) {
+        for (final PolledSensor sensor : sensors) {
+            board.addLine(sensor.getName(), () -> String.format("%.0f/%.0f Hz, %.1f ms per read, %d errors",
+                    sensor.getRateHz(), sensor.getTargetRateHz(), sensor.getBusTimeMs(), sensor.getErrorCount()));
+        }
+        board.addLine(name + " bus busy", () -> String.format("%.0f%%", getBusyFraction() * 100));
+    }
+}
@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+/**
+ * Reads one sensor. Each call is a blocking read of the device (one or more I2C transactions), so these are meant
+ * to be called from a SensorPoller's thread, not from the control loop. See SensorReaders for the sensors we use.
+ */
+public interface SensorReader {
+    // Fills values[0..] (up to PolledSensor.MAX_VALUES) with a new sample.
+    void read(double[] values);
+}
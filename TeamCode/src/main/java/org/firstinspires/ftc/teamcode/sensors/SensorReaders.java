@@ -0,0 +1,79 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+import com.qualcomm.hardware.dfrobot.HuskyLens;
+import com.qualcomm.hardware.modernrobotics.ModernRoboticsI2cRangeSensor;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+import com.qualcomm.robotcore.hardware.OpticalDistanceSensor;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+// Adapts the sensors from the SDK samples to SensorReader. The index constants say where each value goes.
+public final class SensorReaders {
+    public static final int RED = 0, GREEN = 1, BLUE = 2, ALPHA = 3; // color()
+    public static final int ULTRASONIC = 0, OPTICAL = 1; // rangeSensor(), in cm
+    public static final int BLOCK_COUNT = 0, BLOCK_ID = 1, BLOCK_X = 2, BLOCK_Y = 3; // huskyLens(), first block only
+
+    private SensorReaders() {
+    }
+
+    // One value: the distance, in the given unit (REV 2m Distance Sensor, or the distance part of a REV Color Sensor V3).
+    public static SensorReader distance(final DistanceSensor sensor, final DistanceUnit unit) {
+        return new SensorReader() {
+            @Override
+            public void read(double[] values) {
+                values[0] = sensor.getDistance(unit);
+            }
+        };
+    }
+
+    // RED, GREEN, BLUE, ALPHA, normalized as in SensorColor.
+    public static SensorReader color(final NormalizedColorSensor sensor) {
+        return new SensorReader() {
+            @Override
+            public void read(double[] values) {
+                NormalizedRGBA colors = sensor.getNormalizedColors();
+                values[RED] = colors.red;
+                values[GREEN] = colors.green;
+                values[BLUE] = colors.blue;
+                values[ALPHA] = colors.alpha;
+            }
+        };
+    }
+
+    // ULTRASONIC and OPTICAL distances in cm (Modern Robotics Range Sensor).
+    public static SensorReader rangeSensor(final ModernRoboticsI2cRangeSensor sensor) {
+        return new SensorReader() {
+            @Override
+            public void read(double[] values) {
+                values[ULTRASONIC] = sensor.cmUltrasonic();
+                values[OPTICAL] = sensor.cmOptical();
+            }
+        };
+    }
+
+    // One value: the light detected, 0 to 1 (Modern Robotics Optical Distance Sensor).
+    public static SensorReader opticalDistance(final OpticalDistanceSensor sensor) {
+        return new SensorReader() {
+            @Override
+            public void read(double[] values) {
+                values[0] = sensor.getLightDetected();
+            }
+        };
+    }
+
+    // BLOCK_COUNT, then the ID and center of the first block (-1 if there is none). The algorithm must already be selected.
+    public static SensorReader huskyLens(final HuskyLens sensor) {
+        return new SensorReader() {
+            @Override
+            public void read(double[] values) {
+                HuskyLens.Block[] blocks = sensor.blocks();
+                values[BLOCK_COUNT] = blocks.length;
+                values[BLOCK_ID] = blocks.length > 0 ? blocks[0].id : -1;
+                values[BLOCK_X] = blocks.length > 0 ? blocks[0].x : -1;
+                values[BLOCK_Y] = blocks.length > 0 ? blocks[0].y : -1;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+/**
+ * What the background sensor threads (AsyncHeadingProvider, SensorPoller, ThresholdTrigger) share: sleeping
+ * between reads, and being stopped.
+ */
+final class SensorThreads {
+    private static final long JOIN_MILLIS = 100; // A read in progress has to finish first.
+
+    private SensorThreads() {
+    }
+
+    // Sleeps until the next read is due. Returns false if the thread was interrupted.
+    static boolean pause(long nanos) {
+        if (nanos <= 0) return !Thread.currentThread().isInterrupted();
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Interrupts the thread and waits a little for it to end; its loop must already have been told to stop.
+     *
+     * @return true if it has ended. If not (a read is stuck on the bus), keep the Thread and don't start another one
+     * until it has, or two threads would be reading the sensor.
+     */
+    static boolean interruptAndJoin(Thread thread) {
+        thread.interrupt();
+        try {
+            thread.join(JOIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !thread.isAlive();
+    }
+}
@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+/**
+ * The sequence counter behind a "seqlock": how a sampler thread hands a multi-field sample to readers without
+ * either side ever waiting on a lock. The fields themselves stay in the class that owns them and must be volatile.
+ *
+ * The single writer calls beginWrite(), sets the fields, then endWrite(); the counter is odd in between.
+ * A reader copies the fields in a loop:
+ *
+ *     long before;
+ *     do {
+ *         before = lock.readBegin();
+ *         ... copy the fields ...
+ *     } while (lock.readRetry(before));
+ *
+ * and so never sees half of one sample and half of the next.
+ */
+final class SeqLock {
+    private volatile long sequence = 0; // Odd while a sample is being written.
+
+    // Writer thread only.
+    void beginWrite() {
+        sequence++; // Now odd: readers will retry.
+    }
+
+    // Writer thread only.
+    void endWrite() {
+        sequence++; // Even again: the sample is complete.
+    }
+
+    long readBegin() {
+        return sequence;
+    }
+
+    // True if the fields read since readBegin() may be torn, and have to be read again.
+    boolean readRetry(long before) {
+        return (before & 1) != 0 || before != sequence;
+    }
+}
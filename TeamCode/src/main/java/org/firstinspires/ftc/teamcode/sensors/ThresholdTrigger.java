@@ -0,0 +1,183 @@
+package org.firstinspires.ftc.teamcode.sensors;
+
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.util.RobotLog;
+
+/**
+ * Watches one sensor value on its own thread, reading it back to back (as fast as the I2C bus allows), and runs an
+ * action the moment it crosses a threshold: e.g. stopping the drive motors when a color sensor reaches a line.
+ * Nothing on the way goes through the control loop or telemetry, so the reaction comes within one sensor read
+ * (a few ms) of the crossing, instead of a whole loop or telemetry cycle later.
+ *
+ * The trigger has hysteresis: it trips when the value crosses the trip level, and can only trip again after the value
+ * has gone back past the release level, so noise around the threshold doesn't make it fire over and over.
+ * If the trip level is above the release level it trips on a rising value (a white line on gray tiles);
+ * if below, on a falling one.
+ *
+ * The action runs on the trigger's thread, so it must be safe to call from there: setPower() on the motors from the
+ * hardware map is, but the caching wrappers from ControlLoopOpMode.getMotor() are not. Keep it short.
+ */
+public class ThresholdTrigger {
+    private final SensorReader reader;
+    private final int valueIndex;
+    private final double[] values = new double[PolledSensor.MAX_VALUES];
+    private volatile double tripLevel;
+    private volatile double releaseLevel;
+    private long periodNanos = 0; // 0: read back to back.
+    private volatile Runnable action;
+
+    private volatile boolean armed = false;
+    private volatile boolean released = true; // Whether the value has been past the release level since the last trip.
+    private volatile double value = Double.NaN;
+    private volatile long tripCount = 0;
+    private volatile long tripNanos = 0; // When the crossing read was taken; 0 if it hasn't tripped since arm().
+    private volatile double tripValue = Double.NaN;
+    private volatile long readCount = 0;
+    private volatile long errorCount = 0;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    // Watches values[valueIndex] from the reader.
+    public ThresholdTrigger(SensorReader reader, int valueIndex, double tripLevel, double releaseLevel) {
+        this.reader = reader;
+        this.valueIndex = valueIndex;
+        setLevels(tripLevel, releaseLevel);
+    }
+
+    // Watches a color sensor's brightness (normalized alpha), as RobotAutoDriveToLine_Linear does.
+    public static ThresholdTrigger brightness(NormalizedColorSensor sensor, double tripLevel, double releaseLevel) {
+        return new ThresholdTrigger(SensorReaders.color(sensor), SensorReaders.ALPHA, tripLevel, releaseLevel);
+    }
+
+    public ThresholdTrigger setLevels(double tripLevel, double releaseLevel) {
+        this.tripLevel = tripLevel;
+        this.releaseLevel = releaseLevel;
+        return this;
+    }
+
+    // Time between reads. By default the sensor is read back to back; set this if other devices share the I2C bus.
+    public ThresholdTrigger setPeriodMillis(double millis) {
+        periodNanos = (long) (millis * 1_000_000);
+        return this;
+    }
+
+    // What to do when the trigger trips (while armed). Runs on the trigger's thread.
+    public ThresholdTrigger setAction(Runnable action) {
+        this.action = action;
+        return this;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        if (thread != null && thread.isAlive()) {
+            RobotLog.ww("ThresholdTrigger", "not restarted: the last trigger thread hasn't stopped yet");
+            return;
+        }
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watchLoop();
+            }
+        }, "ThresholdTrigger");
+        thread.setDaemon(true); // Never keeps the app alive on its own.
+        thread.setPriority(Thread.MAX_PRIORITY); // Reacting late is what this is meant to avoid.
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+        running = false;
+        armed = false;
+        if (SensorThreads.interruptAndJoin(thread)) thread = null; // Otherwise kept, so start() can tell it is still there.
+    }
+
+    // Starts watching for a crossing, e.g. right before driving toward the line. Clears the last trip.
+    public void arm() {
+        tripNanos = 0;
+        tripValue = Double.NaN;
+        armed = true;
+    }
+
+    public void disarm() {
+        armed = false;
+    }
+
+    private void watchLoop() {
+        while (running) {
+            long start = System.nanoTime();
+            double current;
+            try {
+                reader.read(values);
+                current = values[valueIndex];
+            } catch (RuntimeException e) {
+                if (errorCount++ == 0) RobotLog.ee("ThresholdTrigger", e, "sensor read failed");
+                if (!SensorThreads.pause(Math.max(periodNanos, 10_000_000))) break;
+                continue;
+            }
+            long end = System.nanoTime();
+            value = current;
+            readCount++;
+
+            boolean rising = tripLevel > releaseLevel;
+            if (rising ? current >= tripLevel : current <= tripLevel) {
+                if (released && armed) trip(start + (end - start) / 2, current);
+            } else if (rising ? current <= releaseLevel : current >= releaseLevel) {
+                released = true;
+            }
+
+            if (!SensorThreads.pause(periodNanos - (System.nanoTime() - start))) break;
+        }
+    }
+
+    private void trip(long timestamp, double current) {
+        released = false;
+        Runnable action = this.action;
+        if (action != null) {
+            try {
+                action.run(); // First, before anything else.
+            } catch (RuntimeException e) {
+                RobotLog.ee("ThresholdTrigger", e, "trigger action failed");
+            }
+        }
+        tripValue = current;
+        tripNanos = timestamp;
+        tripCount++;
+    }
+
+    // True once the trigger has tripped since arm().
+    public boolean hasTripped() {
+        return tripNanos != 0;
+    }
+
+    // System.nanoTime() of the read that crossed the trip level; 0 if it hasn't tripped since arm().
+    public long getTripNanos() {
+        return tripNanos;
+    }
+
+    // The value that tripped it; NaN if it hasn't tripped since arm().
+    public double getTripValue() {
+        return tripValue;
+    }
+
+    // The latest value read.
+    public double getValue() {
+        return value;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+
+    public long getTripCount() {
+        return tripCount;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+}
@@ -0,0 +1,124 @@
+package org.firstinspires.ftc.teamcode.telemetry;
+
+import org.firstinspires.ftc.teamcode.input.Button;
+import org.firstinspires.ftc.teamcode.input.GamepadInput;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One control cycle of a match recording: what the OpMode saw (gamepads, encoders, heading) and what it did (motor powers).
+ * Mutable so the recorder can reuse one instance for every cycle.
+ *
+ * In a file it takes SIZE bytes, at these offsets (little endian, as the buffers are set up by MatchRecorder):
+ *
+ *     0  long      timestampNanos
+ *     8  int       cycle
+ *    12  int       flags
+ *    16  int       buttons1, buttons2 (bit n is Button.values()[n])
+ *    24  float[6]  axes1 (gamepad1 sticks and triggers, in AXIS order)
+ *    48  float[6]  axes2
+ *    72  int[6]    encoders (in MOTOR order)
+ *    96  float[6]  powers
+ *   120  float     headingRadians
+ *   124  float     yawRateRadians
+ */
+public class MatchRecord {
+    public static final int SIZE = 128;
+
+    // Motors, in the order of encoders[] and powers[].
+    public static final int FRONT_LEFT = 0;
+    public static final int BACK_LEFT = 1;
+    public static final int FRONT_RIGHT = 2;
+    public static final int BACK_RIGHT = 3;
+    public static final int LEFT_SLIDE = 4;
+    public static final int RIGHT_SLIDE = 5;
+    public static final int MOTORS = 6;
+    public static final String[] MOTOR_NAMES = {"front_left", "back_left", "front_right", "back_right", "left_slide", "right_slide"};
+
+    // Gamepad axes, in the order of axes1[] and axes2[].
+    public static final int LEFT_STICK_X = 0;
+    public static final int LEFT_STICK_Y = 1;
+    public static final int RIGHT_STICK_X = 2;
+    public static final int RIGHT_STICK_Y = 3;
+    public static final int LEFT_TRIGGER = 4;
+    public static final int RIGHT_TRIGGER = 5;
+    public static final int AXES = 6;
+    public static final String[] AXIS_NAMES = {"left_stick_x", "left_stick_y", "right_stick_x", "right_stick_y", "left_trigger", "right_trigger"};
+
+    private static final int AXES1_OFFSET = 24;
+    private static final int AXES2_OFFSET = 48;
+    private static final int ENCODERS_OFFSET = 72;
+    private static final int POWERS_OFFSET = 96;
+
+    public long timestampNanos; // System.nanoTime() when the record was written.
+    public int cycle; // Counts up by one per record, from 0.
+    public int flags; // Free for the OpMode to use, e.g. for which drive mode it is in.
+    public int buttons1; // GamepadInput.getButtonBits() of gamepad1.
+    public int buttons2;
+    public final float[] axes1 = new float[AXES];
+    public final float[] axes2 = new float[AXES];
+    public final int[] encoders = new int[MOTORS];
+    public final float[] powers = new float[MOTORS]; // As last passed to setPower().
+    public float headingRadians;
+    public float yawRateRadians;
+
+    // Copies both gamepads, as of the start of this cycle.
+    public void setGamepads(GamepadInput input1, GamepadInput input2) {
+        buttons1 = input1.getButtonBits();
+        buttons2 = input2.getButtonBits();
+        copyAxes(input1, axes1);
+        copyAxes(input2, axes2);
+    }
+
+    private static void copyAxes(GamepadInput input, float[] axes) {
+        axes[LEFT_STICK_X] = input.getLeftStickX();
+        axes[LEFT_STICK_Y] = input.getLeftStickY();
+        axes[RIGHT_STICK_X] = input.getRightStickX();
+        axes[RIGHT_STICK_Y] = input.getRightStickY();
+        axes[LEFT_TRIGGER] = input.getLeftTrigger();
+        axes[RIGHT_TRIGGER] = input.getRightTrigger();
+    }
+
+    // Whether the button is down in buttons1 or buttons2.
+    public static boolean isDown(int buttons, Button button) {
+        return (buttons & (1 << button.ordinal())) != 0;
+    }
+
+    // Stores this record at the given byte offset, without moving the buffer's position.
+    public void write(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, timestampNanos);
+        buffer.putInt(offset + 8, cycle);
+        buffer.putInt(offset + 12, flags);
+        buffer.putInt(offset + 16, buttons1);
+        buffer.putInt(offset + 20, buttons2);
+        for (int i = 0; i < AXES; i++) {
+            buffer.putFloat(offset + AXES1_OFFSET + i * 4, axes1[i]);
+            buffer.putFloat(offset + AXES2_OFFSET + i * 4, axes2[i]);
+        }
+        for (int i = 0; i < MOTORS; i++) {
+            buffer.putInt(offset + ENCODERS_OFFSET + i * 4, encoders[i]);
+            buffer.putFloat(offset + POWERS_OFFSET + i * 4, powers[i]);
+        }
+        buffer.putFloat(offset + 120, headingRadians);
+        buffer.putFloat(offset + 124, yawRateRadians);
+    }
+
+    // Loads this record from the given byte offset, without moving the buffer's position.
+    public void read(ByteBuffer buffer, int offset) {
+        timestampNanos = buffer.getLong(offset);
+        cycle = buffer.getInt(offset + 8);
+        flags = buffer.getInt(offset + 12);
+        buttons1 = buffer.getInt(offset + 16);
+        buttons2 = buffer.getInt(offset + 20);
+        for (int i = 0; i < AXES; i++) {
+            axes1[i] = buffer.getFloat(offset + AXES1_OFFSET + i * 4);
+            axes2[i] = buffer.getFloat(offset + AXES2_OFFSET + i * 4);
+        }
+        for (int i = 0; i < MOTORS; i++) {
+            encoders[i] = buffer.getInt(offset + ENCODERS_OFFSET + i * 4);
+            powers[i] = buffer.getFloat(offset + POWERS_OFFSET + i * 4);
+        }
+        headingRadians = buffer.getFloat(offset + 120);
+        yawRateRadians = buffer.getFloat(offset + 124);
+    }
+}
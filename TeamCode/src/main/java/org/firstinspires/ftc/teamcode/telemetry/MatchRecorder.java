@@ -0,0 +1,157 @@
+package org.firstinspires.ftc.teamcode.telemetry;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Records a MatchRecord every control cycle into a memory-mapped file, so a match can be looked at afterwards in much
+ * more detail than telemetry gives: every cycle's motor powers, encoder positions, heading and button presses.
+ *
+ * The file is a ring: a HEADER_SIZE byte header, then room for capacity records; once it is full, the oldest records
+ * are overwritten. Writing a record is a few puts into mapped memory, with no allocation and no system call; the
+ * kernel writes the pages out to flash in the background. Since the pages belong to the kernel, nothing is lost if
+ * the app crashes or is killed, only if the power is cut.
+ *
+ * Header (little endian): int MAGIC, int VERSION, int record size, int capacity, long records written (at COUNT_OFFSET),
+ * long System.currentTimeMillis() when recording started (at START_MILLIS_OFFSET).
+ *
+ * Fill in getRecord() during the cycle and call write() at the end of it; call close() when the OpMode stops.
+ * On a computer, sim.MatchLogDecoder (in TeamCode/src/test) turns the file into CSV, and sim.MatchReplay plays it back
+ * into an OpMode.
+ * If the file can't be created, the recorder logs it once and write() does nothing, like a disabled() one.
+ */
+public class MatchRecorder {
+    public static final int MAGIC = 0x4D524543; // "MREC"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int COUNT_OFFSET = 16;
+    public static final int START_MILLIS_OFFSET = 24;
+    public static final int DEFAULT_CAPACITY = 65536; // 8 MB; over 10 minutes at 100 cycles a second.
+    public static final int KEEP_RECORDINGS = 10; // forOpMode() deletes older ones, so the recordings stay under 80 MB.
+
+    private static final String TAG = "MatchRecorder";
+
+    private final MatchRecord record = new MatchRecord();
+    private final File file;
+    private final int capacity;
+    private RandomAccessFile randomAccessFile;
+    private MappedByteBuffer buffer; // null if the file could not be opened, or after close().
+    private long count = 0;
+
+    public MatchRecorder(File file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+        try {
+            File directory = file.getParentFile();
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("could not create " + directory);
+            }
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            long size = HEADER_SIZE + (long) capacity * MatchRecord.SIZE;
+            randomAccessFile.setLength(size);
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, MatchRecord.SIZE);
+            buffer.putInt(12, capacity);
+            buffer.putLong(COUNT_OFFSET, 0);
+            buffer.putLong(START_MILLIS_OFFSET, System.currentTimeMillis());
+        } catch (IOException e) {
+            RobotLog.ee(TAG, e, "could not open %s; this match will not be recorded", file);
+            buffer = null;
+            closeFile();
+        }
+    }
+
+    // A recorder without a file; see disabled().
+    private MatchRecorder() {
+        file = null;
+        capacity = 0;
+    }
+
+    // Records to /sdcard/FIRST/data/matches/<name>_<time>.bin, e.g. with the OpMode's class name.
+    // First deletes all but the newest KEEP_RECORDINGS - 1 recordings there, so the new one makes KEEP_RECORDINGS.
+    public static MatchRecorder forOpMode(String name) {
+        File directory = new File(AppUtil.ROBOT_DATA_DIR, "matches");
+        prune(directory, KEEP_RECORDINGS - 1);
+        return new MatchRecorder(new File(directory, name + "_" + System.currentTimeMillis() + ".bin"), DEFAULT_CAPACITY);
+    }
+
+    // A recorder that records nothing and touches no files, e.g. for running an OpMode in the simulator.
+    public static MatchRecorder disabled() {
+        return new MatchRecorder();
+    }
+
+    // Deletes the oldest .bin files in the directory until at most keep are left.
+    static void prune(File directory, int keep) {
+        File[] recordings = directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        if (recordings == null || recordings.length <= keep) return;
+        Arrays.sort(recordings, (a, b) -> Long.compare(b.lastModified(), a.lastModified())); // Newest first.
+        for (int i = Math.max(keep, 0); i < recordings.length; i++) {
+            if (!recordings[i].delete()) RobotLog.ww(TAG, "could not delete old recording %s", recordings[i]);
+        }
+    }
+
+    // The record for this cycle; fill it in, then call write(). Fields keep their values from the last cycle.
+    public MatchRecord getRecord() {
+        return record;
+    }
+
+    // Stores getRecord() in the next slot of the ring, stamped with the time and cycle number.
+    public void write() {
+        if (buffer == null) return;
+        record.timestampNanos = System.nanoTime();
+        record.cycle = (int) count;
+        record.write(buffer, HEADER_SIZE + (int) (count % capacity) * MatchRecord.SIZE);
+        count++;
+        buffer.putLong(COUNT_OFFSET, count); // After the record, so a reader never counts a half-written one.
+    }
+
+    // Flushes the file to flash and stops recording.
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        closeFile();
+        if (file != null) RobotLog.ii(TAG, "%d records in %s", count, file);
+    }
+
+    private void closeFile() {
+        if (randomAccessFile == null) return;
+        try {
+            randomAccessFile.close(); // The mapping stays valid until it is garbage collected; it is no longer used.
+        } catch (IOException e) {
+            RobotLog.ee(TAG, e, "could not close %s", file);
+        }
+        randomAccessFile = null;
+    }
+
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    // null for disabled().
+    public File getFile() {
+        return file;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Records written so far, including ones that have since been overwritten.
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+package org.firstinspires.ftc.teamcode.telemetry;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Sits in front of the SDK's Telemetry so the control loop doesn't pay for telemetry every cycle.
+ *
+ * Lines are added once (during init) as slots, and the loop just sets their values. update() can be called every
+ * cycle, but only does any work once per send interval (250 ms by default; the Driver Station can't usefully show
+ * more than about 4 updates a second). Even then, a packet is only sent if something changed as it would be
+ * shown on screen, and only the slots that changed are formatted again.
+ *
+ * All of a board's lines are sent together, so don't mix telemetry.addData() calls in the loop with a board.
+ */
+public class TelemetryBoard {
+    private final Telemetry telemetry;
+    private final ArrayList<TelemetrySlot> slots = new ArrayList<>();
+    private long sendIntervalNanos = 250_000_000;
+    private long lastSendNanos = 0;
+    private boolean sentOnce = false;
+
+    private long packetsSent = 0;
+    private long packetsSkipped = 0; // Send interval came up but nothing had changed.
+
+    public TelemetryBoard(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    public TelemetryBoard setSendIntervalMillis(long millis) {
+        sendIntervalNanos = millis * 1_000_000;
+        return this;
+    }
+
+    // A number shown with a fixed number of decimals. It only counts as changed when the shown digits change.
+    public TelemetrySlot addNumber(String caption, int decimals) {
+        return add(new TelemetrySlot(caption, Math.max(decimals, 0), null));
+    }
+
+    // Text, a boolean, an enum, or anything else shown with toString().
+    public TelemetrySlot addText(String caption) {
+        return add(new TelemetrySlot(caption, -1, null));
+    }
+
+    // A line that is worked out only when the board sends (e.g. loop timing percentiles).
+    public TelemetrySlot addLine(String caption, Supplier<String> supplier) {
+        return add(new TelemetrySlot(caption, -1, supplier));
+    }
+
+    private TelemetrySlot add(TelemetrySlot slot) {
+        slots.add(slot);
+        return slot;
+    }
+
+    /**
+     * Call once per cycle. Returns true if a packet was sent.
+     * Cheap (one clock read) except when the send interval has passed.
+     */
+    public boolean update() {
+        long now = System.nanoTime();
+        if (sentOnce && now - lastSendNanos < sendIntervalNanos) return false;
+        return send(now, false);
+    }
+
+    // Sends right away, even if nothing changed (e.g. at the end of init).
+    public boolean forceUpdate() {
+        return send(System.nanoTime(), true);
+    }
+
+    private boolean send(long now, boolean force) {
+        lastSendNanos = now;
+        boolean changed = force || !sentOnce;
+        for (int i = 0; i < slots.size(); i++) {
+            changed |= slots.get(i).refresh(); // No short-circuit: every slot has to be brought up to date.
+        }
+        if (!changed) {
+            packetsSkipped++;
+            return false; // The Driver Station keeps showing the last packet.
+        }
+
+        for (int i = 0; i < slots.size(); i++) {
+            TelemetrySlot slot = slots.get(i);
+            telemetry.addData(slot.caption, slot.getDisplay());
+        }
+        telemetry.update();
+        sentOnce = true;
+        packetsSent++;
+        return true;
+    }
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public long getPacketsSkipped() {
+        return packetsSkipped;
+    }
+}
@@ -0,0 +1,102 @@
+package org.firstinspires.ftc.teamcode.telemetry;
+
+import java.util.function.Supplier;
+
+/**
+ * One line on a TelemetryBoard. The control loop only stores the new value here (no boxing, no formatting);
+ * the text is made when the board sends, and only if the value changed as shown on screen.
+ */
+public class TelemetrySlot {
+    final String caption;
+    private final int decimals; // Digits after the point for numbers; -1 for text slots.
+    private final long scale;
+    private final Supplier<String> supplier; // For lines that are only worked out when the board sends.
+
+    private double number = Double.NaN;
+    private Object value; // For text slots: a String, enum, Boolean, etc.
+
+    private long shownUnits = Long.MIN_VALUE; // The number as last shown, in units of the last decimal.
+    private Object shownValue;
+    private String display = ""; // The text that is sent.
+
+    private final StringBuilder builder = new StringBuilder(24);
+
+    TelemetrySlot(String caption, int decimals, Supplier<String> supplier) {
+        this.caption = caption;
+        this.decimals = decimals;
+        this.supplier = supplier;
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) scale *= 10;
+        this.scale = scale;
+    }
+
+    public TelemetrySlot set(double number) {
+        this.number = number;
+        return this;
+    }
+
+    // For text slots. Booleans and enums are constants, so passing them allocates nothing.
+    public TelemetrySlot set(Object value) {
+        this.value = value;
+        return this;
+    }
+
+    public TelemetrySlot set(boolean value) {
+        return set((Object) value);
+    }
+
+    public String getCaption() {
+        return caption;
+    }
+
+    // Brings the display text up to date. Returns true if it changed.
+    boolean refresh() {
+        if (supplier != null) {
+            String text = supplier.get();
+            if (text.equals(display)) return false;
+            display = text;
+            return true;
+        }
+
+        if (decimals < 0) {
+            if (value == shownValue || (value != null && value.equals(shownValue))) return false;
+            shownValue = value;
+            display = String.valueOf(value);
+            return true;
+        }
+
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            if (shownUnits == Long.MAX_VALUE) return false;
+            shownUnits = Long.MAX_VALUE;
+            display = String.valueOf(number);
+            return true;
+        }
+        long units = Math.round(number * scale);
+        if (units == shownUnits) return false; // Same as what is on screen, even if the value moved a little.
+        shownUnits = units;
+        display = format(units);
+        return true;
+    }
+
+    String getDisplay() {
+        return display;
+    }
+
+    // Formats a fixed-point number without String.format().
+    private String format(long units) {
+        builder.setLength(0);
+        if (units < 0) {
+            builder.append('-');
+            units = -units;
+        }
+        builder.append(units / scale);
+        if (decimals > 0) {
+            builder.append('.');
+            long fraction = units % scale;
+            for (long digit = scale / 10; digit > 0; digit /= 10) {
+                builder.append((char) ('0' + fraction / digit % 10));
+            }
+        }
+        return builder.toString();
+    }
+}
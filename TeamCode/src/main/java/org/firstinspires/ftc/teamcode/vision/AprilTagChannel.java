@@ -0,0 +1,115 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.opencv.core.Mat;
+
+import java.util.List;
+
+/**
+ * Hands AprilTag detections from the vision thread to the OpMode without locks or per-poll allocation.
+ *
+ * Add the channel to the VisionPortal in place of the AprilTagProcessor it wraps. After the processor has run on
+ * a frame, its detections are copied into one of three DetectionFrames in a TripleBuffer: the vision thread fills
+ * the back one and poll() takes the newest. Neither side ever waits for the other, and the OpMode always gets the
+ * newest complete frame.
+ *
+ * Every frame carries its frame number and capture time, so control code can tell a new frame from the same one
+ * seen again (hasNewFrame()) and skip work on stale data.
+ */
+public class AprilTagChannel implements VisionProcessor {
+    // Called on the vision thread after every frame. Keep it short: the camera pipeline waits for it.
+    public interface Listener {
+        void onFrame(DetectionFrame frame);
+    }
+
+    private final AprilTagProcessor processor;
+    private final VisionProcessor stage; // What actually runs on each frame: the processor, or something wrapping it.
+    private final TripleBuffer<DetectionFrame> frames; // Filled by the vision thread, taken by the OpMode.
+    private long frameNumber = 0;
+    private volatile Listener listener;
+
+    public AprilTagChannel(AprilTagProcessor processor) {
+        this(processor, 16);
+    }
+
+    // maxTags: the most detections kept from one frame; extra ones are dropped.
+    public AprilTagChannel(AprilTagProcessor processor, int maxTags) {
+        this(processor, processor, maxTags);
+    }
+
+    // Runs the processor through an AdaptiveAprilTag.
+    public AprilTagChannel(AdaptiveAprilTag adaptive) {
+        this(adaptive.getProcessor(), adaptive, 16);
+    }
+
+    private AprilTagChannel(AprilTagProcessor processor, VisionProcessor stage, int maxTags) {
+        this.processor = processor;
+        this.stage = stage;
+        frames = new TripleBuffer<>(new DetectionFrame(maxTags), new DetectionFrame(maxTags), new DetectionFrame(maxTags));
+    }
+
+    public AprilTagProcessor getProcessor() {
+        return processor;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+        stage.init(width, height, calibration);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        Object result = stage.processFrame(frame, captureTimeNanos);
+        List<AprilTagDetection> detections = result instanceof List ? (List<AprilTagDetection>) result : processor.getFreshDetections();
+        publish(detections, captureTimeNanos);
+        return result;
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+        stage.onDrawFrame(canvas, onscreenWidth, onscreenHeight, scaleBmpPxToCanvasPx, scaleCanvasDensity, userContext);
+    }
+
+    // Vision thread: fills the back buffer and publishes it.
+    void publish(List<AprilTagDetection> detections, long captureTimeNanos) {
+        DetectionFrame frame = frames.getBack();
+        int count = detections == null ? 0 : Math.min(detections.size(), frame.detections.length);
+        for (int i = 0; i < count; i++) {
+            frame.detections[i] = detections.get(i);
+        }
+        for (int i = count; i < frame.count; i++) {
+            frame.detections[i] = null; // Don't keep old detections alive.
+        }
+        frame.count = count;
+        frame.frameNumber = ++frameNumber;
+        frame.captureNanos = captureTimeNanos;
+
+        frames.publish();
+
+        Listener listener = this.listener;
+        if (listener != null) listener.onFrame(frame);
+    }
+
+    // True if a frame has arrived since the last poll().
+    public boolean hasNewFrame() {
+        return frames.hasNew();
+    }
+
+    /**
+     * The newest frame. If no new frame has arrived since the last call, this is the same frame again
+     * (check getFrameNumber() or hasNewFrame()). Call from one thread only (the OpMode's).
+     */
+    public DetectionFrame poll() {
+        return frames.poll();
+    }
+}
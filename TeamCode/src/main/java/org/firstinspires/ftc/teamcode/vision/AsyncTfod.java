@@ -0,0 +1,159 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.tfod.Recognition;
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.tfod.TfodProcessor;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a TfodProcessor on its own thread, so model inference no longer holds up the camera pipeline
+ * (and the processors after it, like AprilTag).
+ *
+ * The vision thread only copies each frame into one of three Mats (a TripleBuffer, as in AprilTagChannel) and
+ * goes on. The worker always takes the newest frame; frames that arrive while it is busy replace each other and
+ * are counted as dropped, so results are never more than one inference behind the camera.
+ *
+ * Right after init the worker runs a few warm-up inferences on a blank frame. The first inferences after the
+ * model loads are several times slower than the rest, and this moves that cost into the init period instead of
+ * the start of autonomous. isReady() says when warm-up is done.
+ *
+ * Add it to the VisionPortal in place of the TfodProcessor, and call close() when the OpMode stops.
+ */
+public class AsyncTfod implements VisionProcessor {
+    private static class Frame {
+        final Mat mat = new Mat();
+        long captureNanos;
+    }
+
+    private static final String TAG = "AsyncTfod";
+
+    private final TfodProcessor tfod;
+    private final TripleBuffer<Frame> frames = new TripleBuffer<>(new Frame(), new Frame(), new Frame()); // Filled by the vision thread, taken by the worker.
+
+    private int warmUpRuns = 3;
+    private Thread worker;
+    private volatile boolean ready = false;
+    private volatile boolean closed = false;
+    private volatile Object drawContext; // From the newest inference, for onDrawFrame().
+    private volatile long resultCaptureNanos = 0; // Capture time of the frame the current recognitions came from.
+    private volatile long inferences = 0;
+    private volatile long dropped = 0;
+    private volatile long lastInferenceNanos = 0;
+
+    public AsyncTfod(TfodProcessor tfod) {
+        this.tfod = tfod;
+    }
+
+    public TfodProcessor getTfod() {
+        return tfod;
+    }
+
+    // Inferences run on a blank frame before real frames are taken. Set before the VisionPortal is built.
+    public AsyncTfod setWarmUpRuns(int runs) {
+        this.warmUpRuns = runs;
+        return this;
+    }
+
+    @Override
+    public void init(final int width, final int height, CameraCalibration calibration) {
+        tfod.init(width, height, calibration);
+        if (worker != null) return; // Already running; the camera was reopened.
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                warmUp(width, height);
+                inferenceLoop();
+            }
+        }, TAG);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        if (closed) return drawContext;
+        Frame back = frames.getBack();
+        frame.copyTo(back.mat); // Reuses the buffer's memory once it has the right size.
+        back.captureNanos = captureTimeNanos;
+        if (frames.publish()) dropped++; // The worker never saw the one it replaced.
+        LockSupport.unpark(worker);
+        return drawContext;
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+        if (userContext != null) {
+            tfod.onDrawFrame(canvas, onscreenWidth, onscreenHeight, scaleBmpPxToCanvasPx, scaleCanvasDensity, userContext);
+        }
+    }
+
+    private void warmUp(int width, int height) {
+        Mat blank = new Mat(height, width, CvType.CV_8UC4, new Scalar(128, 128, 128, 255));
+        for (int i = 0; i < warmUpRuns && !closed; i++) {
+            long start = System.nanoTime();
+            tfod.processFrame(blank, start);
+            RobotLog.ii(TAG, "warm-up inference %d: %.1f ms", i + 1, (System.nanoTime() - start) / 1e6);
+        }
+        blank.release();
+        ready = true;
+    }
+
+    private void inferenceLoop() {
+        while (!closed) {
+            if (!frames.hasNew()) {
+                LockSupport.parkNanos(50_000_000); // Woken early by the next frame.
+                continue;
+            }
+            Frame front = frames.poll();
+            long start = System.nanoTime();
+            Object context = tfod.processFrame(front.mat, front.captureNanos);
+            lastInferenceNanos = System.nanoTime() - start;
+            resultCaptureNanos = front.captureNanos;
+            drawContext = context;
+            inferences++;
+        }
+    }
+
+    // The recognitions from the newest inference, as TfodProcessor.getRecognitions() gives them.
+    public List<Recognition> getRecognitions() {
+        return tfod.getRecognitions();
+    }
+
+    // True once warm-up is done and real frames are being processed.
+    public boolean isReady() {
+        return ready;
+    }
+
+    // How old the frame behind getRecognitions() is, in seconds.
+    public double getResultAgeSeconds() {
+        return (System.nanoTime() - resultCaptureNanos) / 1e9;
+    }
+
+    public double getLastInferenceMs() {
+        return lastInferenceNanos / 1e6;
+    }
+
+    public long getInferenceCount() {
+        return inferences;
+    }
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    // Stops the worker. Call when the OpMode stops.
+    public void close() {
+        closed = true;
+        if (worker != null) LockSupport.unpark(worker);
+    }
+}
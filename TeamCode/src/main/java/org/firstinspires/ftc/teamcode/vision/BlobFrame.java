@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.robotcore.external.tfod.Recognition;
+
+import java.util.AbstractList;
+
+/**
+ * The blobs a ColorBlobProcessor found in one camera frame, biggest first.
+ * It is a read-only List<Recognition>, so it can be used wherever TfodProcessor.getRecognitions() was.
+ * The processor reuses these objects, so don't keep one past the next poll.
+ */
+public class BlobFrame extends AbstractList<Recognition> {
+    final ColorBlob[] blobs;
+    int count;
+    long frameNumber; // Counts up by one for every frame the processor has seen; 0 means no frame yet.
+    long captureNanos; // System.nanoTime() when the camera captured the frame.
+
+    BlobFrame(int capacity) {
+        blobs = new ColorBlob[capacity];
+        for (int i = 0; i < capacity; i++) {
+            blobs[i] = new ColorBlob();
+        }
+    }
+
+    @Override
+    public ColorBlob get(int index) {
+        if (index >= count) throw new IndexOutOfBoundsException("index " + index + ", count " + count);
+        return blobs[index];
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    // How old the frame is, in seconds.
+    public double getAgeSeconds() {
+        return (System.nanoTime() - captureNanos) / 1e9;
+    }
+}
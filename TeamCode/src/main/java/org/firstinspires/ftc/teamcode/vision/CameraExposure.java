@@ -0,0 +1,116 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.controls.ExposureControl;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.controls.GainControl;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.action.Action;
+import org.firstinspires.ftc.vision.VisionPortal;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manual exposure and gain for a webcam, and where ExposureTuner keeps the best settings it found for each webcam
+ * (by serial number, in /sdcard/FIRST/data/camera_exposure.properties).
+ *
+ * Unlike ConceptAprilTagOptimizeExposure this never sleeps: the camera applies changes on its own, and code that
+ * measures the result (ExposureTuner) ignores frames captured before the change had time to settle.
+ */
+public final class CameraExposure {
+    private static final String TAG = "CameraExposure";
+    private static final File FILE = new File(AppUtil.ROBOT_DATA_DIR, "camera_exposure.properties");
+
+    private CameraExposure() {
+    }
+
+    // Sets manual exposure and gain. Returns false (and does nothing) if the camera isn't streaming yet.
+    public static boolean apply(VisionPortal portal, int exposureMillis, int gain) {
+        if (portal.getCameraState() != VisionPortal.CameraState.STREAMING) return false;
+        ExposureControl exposureControl = portal.getCameraControl(ExposureControl.class);
+        if (exposureControl.getMode() != ExposureControl.Mode.Manual) {
+            exposureControl.setMode(ExposureControl.Mode.Manual);
+        }
+        exposureControl.setExposure(exposureMillis, TimeUnit.MILLISECONDS);
+        portal.getCameraControl(GainControl.class).setGain(gain);
+        return true;
+    }
+
+    // Gives exposure control back to the camera.
+    public static boolean applyAuto(VisionPortal portal) {
+        if (portal.getCameraState() != VisionPortal.CameraState.STREAMING) return false;
+        portal.getCameraControl(ExposureControl.class).setMode(ExposureControl.Mode.Auto);
+        return true;
+    }
+
+    // The saved {exposure in ms, gain} for this webcam, or null if it was never tuned.
+    public static int[] load(WebcamName webcam) {
+        Properties properties = read();
+        String key = key(webcam);
+        String exposure = properties.getProperty(key + ".exposureMs");
+        String gain = properties.getProperty(key + ".gain");
+        if (exposure == null || gain == null) return null;
+        try {
+            return new int[] {Integer.parseInt(exposure), Integer.parseInt(gain)};
+        } catch (NumberFormatException e) {
+            RobotLog.ww(TAG, "bad saved exposure for %s: %s / %s", key, exposure, gain);
+            return null;
+        }
+    }
+
+    public static void save(WebcamName webcam, int exposureMillis, int gain) {
+        Properties properties = read();
+        String key = key(webcam);
+        properties.setProperty(key + ".exposureMs", Integer.toString(exposureMillis));
+        properties.setProperty(key + ".gain", Integer.toString(gain));
+        try (Writer out = new FileWriter(FILE)) {
+            properties.store(out, "Written by ExposureTuner");
+        } catch (IOException e) {
+            RobotLog.ee(TAG, e, "could not save exposure to %s", FILE);
+        }
+    }
+
+    /**
+     * An action that waits for the camera to stream, then applies the settings saved for this webcam.
+     * Finishes right away (leaving auto exposure) if the webcam was never tuned.
+     */
+    public static Action applySaved(final VisionPortal portal, final WebcamName webcam) {
+        return new Action() {
+            private int[] saved;
+
+            @Override
+            public void start() {
+                saved = load(webcam);
+            }
+
+            @Override
+            public boolean update() {
+                return saved == null || apply(portal, saved[0], saved[1]);
+            }
+        };
+    }
+
+    private static String key(WebcamName webcam) {
+        return String.valueOf(webcam.getSerialNumber());
+    }
+
+    private static Properties read() {
+        Properties properties = new Properties();
+        if (FILE.exists()) {
+            try (Reader in = new FileReader(FILE)) {
+                properties.load(in);
+            } catch (IOException e) {
+                RobotLog.ee(TAG, e, "could not read %s", FILE);
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,87 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.tfod.Recognition;
+
+/**
+ * One blob of color found by a ColorBlobProcessor, in full-frame pixel coordinates.
+ * Implements Recognition, so code written for TfodProcessor's results works with it unchanged.
+ * The processor reuses these objects, so don't keep one past the next poll.
+ */
+public class ColorBlob implements Recognition {
+    String label;
+    int left, top, width, height; // Bounding box.
+    int area; // Pixels in the blob itself (not its bounding box).
+    double centerX, centerY; // Centroid of the blob's pixels.
+    int imageWidth, imageHeight;
+    double focalLength, principalPointX; // Pixels; for estimateAngleToObject().
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    // How much of its bounding box the blob fills (0 to 1). Solid game pieces score high; scattered noise scores low.
+    @Override
+    public float getConfidence() {
+        return width * height == 0 ? 0 : (float) area / (width * height);
+    }
+
+    @Override
+    public float getLeft() {
+        return left;
+    }
+
+    @Override
+    public float getRight() {
+        return left + width;
+    }
+
+    @Override
+    public float getTop() {
+        return top;
+    }
+
+    @Override
+    public float getBottom() {
+        return top + height;
+    }
+
+    @Override
+    public float getWidth() {
+        return width;
+    }
+
+    @Override
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    @Override
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    // Horizontal angle from the camera's axis to the blob's centroid; positive to the right, as with TFOD.
+    @Override
+    public double estimateAngleToObject(AngleUnit angleUnit) {
+        return angleUnit.fromRadians(Math.atan2(centerX - principalPointX, focalLength));
+    }
+
+    public int getArea() {
+        return area;
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+}
@@ -0,0 +1,228 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import org.firstinspires.ftc.robotcore.external.tfod.Recognition;
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.List;
+
+/**
+ * Finds solid-colored game pieces by thresholding the frame in HSV or YCrCb and grouping the matching pixels into
+ * blobs (connected components). For one-color targets this does the job of TfodProcessor in a few milliseconds
+ * instead of tens, and its results are Recognitions, so it can replace TFOD without changing the code that uses them.
+ *
+ * Every Mat and result object is made once and reused, so processing a frame allocates nothing on the Java heap.
+ * Results are handed to the OpMode through a TripleBuffer, as in AprilTagChannel.
+ *
+ * Ranges are in OpenCV units: HSV hue is 0-180, saturation and value 0-255; Y, Cr and Cb are 0-255.
+ * For red, whose hue wraps around 180, give a lower hue bigger than the upper one (e.g. 170 to 10).
+ */
+public class ColorBlobProcessor implements VisionProcessor {
+    public enum ColorSpace {
+        HSV,  // Best when the color is a distinct hue (red, blue).
+        YCRCB // Less sensitive to brightness; good for colors that are close in hue to the field (yellow, white).
+    }
+
+    private final String label;
+    private final ColorSpace colorSpace;
+    private volatile Scalar[] range; // {lower, upper}, or {lower, 180, 0, upper} when the hue wraps.
+
+    private int downscale = 2; // Frames are shrunk by this factor before thresholding; blobs are reported in full-frame pixels.
+    private int minArea = 200; // Full-frame pixels; smaller blobs are treated as noise.
+    private int openingSize = 3; // Pixels (of the shrunk frame) of speckle removed by a morphological opening; 0 turns it off.
+
+    private final Size smallSize = new Size();
+    private final Mat small = new Mat();
+    private final Mat rgb = new Mat();
+    private final Mat converted = new Mat();
+    private final Mat mask = new Mat();
+    private final Mat wrappedMask = new Mat();
+    private final Mat labels = new Mat();
+    private final Mat stats = new Mat();
+    private final Mat centroids = new Mat();
+    private Mat kernel;
+    private int[] statsBuffer = new int[64 * Imgproc.CC_STAT_MAX];
+    private double[] centroidBuffer = new double[64 * 2];
+
+    private final TripleBuffer<BlobFrame> frames; // Filled by the vision thread, taken by the OpMode.
+    private long frameNumber = 0;
+
+    private int width, height;
+    private double focalLength, principalPointX;
+
+    private Paint boxPaint; // Made on the first onDrawFrame(), so processing never touches android.graphics (VisionReplay runs it on a computer).
+
+    public ColorBlobProcessor(String label, ColorSpace colorSpace, Scalar lower, Scalar upper) {
+        this(label, colorSpace, lower, upper, 8);
+    }
+
+    // maxBlobs: the most blobs kept from one frame (the biggest ones).
+    public ColorBlobProcessor(String label, ColorSpace colorSpace, Scalar lower, Scalar upper, int maxBlobs) {
+        this.label = label;
+        this.colorSpace = colorSpace;
+        setRange(lower, upper);
+        frames = new TripleBuffer<>(new BlobFrame(maxBlobs), new BlobFrame(maxBlobs), new BlobFrame(maxBlobs));
+    }
+
+    // Can be changed while the camera is running, e.g. to switch between alliance colors.
+    public ColorBlobProcessor setRange(Scalar lower, Scalar upper) {
+        if (colorSpace == ColorSpace.HSV && lower.val[0] > upper.val[0]) {
+            range = new Scalar[] {
+                    lower, new Scalar(180, upper.val[1], upper.val[2]),
+                    new Scalar(0, lower.val[1], lower.val[2]), upper};
+        } else {
+            range = new Scalar[] {lower, upper};
+        }
+        return this;
+    }
+
+    // Set before the VisionPortal is built.
+    public ColorBlobProcessor setDownscale(int factor) {
+        this.downscale = Math.max(factor, 1);
+        return this;
+    }
+
+    public ColorBlobProcessor setMinArea(int pixels) {
+        this.minArea = pixels;
+        return this;
+    }
+
+    // Set before the VisionPortal is built.
+    public ColorBlobProcessor setOpeningSize(int pixels) {
+        this.openingSize = pixels;
+        return this;
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+        this.width = width;
+        this.height = height;
+        if (calibration != null && calibration.focalLengthX > 0) {
+            focalLength = calibration.focalLengthX;
+            principalPointX = calibration.principalPointX;
+        } else {
+            focalLength = width / (2 * Math.tan(Math.toRadians(70.0 / 2))); // About right for a Logitech C270/C920.
+            principalPointX = width / 2.0;
+        }
+        smallSize.width = width / downscale;
+        smallSize.height = height / downscale;
+        if (openingSize > 0) {
+            kernel = Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(openingSize, openingSize));
+        }
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        Mat source = frame;
+        if (downscale > 1) {
+            Imgproc.resize(frame, small, smallSize, 0, 0, Imgproc.INTER_AREA);
+            source = small;
+        }
+        Imgproc.cvtColor(source, rgb, Imgproc.COLOR_RGBA2RGB); // Frames are RGBA.
+        Imgproc.cvtColor(rgb, converted, colorSpace == ColorSpace.HSV ? Imgproc.COLOR_RGB2HSV : Imgproc.COLOR_RGB2YCrCb);
+
+        Scalar[] range = this.range;
+        Core.inRange(converted, range[0], range[1], mask);
+        if (range.length == 4) { // Hue wraps around: the two ends of the hue circle are thresholded separately.
+            Core.inRange(converted, range[2], range[3], wrappedMask);
+            Core.bitwise_or(mask, wrappedMask, mask);
+        }
+        if (kernel != null) {
+            Imgproc.morphologyEx(mask, mask, Imgproc.MORPH_OPEN, kernel);
+        }
+
+        int components = Imgproc.connectedComponentsWithStats(mask, labels, stats, centroids, 8, CvType.CV_32S);
+        if (components * Imgproc.CC_STAT_MAX > statsBuffer.length) { // Only when a frame has more components than any before.
+            statsBuffer = new int[components * 2 * Imgproc.CC_STAT_MAX];
+            centroidBuffer = new double[components * 2 * 2];
+        }
+        stats.get(0, 0, statsBuffer);
+        centroids.get(0, 0, centroidBuffer);
+
+        BlobFrame result = frames.getBack();
+        result.count = 0;
+        int minSmallArea = minArea / (downscale * downscale);
+        for (int i = 1; i < components; i++) { // Component 0 is the background.
+            int area = statsBuffer[i * Imgproc.CC_STAT_MAX + Imgproc.CC_STAT_AREA];
+            if (area < minSmallArea) continue;
+            addBiggest(result, i, area * downscale * downscale);
+        }
+        result.frameNumber = ++frameNumber;
+        result.captureNanos = captureTimeNanos;
+
+        frames.publish();
+        return result;
+    }
+
+    // Inserts component i into the frame, which is kept sorted biggest first; drops the smallest blob if it is full.
+    private void addBiggest(BlobFrame result, int i, int area) {
+        ColorBlob[] blobs = result.blobs;
+        int position = result.count;
+        while (position > 0 && blobs[position - 1].area < area) position--;
+        if (position == blobs.length) return;
+
+        int last = result.count < blobs.length ? result.count++ : blobs.length - 1;
+        ColorBlob blob = blobs[last]; // An unused blob, or the smallest one, which no longer fits.
+        System.arraycopy(blobs, position, blobs, position + 1, last - position);
+        blobs[position] = blob;
+
+        int stat = i * Imgproc.CC_STAT_MAX;
+        blob.label = label;
+        blob.left = statsBuffer[stat + Imgproc.CC_STAT_LEFT] * downscale;
+        blob.top = statsBuffer[stat + Imgproc.CC_STAT_TOP] * downscale;
+        blob.width = statsBuffer[stat + Imgproc.CC_STAT_WIDTH] * downscale;
+        blob.height = statsBuffer[stat + Imgproc.CC_STAT_HEIGHT] * downscale;
+        blob.area = area;
+        blob.centerX = (centroidBuffer[i * 2] + 0.5) * downscale;
+        blob.centerY = (centroidBuffer[i * 2 + 1] + 0.5) * downscale;
+        blob.imageWidth = width;
+        blob.imageHeight = height;
+        blob.focalLength = focalLength;
+        blob.principalPointX = principalPointX;
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+        if (!(userContext instanceof BlobFrame)) return;
+        BlobFrame frame = (BlobFrame) userContext;
+        if (boxPaint == null) {
+            boxPaint = new Paint();
+            boxPaint.setColor(Color.GREEN);
+            boxPaint.setStyle(Paint.Style.STROKE);
+        }
+        boxPaint.setStrokeWidth(4 * scaleCanvasDensity);
+        for (int i = 0; i < frame.count; i++) {
+            ColorBlob blob = frame.blobs[i];
+            canvas.drawRect(blob.getLeft() * scaleBmpPxToCanvasPx, blob.getTop() * scaleBmpPxToCanvasPx,
+                    blob.getRight() * scaleBmpPxToCanvasPx, blob.getBottom() * scaleBmpPxToCanvasPx, boxPaint);
+        }
+    }
+
+    // True if a frame has arrived since the last poll().
+    public boolean hasNewFrame() {
+        return frames.hasNew();
+    }
+
+    /**
+     * The blobs in the newest frame. If no new frame has arrived since the last call, this is the same frame again
+     * (check getFrameNumber() or hasNewFrame()). Call from one thread only (the OpMode's).
+     */
+    public BlobFrame poll() {
+        return frames.poll();
+    }
+
+    // Same as poll(), named like TfodProcessor.getRecognitions() so it can be swapped in.
+    public List<Recognition> getRecognitions() {
+        return poll();
+    }
+}
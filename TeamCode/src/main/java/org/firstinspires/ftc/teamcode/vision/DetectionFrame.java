@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+
+/**
+ * The AprilTag detections from one camera frame, as handed over by AprilTagChannel.
+ * The channel reuses these objects, so don't keep one past the next poll.
+ */
+public class DetectionFrame {
+    final AprilTagDetection[] detections;
+    int count;
+    long frameNumber; // Counts up by one for every frame the processor has seen; 0 means no frame yet.
+    long captureNanos; // System.nanoTime() when the camera captured the frame.
+
+    DetectionFrame(int capacity) {
+        detections = new AprilTagDetection[capacity];
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public AprilTagDetection get(int index) {
+        if (index >= count) throw new IndexOutOfBoundsException("index " + index + ", count " + count);
+        return detections[index];
+    }
+
+    // The detection of the given tag, or null if it isn't in this frame.
+    public AprilTagDetection find(int id) {
+        for (int i = 0; i < count; i++) {
+            if (detections[i].id == id) return detections[i];
+        }
+        return null;
+    }
+
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    // How old the frame is, in seconds.
+    public double getAgeSeconds() {
+        return (System.nanoTime() - captureNanos) / 1e9;
+    }
+}
@@ -0,0 +1,199 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.controls.ExposureControl;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.controls.GainControl;
+import org.firstinspires.ftc.teamcode.action.Action;
+import org.firstinspires.ftc.vision.VisionPortal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the lowest exposure that still detects AprilTags reliably, then the lowest gain that keeps it reliable,
+ * and saves both for this webcam (see CameraExposure). Lower exposure means less motion blur and a higher frame rate,
+ * so tags are found sooner while driving.
+ *
+ * Point the camera at a tag (at about the distance it matters from) and run this as an action.
+ * Each setting is tried for a number of frames, and kept if enough of them have the tags;
+ * both searches are binary searches, so tuning takes a few seconds. The loop never waits on the camera.
+ */
+public class ExposureTuner implements Action {
+    private enum Phase {
+        WAIT_FOR_CAMERA,
+        EXPOSURE,
+        GAIN,
+        DONE,
+        FAILED
+    }
+
+    private final VisionPortal portal;
+    private final AprilTagChannel channel;
+    private final WebcamName webcam;
+
+    private double targetDetectionRate = 0.9; // Fraction of frames that must have the tags.
+    private int framesPerTrial = 15;
+    private long settleNanos = 150_000_000; // Frames captured sooner than this after a change are ignored.
+    private int minTags = 1; // How many tags a frame must have to count as detected.
+
+    private Phase phase;
+    private int minExposure, maxExposure, minGain, maxGain;
+    private int low, high; // The binary search range for the current phase.
+    private int exposure, gain; // Being tried now.
+    private int bestExposure = -1, bestGain = -1;
+
+    private long changedAtNanos;
+    private long lastFrameNumber;
+    private int framesSeen, framesDetected;
+
+    public ExposureTuner(VisionPortal portal, AprilTagChannel channel, WebcamName webcam) {
+        this.portal = portal;
+        this.channel = channel;
+        this.webcam = webcam;
+    }
+
+    public ExposureTuner setTargetDetectionRate(double rate) {
+        this.targetDetectionRate = rate;
+        return this;
+    }
+
+    public ExposureTuner setFramesPerTrial(int frames) {
+        this.framesPerTrial = frames;
+        return this;
+    }
+
+    public ExposureTuner setSettleMillis(long millis) {
+        this.settleNanos = millis * 1_000_000;
+        return this;
+    }
+
+    public ExposureTuner setMinTags(int minTags) {
+        this.minTags = minTags;
+        return this;
+    }
+
+    @Override
+    public void start() {
+        phase = Phase.WAIT_FOR_CAMERA;
+        bestExposure = -1;
+        bestGain = -1;
+    }
+
+    @Override
+    public boolean update() {
+        switch (phase) {
+            case WAIT_FOR_CAMERA:
+                if (portal.getCameraState() != VisionPortal.CameraState.STREAMING) return false;
+                ExposureControl exposureControl = portal.getCameraControl(ExposureControl.class);
+                GainControl gainControl = portal.getCameraControl(GainControl.class);
+                minExposure = (int) exposureControl.getMinExposure(TimeUnit.MILLISECONDS) + 1;
+                maxExposure = (int) exposureControl.getMaxExposure(TimeUnit.MILLISECONDS);
+                minGain = gainControl.getMinGain();
+                maxGain = gainControl.getMaxGain();
+
+                // Exposure first, at full gain (the brightest image for any exposure).
+                phase = Phase.EXPOSURE;
+                low = minExposure;
+                high = maxExposure;
+                gain = maxGain;
+                tryNext();
+                return false;
+
+            case EXPOSURE:
+            case GAIN:
+                if (!measure()) return false;
+                boolean passed = framesDetected >= targetDetectionRate * framesSeen;
+                if (phase == Phase.EXPOSURE) {
+                    if (passed) {
+                        bestExposure = exposure;
+                        high = exposure - 1;
+                    } else {
+                        low = exposure + 1;
+                    }
+                    if (low > high) {
+                        if (bestExposure < 0) {
+                            phase = Phase.FAILED; // Not even the longest exposure worked: no tag in view?
+                            CameraExposure.applyAuto(portal);
+                            return true;
+                        }
+                        // Then the lowest gain that still works at that exposure (it works at full gain).
+                        phase = Phase.GAIN;
+                        exposure = bestExposure;
+                        bestGain = maxGain;
+                        low = minGain;
+                        high = maxGain - 1;
+                        if (low > high) return finish();
+                    }
+                } else {
+                    if (passed) {
+                        bestGain = gain;
+                        high = gain - 1;
+                    } else {
+                        low = gain + 1;
+                    }
+                    if (low > high) return finish();
+                }
+                tryNext();
+                return false;
+
+            default:
+                return true;
+        }
+    }
+
+    // Applies the middle of the search range and starts counting frames.
+    private void tryNext() {
+        int middle = low + (high - low) / 2;
+        if (phase == Phase.EXPOSURE) {
+            exposure = middle;
+        } else {
+            gain = middle;
+        }
+        CameraExposure.apply(portal, exposure, gain);
+        changedAtNanos = System.nanoTime();
+        framesSeen = 0;
+        framesDetected = 0;
+    }
+
+    // Counts new, settled frames. Returns true once enough have been seen.
+    private boolean measure() {
+        DetectionFrame frame = channel.poll();
+        if (frame.getFrameNumber() == lastFrameNumber) return false;
+        lastFrameNumber = frame.getFrameNumber();
+        if (frame.getCaptureNanos() - changedAtNanos < settleNanos) return false;
+        framesSeen++;
+        if (frame.getCount() >= minTags) framesDetected++;
+        return framesSeen >= framesPerTrial;
+    }
+
+    private boolean finish() {
+        phase = Phase.DONE;
+        CameraExposure.apply(portal, bestExposure, bestGain);
+        CameraExposure.save(webcam, bestExposure, bestGain);
+        return true;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        // Stopped early: keep the best found so far (exposure is searched at full gain).
+        if (interrupted && bestExposure >= 0) CameraExposure.apply(portal, bestExposure, bestGain >= 0 ? bestGain : maxGain);
+    }
+
+    public boolean isRunning() {
+        return phase == Phase.WAIT_FOR_CAMERA || phase == Phase.EXPOSURE || phase == Phase.GAIN;
+    }
+
+    public String getStatus() {
+        switch (phase == null ? Phase.DONE : phase) {
+            case WAIT_FOR_CAMERA:
+                return "waiting for camera";
+            case EXPOSURE:
+                return String.format("trying exposure %d ms (range %d-%d)", exposure, low, high);
+            case GAIN:
+                return String.format("exposure %d ms, trying gain %d (range %d-%d)", exposure, gain, low, high);
+            case FAILED:
+                return "no tags detected at any exposure";
+            default:
+                return bestExposure < 0 ? "not run" : String.format("exposure %d ms, gain %d (saved)", bestExposure, bestGain);
+        }
+    }
+}
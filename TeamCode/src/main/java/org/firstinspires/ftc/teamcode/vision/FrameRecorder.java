@@ -0,0 +1,208 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records camera frames as JPEGs without slowing down the vision thread. Add it to the VisionPortal like any processor.
+ *
+ * Frames (every decimation-th one) are copied into a ring of Mats that are allocated once. A low-priority
+ * background thread turns them into JPEGs and writes them to /sdcard/FIRST/data/recordings. If the writer falls
+ * behind, frames are dropped; the vision thread never waits for it.
+ *
+ *   CONTINUOUS - writes every recorded frame while setRecording(true).
+ *   ON_TRIGGER - keeps the last few seconds in the ring, and writes them out when saveLast() is called
+ *                (e.g. right after something went wrong in a match).
+ *
+ * Memory use is capacity times one frame (about 1.2 MB per 640x480 frame), so keep the capacity modest.
+ */
+public class FrameRecorder implements VisionProcessor {
+    public enum Mode {
+        CONTINUOUS,
+        ON_TRIGGER
+    }
+
+    private static final String TAG = "FrameRecorder";
+
+    // Slot states. The vision thread moves FREE/FILLED -> COPYING -> FILLED; the writer moves FILLED -> ENCODING -> FREE.
+    private static final int FREE = 0;
+    private static final int COPYING = 1;
+    private static final int FILLED = 2;
+    private static final int ENCODING = 3;
+    private static final int RELEASED = 4; // After close(): the Mat has been released and the slot is never used again.
+
+    private final Mode mode;
+    private final Mat[] frames;
+    private final long[] frameNumbers;
+    private final long[] captureNanos;
+    private final AtomicIntegerArray states;
+    private final File directory;
+
+    private int decimation = 3; // Records every 3rd frame.
+    private int next = 0; // Ring position. Only touched by the vision thread.
+    private long frameNumber = 0;
+    private volatile boolean recording;
+    private volatile long saveAfterNanos = Long.MAX_VALUE; // ON_TRIGGER: frames captured after this are to be written.
+    private volatile long saveBeforeNanos = Long.MIN_VALUE; // ... and before this.
+
+    private final Thread writer;
+    private volatile boolean closed = false;
+    private volatile long recorded = 0;
+    private volatile long written = 0;
+    private volatile long dropped = 0;
+
+    public FrameRecorder(Mode mode, int capacity) {
+        this.mode = mode;
+        frames = new Mat[capacity];
+        frameNumbers = new long[capacity];
+        captureNanos = new long[capacity];
+        states = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = new Mat();
+        }
+        recording = mode == Mode.ON_TRIGGER; // The ring is always filling in ON_TRIGGER mode.
+
+        directory = new File(AppUtil.ROBOT_DATA_DIR, "recordings/" + System.currentTimeMillis());
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, TAG);
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY); // Never competes with the vision or OpMode threads.
+        writer.start();
+    }
+
+    public FrameRecorder setDecimation(int decimation) {
+        this.decimation = Math.max(decimation, 1);
+        return this;
+    }
+
+    // CONTINUOUS mode: starts or stops writing frames.
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    // ON_TRIGGER mode: writes out the frames from the last given seconds that are still in the ring.
+    public void saveLast(double seconds) {
+        long now = System.nanoTime();
+        saveBeforeNanos = now;
+        saveAfterNanos = now - (long) (seconds * 1e9);
+        LockSupport.unpark(writer);
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        if (closed || !recording || frameNumber++ % decimation != 0) return null;
+
+        int slot = next;
+        int state = states.get(slot);
+        // A slot can be reused if it is free, or (ON_TRIGGER) if it only holds old history.
+        boolean reusable = state == FREE || (mode == Mode.ON_TRIGGER && state == FILLED);
+        if (!reusable || !states.compareAndSet(slot, state, COPYING)) {
+            dropped++; // The writer has this slot; skip the frame rather than wait.
+            return null;
+        }
+        frame.copyTo(frames[slot]); // Reuses the slot's memory once it has the right size.
+        frameNumbers[slot] = frameNumber;
+        captureNanos[slot] = captureTimeNanos;
+        states.set(slot, FILLED);
+        next = (slot + 1) % frames.length;
+        recorded++;
+
+        if (mode == Mode.CONTINUOUS) LockSupport.unpark(writer);
+        return null;
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+    }
+
+    private void writeLoop() {
+        Mat bgr = new Mat();
+        while (!closed) {
+            int slot = oldestToWrite();
+            if (slot < 0) {
+                LockSupport.parkNanos(50_000_000); // Nothing to do; woken early by new frames or saveLast().
+                continue;
+            }
+            if (!states.compareAndSet(slot, FILLED, ENCODING)) continue; // The vision thread took it back.
+
+            Imgproc.cvtColor(frames[slot], bgr, Imgproc.COLOR_RGBA2BGR); // Frames are RGBA; imwrite wants BGR.
+            File file = new File(directory, String.format("frame_%06d_%d.jpg", frameNumbers[slot], captureNanos[slot] / 1_000_000));
+            if (directory.isDirectory() || directory.mkdirs()) {
+                if (Imgcodecs.imwrite(file.getPath(), bgr)) written++;
+            } else {
+                RobotLog.ww(TAG, "could not create %s", directory);
+            }
+            states.set(slot, FREE);
+        }
+        bgr.release();
+        releaseFrames();
+    }
+
+    // Frees the ring's native memory once the writer is done. A slot the vision thread is copying into is waited for.
+    private void releaseFrames() {
+        for (int i = 0; i < frames.length; i++) {
+            while (true) {
+                int state = states.get(i);
+                if (state == COPYING) {
+                    Thread.yield(); // A copy takes a millisecond or two.
+                } else if (states.compareAndSet(i, state, RELEASED)) {
+                    break;
+                }
+            }
+            frames[i].release();
+        }
+    }
+
+    // The filled slot with the oldest frame that should be written, or -1.
+    private int oldestToWrite() {
+        int oldest = -1;
+        for (int i = 0; i < frames.length; i++) {
+            if (states.get(i) != FILLED) continue;
+            if (mode == Mode.ON_TRIGGER && (captureNanos[i] < saveAfterNanos || captureNanos[i] > saveBeforeNanos)) continue;
+            if (oldest < 0 || frameNumbers[i] < frameNumbers[oldest]) oldest = i;
+        }
+        return oldest;
+    }
+
+    // Stops the writer, which then releases the ring's Mats. Frames not yet written are lost.
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getRecordedCount() {
+        return recorded;
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
@@ -0,0 +1,169 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.teamcode.localization.CameraMount;
+import org.firstinspires.ftc.teamcode.localization.Pose2d;
+import org.firstinspires.ftc.teamcode.localization.PoseAverage;
+import org.firstinspires.ftc.teamcode.localization.TagPoseMath;
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+
+import java.util.ArrayList;
+
+/**
+ * Finds the robot's field pose from AprilTags seen by several cameras at once (e.g. one facing forward, one back),
+ * each with its own VisionPortal, and merges them into one timestamped pose.
+ *
+ * Running AprilTag on every frame of every camera would multiply the vision CPU use, so the cameras share a budget,
+ * measured in camera frames: a budget of 1.25 processes about as many frames as one camera delivers, plus a quarter.
+ * Cameras that have seen a tag recently get most of it; the others get enough to notice when a tag comes into view.
+ * With two cameras and one seeing tags, that is every frame of that camera and every 4th frame of the other.
+ *
+ * Add each camera with addCamera() and put what it returns on that camera's portal. Then call update() once per cycle.
+ * The AprilTagProcessors must use the default units (inches and degrees).
+ */
+public class MultiCameraLocalizer {
+    private static final double SEEING_WEIGHT = 4; // Share of the budget for a camera that sees tags, relative to one that doesn't.
+
+    private class Camera {
+        final String name;
+        final AprilTagChannel channel;
+        final CameraMount mount;
+        long lastFrameNumber = 0; // OpMode thread.
+        volatile long lastTagNanos = Long.MIN_VALUE; // When this camera last saw a tag in the layout; MIN_VALUE if never.
+        volatile double share; // Fraction of this camera's frames that are processed; for telemetry.
+        double credit = 1; // Vision thread: builds up by share every frame; a frame is processed when it reaches 1.
+
+        Camera(String name, AprilTagChannel channel, CameraMount mount) {
+            this.name = name;
+            this.channel = channel;
+            this.mount = mount;
+        }
+
+        // Vision thread of this camera: called once per frame by its ScheduledProcessor.
+        boolean shouldRun() {
+            share = shareOf(this, System.nanoTime());
+            credit += share;
+            if (credit < 1) return false;
+            credit -= 1;
+            return true;
+        }
+    }
+
+    private final TagLayout layout;
+    private final ArrayList<Camera> cameras = new ArrayList<>();
+    private double budgetFrames = 1.25;
+    private long seeingTimeoutNanos = 500_000_000; // A camera counts as seeing tags for this long after its last sighting.
+
+    private final Pose2d tagPose = new Pose2d(); // Robot pose from one tag.
+    private final PoseAverage average = new PoseAverage();
+    private final Pose2d pose = new Pose2d();
+    private long poseCaptureNanos = 0;
+    private int poseTagCount = 0;
+    private long poseCount = 0;
+
+    public MultiCameraLocalizer(TagLayout layout) {
+        this.layout = layout;
+    }
+
+    // In camera frames per frame time; 1 is the cost of one camera processing every frame. Set before the portals are built.
+    public MultiCameraLocalizer setBudget(double frames) {
+        this.budgetFrames = frames;
+        return this;
+    }
+
+    public MultiCameraLocalizer setSeeingTimeoutMillis(long millis) {
+        this.seeingTimeoutNanos = millis * 1_000_000;
+        return this;
+    }
+
+    /**
+     * Adds a camera. Add the returned processor to that camera's VisionPortal, in place of the channel.
+     *
+     * @param scheduler The VisionScheduler for that camera's portal; it runs the channel on the frames the budget allows.
+     */
+    public ScheduledProcessor addCamera(String name, VisionScheduler scheduler, AprilTagChannel channel, CameraMount mount) {
+        final Camera camera = new Camera(name, channel, mount);
+        cameras.add(camera);
+        return scheduler.whileNeeded(name + " AprilTag", channel, camera::shouldRun);
+    }
+
+    // Any thread: the fraction of its frames the camera gets right now.
+    private double shareOf(Camera camera, long now) {
+        double total = 0;
+        for (int i = 0; i < cameras.size(); i++) {
+            total += weightOf(cameras.get(i), now);
+        }
+        return Math.min(budgetFrames * weightOf(camera, now) / total, 1);
+    }
+
+    private double weightOf(Camera camera, long now) {
+        long lastTag = camera.lastTagNanos;
+        return lastTag != Long.MIN_VALUE && now - lastTag < seeingTimeoutNanos ? SEEING_WEIGHT : 1;
+    }
+
+    /**
+     * Call once per cycle. Takes the newest frame from each camera, and if any camera has a new frame with tags
+     * in the layout, updates the pose from all of them (each tag weighted by how close it is) and returns true.
+     */
+    public boolean update() {
+        average.reset();
+        long newestCapture = Long.MIN_VALUE;
+        for (int c = 0; c < cameras.size(); c++) {
+            Camera camera = cameras.get(c);
+            DetectionFrame frame = camera.channel.poll();
+            if (frame.getFrameNumber() == camera.lastFrameNumber) continue; // Nothing new from this camera.
+            camera.lastFrameNumber = frame.getFrameNumber();
+
+            boolean sawTag = false;
+            for (int i = 0; i < frame.getCount(); i++) {
+                AprilTagDetection detection = frame.get(i);
+                Pose2d tag = layout.find(detection.id);
+                if (tag == null || detection.ftcPose == null) continue;
+                TagPoseMath.robotPose(tag, camera.mount, detection.ftcPose.y, detection.ftcPose.x, Math.toRadians(detection.ftcPose.yaw), tagPose);
+                double range = Math.max(detection.ftcPose.range, 6);
+                average.add(tagPose, 1 / (range * range)); // Pose error grows with distance, so near tags count for more.
+                sawTag = true;
+            }
+            if (sawTag) {
+                camera.lastTagNanos = frame.getCaptureNanos();
+                newestCapture = Math.max(newestCapture, frame.getCaptureNanos());
+            }
+        }
+
+        if (!average.get(pose)) return false;
+        poseCaptureNanos = newestCapture;
+        poseTagCount = average.getCount();
+        poseCount++;
+        return true;
+    }
+
+    // The newest pose from the tags. Reused; copy it if you need to keep it.
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    // System.nanoTime() when the newest frame behind getPose() was captured; use it to match the pose with odometry.
+    public long getPoseCaptureNanos() {
+        return poseCaptureNanos;
+    }
+
+    public double getPoseAgeSeconds() {
+        return (System.nanoTime() - poseCaptureNanos) / 1e9;
+    }
+
+    public int getPoseTagCount() {
+        return poseTagCount;
+    }
+
+    public long getPoseCount() {
+        return poseCount;
+    }
+
+    // Adds a line per camera: the share of its frames being processed, and whether it is seeing tags.
+    public void addTelemetry(TelemetryBoard board) {
+        for (final Camera camera : cameras) {
+            board.addLine(camera.name, () -> String.format("processing %.0f%% of frames, %s", camera.share * 100,
+                    weightOf(camera, System.nanoTime()) > 1 ? "sees tags" : "searching"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.teamcode.control.LatencyHistogram;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.opencv.core.Mat;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A VisionProcessor that only runs the processor it wraps on the frames its VisionScheduler policy allows.
+ * Made by VisionScheduler; add it to the VisionPortal in place of the processor it wraps.
+ * On a skipped frame the last result is passed on for drawing, so the preview overlay doesn't flicker.
+ */
+public class ScheduledProcessor implements VisionProcessor {
+    enum Policy {
+        EVERY_N_FRAMES, // Runs on every Nth frame.
+        WHILE_NEEDED,   // Runs only while a condition says the result is needed.
+        WITHIN_BUDGET   // Runs if its usual cost fits in what is left of the frame's budget.
+    }
+
+    private final VisionScheduler scheduler;
+    private final String name;
+    private final VisionProcessor processor;
+    private final Policy policy;
+    private final int everyN; // For EVERY_N_FRAMES.
+    private final BooleanSupplier needed; // For WHILE_NEEDED.
+    private final int maxSkippedFrames; // For WITHIN_BUDGET: runs anyway after this many skipped frames, so it is never starved.
+
+    private final LatencyHistogram cost;
+    private double averageCostNanos = 0; // Moving average, used to predict whether the next run fits in the budget.
+    private long framesSeen = 0;
+    private int skippedInARow = 0;
+    private Object lastResult;
+
+    private volatile long runs = 0;
+    private volatile long skips = 0;
+
+    ScheduledProcessor(VisionScheduler scheduler, String name, VisionProcessor processor, Policy policy,
+                       int everyN, BooleanSupplier needed, int maxSkippedFrames) {
+        this.scheduler = scheduler;
+        this.name = name;
+        this.processor = processor;
+        this.policy = policy;
+        this.everyN = Math.max(everyN, 1);
+        this.needed = needed;
+        this.maxSkippedFrames = maxSkippedFrames;
+        this.cost = new LatencyHistogram(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public VisionProcessor getProcessor() {
+        return processor;
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+        processor.init(width, height, calibration);
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        double budgetLeft = scheduler.startProcessor(captureTimeNanos);
+        framesSeen++;
+        if (!shouldRun(budgetLeft)) {
+            skips++;
+            skippedInARow++;
+            return lastResult;
+        }
+
+        long start = System.nanoTime();
+        lastResult = processor.processFrame(frame, captureTimeNanos);
+        long elapsed = System.nanoTime() - start;
+
+        scheduler.spend(elapsed);
+        cost.record(elapsed);
+        averageCostNanos = runs == 0 ? elapsed : 0.8 * averageCostNanos + 0.2 * elapsed;
+        runs++;
+        skippedInARow = 0;
+        return lastResult;
+    }
+
+    private boolean shouldRun(double budgetLeftNanos) {
+        switch (policy) {
+            case EVERY_N_FRAMES:
+                return (framesSeen - 1) % everyN == 0;
+            case WHILE_NEEDED:
+                return needed.getAsBoolean();
+            case WITHIN_BUDGET:
+            default:
+                return averageCostNanos <= budgetLeftNanos || skippedInARow >= maxSkippedFrames;
+        }
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+        if (userContext != null) {
+            processor.onDrawFrame(canvas, onscreenWidth, onscreenHeight, scaleBmpPxToCanvasPx, scaleCanvasDensity, userContext);
+        }
+    }
+
+    // Time per run of the wrapped processor. Updated on the vision thread; read it for telemetry only.
+    public LatencyHistogram getCostHistogram() {
+        return cost;
+    }
+
+    public long getRunCount() {
+        return runs;
+    }
+
+    public long getSkipCount() {
+        return skips;
+    }
+
+    // Fraction of frames the processor actually ran on.
+    public double getRunFraction() {
+        long total = runs + skips;
+        return total == 0 ? 0 : (double) runs / total;
+    }
+}
@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.teamcode.localization.Pose2d;
+import org.firstinspires.ftc.vision.apriltag.AprilTagGameDatabase;
+import org.firstinspires.ftc.vision.apriltag.AprilTagLibrary;
+import org.firstinspires.ftc.vision.apriltag.AprilTagMetadata;
+
+/**
+ * Where the AprilTags are on the field, in 2D: each tag's center (inches, FTC field coordinates) and the
+ * direction its face points. Used by MultiCameraLocalizer to turn tag sightings into robot poses.
+ */
+public class TagLayout {
+    private int[] ids = new int[0];
+    private Pose2d[] poses = new Pose2d[0];
+
+    // The CENTERSTAGE field: backdrop tags 1-6 face the audience, and wall tags 7-10 face away from it.
+    public static TagLayout centerStage() {
+        AprilTagLibrary library = AprilTagGameDatabase.getCenterStageTagLibrary();
+        TagLayout layout = new TagLayout();
+        for (int id = 1; id <= 6; id++) {
+            layout.add(library, id, 180);
+        }
+        for (int id = 7; id <= 10; id++) {
+            layout.add(library, id, 0);
+        }
+        return layout;
+    }
+
+    public TagLayout add(int id, double x, double y, double facingDegrees) {
+        int count = ids.length;
+        int[] newIds = new int[count + 1];
+        Pose2d[] newPoses = new Pose2d[count + 1];
+        System.arraycopy(ids, 0, newIds, 0, count);
+        System.arraycopy(poses, 0, newPoses, 0, count);
+        newIds[count] = id;
+        newPoses[count] = new Pose2d(x, y, Math.toRadians(facingDegrees));
+        ids = newIds;
+        poses = newPoses;
+        return this;
+    }
+
+    // Takes the tag's position from a tag library. Libraries don't give a usable facing direction in 2D, so that is passed in.
+    public TagLayout add(AprilTagLibrary library, int id, double facingDegrees) {
+        AprilTagMetadata tag = library.lookupTag(id);
+        if (tag == null || tag.fieldPosition == null) {
+            throw new IllegalArgumentException("tag " + id + " has no field position in the library");
+        }
+        return add(id, tag.distanceUnit.toInches(tag.fieldPosition.get(0)), tag.distanceUnit.toInches(tag.fieldPosition.get(1)), facingDegrees);
+    }
+
+    // The tag's field pose, or null if it isn't in the layout.
+    public Pose2d find(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) return poses[i];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the newest of a stream of reusable objects from one thread to another without locks or allocation.
+ *
+ * There are three buffers. The producer fills getBack() and calls publish(), which swaps it into the middle;
+ * the consumer calls poll(), which swaps the middle to the front if it holds something newer. Neither side ever
+ * waits for the other, and the consumer always gets the newest complete buffer. A buffer the consumer never took
+ * is simply overwritten by the next one.
+ *
+ * One thread produces and one thread consumes; each side's methods must only be called from its own thread.
+ */
+public class TripleBuffer<T> {
+    private static final int NEW = 4; // Set in the middle index when it holds a buffer the consumer hasn't taken.
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1); // Index of the middle buffer, plus NEW.
+    private int back = 0; // Only touched by the producer.
+    private int front = 2; // Only touched by the consumer.
+
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[] {first, second, third};
+    }
+
+    // Producer: the buffer to fill next.
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    // Producer: makes the back buffer the newest one. Returns true if the one it replaces was never taken.
+    public boolean publish() {
+        int previous = middle.getAndSet(back | NEW);
+        back = previous & ~NEW;
+        return (previous & NEW) != 0;
+    }
+
+    // Either side: true if something has been published since the consumer last took a buffer.
+    public boolean hasNew() {
+        return (middle.get() & NEW) != 0;
+    }
+
+    // Consumer: the newest buffer. If nothing new was published since the last call, this is the same one again.
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (hasNew()) {
+            front = middle.getAndSet(front) & ~NEW;
+        }
+        return (T) buffers[front];
+    }
+}
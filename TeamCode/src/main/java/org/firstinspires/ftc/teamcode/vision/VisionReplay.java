@@ -0,0 +1,218 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.teamcode.control.LatencyHistogram;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Feeds a folder of recorded frames (from FrameRecorder or UtilityCameraFrameCapture) through VisionProcessors,
+ * at several resolutions and settings, and reports for each: per-frame latency percentiles, detections per frame,
+ * and bytes allocated per frame. That gives repeatable numbers for tuning vision settings without a live camera.
+ * Frames are replayed in file name order.
+ *
+ * VisionReplayOpMode runs every configuration on the Control Hub, on frames FrameRecorder saved there; those are
+ * the numbers to tune by. VisionReplayTest runs them on a computer with OpenCV's desktop build
+ * (./gradlew :TeamCode:test -PreplayFrames=<folder>), but only for our own processors (ColorBlobProcessor): the SDK's
+ * AprilTagProcessor draws with android.graphics when it is initialized, and its native library is only built for the
+ * robot. Configurations that can't run are listed as unavailable instead of stopping the whole run. Allocation can
+ * only be measured on a computer; Android has no per-thread allocation counter.
+ */
+public class VisionReplay {
+    /**
+     * One processor setup to measure.
+     */
+    public abstract static class Configuration {
+        final String name;
+        final int width, height;
+
+        protected Configuration(String name, int width, int height) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Called once per run, so every run starts from a fresh processor.
+        protected abstract VisionProcessor createProcessor();
+
+        // How many things the processor found, from what processFrame() returned.
+        protected int countDetections(Object result) {
+            return result instanceof List ? ((List<?>) result).size() : 0;
+        }
+    }
+
+    /**
+     * What one configuration did over all the frames.
+     */
+    public static class Result {
+        public String name;
+        public int frames;
+        public LatencyHistogram latency;
+        public long detections;
+        public long allocatedBytes = -1; // -1 if this JVM can't measure allocation.
+
+        // The numbers without the name, e.g. for a telemetry line captioned with it.
+        public String getSummary() {
+            if (frames == 0) return "no frames";
+            double[] percentiles = new double[3];
+            latency.getPercentilesMs(new double[] {50, 95, 99}, percentiles);
+            return String.format("%5d frames  p50 %6.1f  p95 %6.1f  p99 %6.1f  max %6.1f ms  %5.2f detections/frame  %s",
+                    frames, percentiles[0], percentiles[1], percentiles[2], latency.getMaxMs(),
+                    (double) detections / frames,
+                    allocatedBytes < 0 ? "allocation n/a" : String.format("%d bytes/frame", allocatedBytes / frames));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-36s %s", name, getSummary());
+        }
+    }
+
+    private static final int WARMUP_FRAMES = 10; // Run first and not counted, so JIT compilation doesn't skew the results.
+
+    // Reads every .png/.jpg in the folder, as RGBA (what VisionPortal hands to processors).
+    public static List<Mat> loadFrames(File folder) {
+        return loadFrames(folder, Integer.MAX_VALUE);
+    }
+
+    // The first maxFrames frames only; on the robot, each 640x480 frame takes over a megabyte.
+    public static List<Mat> loadFrames(File folder, int maxFrames) {
+        File[] files = folder.listFiles((dir, name) -> {
+            String lower = name.toLowerCase();
+            return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+        });
+        List<Mat> frames = new ArrayList<>();
+        if (files == null) return frames;
+        Arrays.sort(files);
+        for (File file : files) {
+            if (frames.size() == maxFrames) break;
+            Mat bgr = Imgcodecs.imread(file.getPath());
+            if (bgr.empty()) continue;
+            Mat rgba = new Mat();
+            Imgproc.cvtColor(bgr, rgba, Imgproc.COLOR_BGR2RGBA);
+            bgr.release();
+            frames.add(rgba);
+        }
+        return frames;
+    }
+
+    // Stops early, with the frames measured so far, if the thread is interrupted (e.g. by the OpMode stopping).
+    public static Result run(Configuration configuration, List<Mat> frames) {
+        // Scale every frame to the configuration's resolution up front, so resizing isn't timed.
+        List<Mat> scaled = new ArrayList<>();
+        Size size = new Size(configuration.width, configuration.height);
+        for (Mat frame : frames) {
+            Mat resized = new Mat();
+            Imgproc.resize(frame, resized, size);
+            scaled.add(resized);
+        }
+
+        VisionProcessor processor = configuration.createProcessor();
+        processor.init(configuration.width, configuration.height, null);
+
+        long time = 0;
+        for (int i = 0; i < WARMUP_FRAMES && !scaled.isEmpty(); i++) {
+            processor.processFrame(scaled.get(i % scaled.size()), time += 33_000_000);
+        }
+
+        Result result = new Result();
+        result.name = configuration.name;
+        result.latency = new LatencyHistogram(configuration.name);
+        long allocatedBefore = allocatedBytes();
+        for (Mat frame : scaled) {
+            if (Thread.currentThread().isInterrupted()) break;
+            long start = System.nanoTime();
+            Object output = processor.processFrame(frame, time += 33_000_000);
+            result.latency.record(System.nanoTime() - start);
+            result.detections += configuration.countDetections(output);
+            result.frames++;
+        }
+        long allocatedAfter = allocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) result.allocatedBytes = allocatedAfter - allocatedBefore;
+
+        for (Mat frame : scaled) {
+            frame.release();
+        }
+        return result;
+    }
+
+    // Bytes allocated so far by this thread, or -1 if the JVM can't tell (Android can't).
+    // Looked up by reflection because java.lang.management isn't part of Android, and this class is built with TeamCode.
+    private static long allocatedBytes() {
+        try {
+            Object threads = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            return (Long) method.invoke(threads, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // AprilTag with fixed decimation. Lens intrinsics are those of a Logitech C920, scaled to the resolution
+    // (a replay has no camera to look the calibration up from).
+    public static Configuration aprilTag(final int width, final int height, final float decimation) {
+        return new Configuration(String.format("AprilTag %dx%d decimation %.0f", width, height, decimation), width, height) {
+            @Override
+            protected VisionProcessor createProcessor() {
+                AprilTagProcessor processor = buildAprilTag(width, height);
+                processor.setDecimation(decimation);
+                return processor;
+            }
+        };
+    }
+
+    public static Configuration adaptiveAprilTag(final int width, final int height) {
+        return new Configuration(String.format("AdaptiveAprilTag %dx%d", width, height), width, height) {
+            @Override
+            protected VisionProcessor createProcessor() {
+                return new AdaptiveAprilTag(buildAprilTag(width, height));
+            }
+        };
+    }
+
+    // Red blobs, with the same range as VisionTestOpMode.
+    public static Configuration redBlobs(final int width, final int height, final int downscale) {
+        return new Configuration(String.format("ColorBlob %dx%d downscale %d", width, height, downscale), width, height) {
+            @Override
+            protected VisionProcessor createProcessor() {
+                return new ColorBlobProcessor("Red", ColorBlobProcessor.ColorSpace.HSV, new Scalar(170, 120, 70), new Scalar(10, 255, 255))
+                        .setDownscale(downscale);
+            }
+        };
+    }
+
+    private static AprilTagProcessor buildAprilTag(int width, int height) {
+        double scale = width / 640.0;
+        return new AprilTagProcessor.Builder()
+                .setLensIntrinsics(622.001 * scale, 622.001 * scale, 319.803 * scale, 241.251 * scale)
+                .build();
+    }
+
+    public static List<Configuration> configurations() {
+        List<Configuration> configurations = new ArrayList<>();
+        int[][] resolutions = {{640, 480}, {320, 240}};
+        for (int[] resolution : resolutions) {
+            for (int decimation = 1; decimation <= 3; decimation++) {
+                configurations.add(aprilTag(resolution[0], resolution[1], decimation));
+            }
+            configurations.add(adaptiveAprilTag(resolution[0], resolution[1]));
+            configurations.add(redBlobs(resolution[0], resolution[1], 1));
+            configurations.add(redBlobs(resolution[0], resolution[1], 2));
+        }
+        return configurations;
+    }
+}
@@ -0,0 +1,71 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.teamcode.telemetry.TelemetryBoard;
+import org.firstinspires.ftc.vision.VisionProcessor;
+
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides which of several VisionProcessors on one VisionPortal run on each frame, so an expensive one (TFOD)
+ * can run less often while a cheap, important one (AprilTag) keeps up with the camera, without the driver having to
+ * toggle them with setProcessorEnabled().
+ *
+ * Wrap each processor with one of the policies below and add the wrappers to the portal. The portal runs them
+ * one after another on the vision thread, in the order they were added, so earlier processors get first claim
+ * on the frame's CPU-time budget: add the important ones first.
+ */
+public class VisionScheduler {
+    private final long frameBudgetNanos;
+    private final ArrayList<ScheduledProcessor> processors = new ArrayList<>();
+
+    private long currentFrameNanos = Long.MIN_VALUE;
+    private long spentNanos = 0;
+
+    // frameBudgetMillis: the processing time all processors together should stay under for one frame.
+    public VisionScheduler(double frameBudgetMillis) {
+        this.frameBudgetNanos = (long) (frameBudgetMillis * 1_000_000);
+    }
+
+    // Runs the processor on every nth frame (1 = every frame).
+    public ScheduledProcessor everyNFrames(String name, VisionProcessor processor, int n) {
+        return add(new ScheduledProcessor(this, name, processor, ScheduledProcessor.Policy.EVERY_N_FRAMES, n, null, 0));
+    }
+
+    // Runs the processor only while needed returns true (checked on the vision thread, so keep it to reading a flag).
+    public ScheduledProcessor whileNeeded(String name, VisionProcessor processor, BooleanSupplier needed) {
+        return add(new ScheduledProcessor(this, name, processor, ScheduledProcessor.Policy.WHILE_NEEDED, 1, needed, 0));
+    }
+
+    // Runs the processor when its usual cost fits in what is left of the frame's budget,
+    // and after maxSkippedFrames skipped frames in a row regardless.
+    public ScheduledProcessor withinBudget(String name, VisionProcessor processor, int maxSkippedFrames) {
+        return add(new ScheduledProcessor(this, name, processor, ScheduledProcessor.Policy.WITHIN_BUDGET, 1, null, maxSkippedFrames));
+    }
+
+    private ScheduledProcessor add(ScheduledProcessor processor) {
+        processors.add(processor);
+        return processor;
+    }
+
+    // Vision thread: called by each processor before it decides whether to run. Returns the budget left for this frame.
+    long startProcessor(long captureTimeNanos) {
+        if (captureTimeNanos != currentFrameNanos) { // The first processor to see a new frame starts its budget.
+            currentFrameNanos = captureTimeNanos;
+            spentNanos = 0;
+        }
+        return frameBudgetNanos - spentNanos;
+    }
+
+    void spend(long nanos) {
+        spentNanos += nanos;
+    }
+
+    // Adds a line per processor: how often it runs and what it costs.
+    public void addTelemetry(TelemetryBoard board) {
+        for (final ScheduledProcessor processor : processors) {
+            board.addLine(processor.getName(), () -> String.format("runs %.0f%%, mean %.1f ms, p95 %.1f ms",
+                    processor.getRunFraction() * 100, processor.getCostHistogram().getMeanMs(), processor.getCostHistogram().getPercentileMs(95)));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.input.Button;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecord;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecorder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the files MatchRecorder writes on the robot and turns them into CSV, one row per cycle, oldest first.
+ * Copy the recordings off the robot (adb pull /sdcard/FIRST/data/matches) and run main() on a computer with the
+ * .bin files as arguments; each one gets a .csv next to it. ./gradlew :TeamCode:test -PmatchRecording=<file.bin>
+ * does the same for one file, in MatchLogDecoderTest.
+ *
+ * Columns: time_s (since the first record in the file), cycle, flags, then for each gamepad its six axes and a 0/1
+ * column per Button (g1_btn_a, ...), then each motor's encoder and power, then heading_deg and yaw_rate_dps.
+ * There is no Parquet writer among our dependencies; for Parquet, load the CSV with pandas and call to_parquet().
+ */
+public class MatchLogDecoder {
+    private static final Button[] BUTTONS = Button.values();
+
+    // The records in a recording, oldest first. Only the last capacity records are still in a file that wrapped around.
+    public static List<MatchRecord> read(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            MappedByteBuffer buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MatchRecorder.MAGIC) throw new IOException(file + " is not a match recording");
+            if (buffer.getInt(4) != MatchRecorder.VERSION || buffer.getInt(8) != MatchRecord.SIZE) {
+                throw new IOException(file + " was recorded with a different record layout");
+            }
+            int capacity = buffer.getInt(12);
+            long count = buffer.getLong(MatchRecorder.COUNT_OFFSET);
+
+            List<MatchRecord> records = new ArrayList<>();
+            for (long n = Math.max(0, count - capacity); n < count; n++) {
+                MatchRecord record = new MatchRecord();
+                record.read(buffer, MatchRecorder.HEADER_SIZE + (int) (n % capacity) * MatchRecord.SIZE);
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    public static void writeCsv(List<MatchRecord> records, File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            StringBuilder header = new StringBuilder("time_s,cycle,flags");
+            for (int gamepad = 1; gamepad <= 2; gamepad++) {
+                for (String axis : MatchRecord.AXIS_NAMES) {
+                    header.append(",g").append(gamepad).append('_').append(axis);
+                }
+                for (Button button : BUTTONS) {
+                    header.append(",g").append(gamepad).append("_btn_").append(button.name().toLowerCase());
+                }
+            }
+            for (String motor : MatchRecord.MOTOR_NAMES) {
+                header.append(',').append(motor).append("_encoder,").append(motor).append("_power");
+            }
+            header.append(",heading_deg,yaw_rate_dps");
+            out.println(header);
+
+            // Locale.US everywhere: a decimal comma would add columns.
+
+            long start = records.isEmpty() ? 0 : records.get(0).timestampNanos;
+            for (MatchRecord record : records) {
+                out.printf(Locale.US, "%.6f,%d,%d", (record.timestampNanos - start) / 1e9, record.cycle, record.flags);
+                writeGamepad(out, record.axes1, record.buttons1);
+                writeGamepad(out, record.axes2, record.buttons2);
+                for (int i = 0; i < MatchRecord.MOTORS; i++) {
+                    out.printf(Locale.US, ",%d,%.4f", record.encoders[i], record.powers[i]);
+                }
+                out.printf(Locale.US, ",%.3f,%.3f%n", Math.toDegrees(record.headingRadians), Math.toDegrees(record.yawRateRadians));
+            }
+        }
+    }
+
+    private static void writeGamepad(PrintWriter out, float[] axes, int buttons) {
+        for (float axis : axes) {
+            out.printf(Locale.US, ",%.4f", axis);
+        }
+        for (Button button : BUTTONS) {
+            out.print(MatchRecord.isDown(buttons, button) ? ",1" : ",0");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("usage: MatchLogDecoder recording.bin [more.bin ...]");
+            return;
+        }
+        for (String arg : args) {
+            System.out.println(decode(new File(arg)));
+        }
+    }
+
+    // Writes the recording's CSV next to it, and returns what was written.
+    public static String decode(File file) throws IOException {
+        List<MatchRecord> records = read(file);
+        File csv = new File(file.getParentFile(), file.getName().replaceFirst("\\.bin$", "") + ".csv");
+        writeCsv(records, csv);
+        double seconds = records.size() < 2 ? 0
+                : (records.get(records.size() - 1).timestampNanos - records.get(0).timestampNanos) / 1e9;
+        return String.format("%s: %d cycles over %.1f s -> %s", file, records.size(), seconds, csv);
+    }
+}
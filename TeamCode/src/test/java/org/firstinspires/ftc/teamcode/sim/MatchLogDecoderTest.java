@@ -0,0 +1,69 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecord;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecorder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+public class MatchLogDecoderTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    // Ten records into a ring of four: only the last four are left, oldest first.
+    @Test
+    public void readsTheRingOldestFirst() throws IOException {
+        File file = folder.newFile("match.bin");
+        MatchRecorder recorder = new MatchRecorder(file, 4);
+        for (int i = 0; i < 10; i++) {
+            recorder.getRecord().encoders[MatchRecord.FRONT_LEFT] = i * 100;
+            recorder.getRecord().powers[MatchRecord.RIGHT_SLIDE] = i / 10f;
+            recorder.write();
+        }
+        recorder.close();
+
+        List<MatchRecord> records = MatchLogDecoder.read(file);
+        assertEquals(4, records.size());
+        for (int i = 0; i < 4; i++) {
+            MatchRecord record = records.get(i);
+            assertEquals(6 + i, record.cycle);
+            assertEquals((6 + i) * 100, record.encoders[MatchRecord.FRONT_LEFT]);
+            assertEquals((6 + i) / 10f, record.powers[MatchRecord.RIGHT_SLIDE], 0);
+        }
+    }
+
+    @Test
+    public void everyCsvRowHasAColumnPerHeader() throws IOException {
+        File file = folder.newFile("match.bin");
+        MatchRecorder recorder = new MatchRecorder(file, 16);
+        for (int i = 0; i < 3; i++) {
+            recorder.getRecord().headingRadians = 0.5f * i;
+            recorder.write();
+        }
+        recorder.close();
+
+        MatchLogDecoder.decode(file);
+        List<String> lines = Files.readAllLines(new File(folder.getRoot(), "match.csv").toPath());
+        assertEquals(4, lines.size());
+        int columns = lines.get(0).split(",").length;
+        for (String line : lines) {
+            assertEquals(line, columns, line.split(",").length);
+        }
+    }
+
+    // ./gradlew :TeamCode:test -PmatchRecording=<file.bin> writes the recording's CSV next to it.
+    @Test
+    public void decodesAGivenRecording() throws IOException {
+        String recording = System.getProperty("teamcode.matchRecording");
+        assumeNotNull(recording);
+        System.out.println(MatchLogDecoder.decode(new File(recording)));
+    }
+}
@@ -0,0 +1,170 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.input.Button;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Plays a match recording (from MatchRecorder) back into an OpMode on the simulated robot, as a regression test:
+ * after changing the TeleOp, replaying an old match shows every cycle where it now drives differently.
+ *
+ * The simulator's physics are turned off. Before each cycle the OpMode gets that cycle's recorded gamepads, encoder
+ * positions and IMU heading, at the pace they were recorded; after it, the powers it set on each motor are compared
+ * with the recorded ones. Pressing BACK resets the yaw in our TeleOps; the replay follows those resets, to within a
+ * heading sample.
+ *
+ * The heading reaches the OpMode through AsyncHeadingProvider's thread, so it can be a sample behind the recording:
+ * in field-centric mode, small power differences while turning are expected.
+ *
+ * Run main() with a recording (and optionally the tolerance), or ./gradlew :TeamCode:test -PmatchRecording=<file.bin>
+ * for MatchReplayTest. The TeleOp is replayed without its own MatchRecorder, so no new recording is written.
+ */
+public class MatchReplay {
+    /**
+     * How the replayed powers compared with the recorded ones.
+     */
+    public static class Result {
+        public int cycles;
+        public int mismatchedCycles; // Cycles with any motor more than the tolerance off.
+        public int firstMismatch = -1; // Recorded cycle number of the first one, or -1.
+        public double maxDifference;
+        public String maxDifferenceMotor = "-";
+
+        @Override
+        public String toString() {
+            return String.format("%d cycles, %d differ (first: %s), max difference %.3f (%s)", cycles, mismatchedCycles,
+                    firstMismatch < 0 ? "none" : "cycle " + firstMismatch, maxDifference, maxDifferenceMotor);
+        }
+    }
+
+    public static Result run(final List<MatchRecord> records, ControlLoopOpMode opMode, final double tolerance) throws InterruptedException {
+        final Result result = new Result();
+        if (records.isEmpty()) return result;
+
+        SimBus bus = new SimBus();
+        final SimRobot robot = new SimRobot(bus);
+        robot.setReplay(true);
+        final SimMotor[] motors = new SimMotor[MatchRecord.MOTORS];
+        motors[MatchRecord.FRONT_LEFT] = robot.getFrontLeft();
+        motors[MatchRecord.BACK_LEFT] = robot.getBackLeft();
+        motors[MatchRecord.FRONT_RIGHT] = robot.getFrontRight();
+        motors[MatchRecord.BACK_RIGHT] = robot.getBackRight();
+        motors[MatchRecord.LEFT_SLIDE] = robot.getLeftSlide();
+        motors[MatchRecord.RIGHT_SLIDE] = robot.getRightSlide();
+
+        opMode.hardwareMap = robot.getHardwareMap();
+        opMode.telemetry = new SimTelemetry();
+        opMode.gamepad1 = new Gamepad();
+        opMode.gamepad2 = new Gamepad();
+        final Gamepad gamepad1 = opMode.gamepad1;
+        final Gamepad gamepad2 = opMode.gamepad2;
+
+        final long recordStart = records.get(0).timestampNanos;
+        final double[] yawOffset = {0}; // The raw IMU heading at the OpMode's last yaw reset.
+        final int[] index = {0};
+        feed(records.get(0), robot, motors, gamepad1, gamepad2, yawOffset[0]);
+
+        final long start = System.nanoTime();
+        result.cycles = opMode.runHeadless(robot.getHubs(), records.size(), () -> {
+            MatchRecord record = records.get(index[0]);
+            compare(record, motors, tolerance, result);
+            if (index[0] > 0) {
+                MatchRecord previous = records.get(index[0] - 1);
+                if (MatchRecord.isDown(record.buttons1, Button.BACK) && !MatchRecord.isDown(previous.buttons1, Button.BACK)) {
+                    // The OpMode just made its latest heading sample read as 0; the one fed before this cycle, most likely.
+                    yawOffset[0] += previous.headingRadians;
+                }
+            }
+
+            if (++index[0] == records.size()) return true;
+            MatchRecord next = records.get(index[0]);
+            if (!pauseUntil(start + (next.timestampNanos - recordStart))) return true;
+            feed(next, robot, motors, gamepad1, gamepad2, yawOffset[0]);
+            return false;
+        });
+        return result;
+    }
+
+    // Puts the simulated robot and the gamepads in the state the record saw.
+    private static void feed(MatchRecord record, SimRobot robot, SimMotor[] motors, Gamepad gamepad1, Gamepad gamepad2, double yawOffset) {
+        for (int i = 0; i < MatchRecord.MOTORS; i++) {
+            motors[i].setReplayPosition(record.encoders[i]);
+        }
+        robot.getImu().setMotion(record.headingRadians + yawOffset, record.yawRateRadians);
+        setGamepad(gamepad1, record.buttons1, record.axes1);
+        setGamepad(gamepad2, record.buttons2, record.axes2);
+    }
+
+    // The trigger "buttons" are left out: GamepadInput works them out from the trigger axes again.
+    private static void setGamepad(Gamepad gamepad, int buttons, float[] axes) {
+        synchronized (gamepad) {
+            gamepad.left_stick_x = axes[MatchRecord.LEFT_STICK_X];
+            gamepad.left_stick_y = axes[MatchRecord.LEFT_STICK_Y];
+            gamepad.right_stick_x = axes[MatchRecord.RIGHT_STICK_X];
+            gamepad.right_stick_y = axes[MatchRecord.RIGHT_STICK_Y];
+            gamepad.left_trigger = axes[MatchRecord.LEFT_TRIGGER];
+            gamepad.right_trigger = axes[MatchRecord.RIGHT_TRIGGER];
+
+            gamepad.a = MatchRecord.isDown(buttons, Button.A);
+            gamepad.b = MatchRecord.isDown(buttons, Button.B);
+            gamepad.x = MatchRecord.isDown(buttons, Button.X);
+            gamepad.y = MatchRecord.isDown(buttons, Button.Y);
+            gamepad.dpad_up = MatchRecord.isDown(buttons, Button.DPAD_UP);
+            gamepad.dpad_down = MatchRecord.isDown(buttons, Button.DPAD_DOWN);
+            gamepad.dpad_left = MatchRecord.isDown(buttons, Button.DPAD_LEFT);
+            gamepad.dpad_right = MatchRecord.isDown(buttons, Button.DPAD_RIGHT);
+            gamepad.left_bumper = MatchRecord.isDown(buttons, Button.LEFT_BUMPER);
+            gamepad.right_bumper = MatchRecord.isDown(buttons, Button.RIGHT_BUMPER);
+            gamepad.left_stick_button = MatchRecord.isDown(buttons, Button.LEFT_STICK_BUTTON);
+            gamepad.right_stick_button = MatchRecord.isDown(buttons, Button.RIGHT_STICK_BUTTON);
+            gamepad.back = MatchRecord.isDown(buttons, Button.BACK);
+            gamepad.start = MatchRecord.isDown(buttons, Button.START);
+            gamepad.guide = MatchRecord.isDown(buttons, Button.GUIDE);
+        }
+    }
+
+    private static void compare(MatchRecord record, SimMotor[] motors, double tolerance, Result result) {
+        boolean mismatch = false;
+        for (int i = 0; i < MatchRecord.MOTORS; i++) {
+            double difference = Math.abs(motors[i].getPower() - record.powers[i]);
+            if (difference > result.maxDifference) {
+                result.maxDifference = difference;
+                result.maxDifferenceMotor = MatchRecord.MOTOR_NAMES[i];
+            }
+            if (difference > tolerance) mismatch = true;
+        }
+        if (mismatch) {
+            result.mismatchedCycles++;
+            if (result.firstMismatch < 0) result.firstMismatch = record.cycle;
+        }
+    }
+
+    // Sleeps until System.nanoTime() reaches nanos. Returns false if the thread was interrupted.
+    private static boolean pauseUntil(long nanos) {
+        long remaining = nanos - System.nanoTime();
+        if (remaining <= 0) return true;
+        try {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("usage: MatchReplay recording.bin [tolerance]");
+            return;
+        }
+        List<MatchRecord> records = MatchLogDecoder.read(new File(args[0]));
+        double tolerance = args.length > 1 ? Double.parseDouble(args[1]) : 0.01;
+        System.out.println(run(records, SimHarness.combinedTeleOp(), tolerance));
+    }
+}
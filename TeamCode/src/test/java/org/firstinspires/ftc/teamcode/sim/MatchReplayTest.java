@@ -0,0 +1,63 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import org.firstinspires.ftc.teamcode.Combined_MecanumTeleOp;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecord;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecorder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+public class MatchReplayTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    // Records the TeleOp driving in the simulator, then replays the recording into a fresh one: it should set the same
+    // powers. A few cycles may differ while the replayed heading is a sample behind.
+    @Test
+    public void replayingASimulatedMatchGivesTheSamePowers() throws IOException, InterruptedException {
+        final File file = new File(folder.getRoot(), "match.bin");
+        SimHarness.run(new SimHarness.Scenario("recorded", 300) {
+            @Override
+            protected ControlLoopOpMode createOpMode() {
+                return new Combined_MecanumTeleOp() {
+                    @Override
+                    protected MatchRecorder openRecorder() {
+                        return new MatchRecorder(file, 1024);
+                    }
+                };
+            }
+
+            @Override
+            protected void drive(Gamepad gamepad1, int cycle) {
+                gamepad1.b = cycle < 5;
+                gamepad1.left_stick_y = cycle < 150 ? -0.5f : 0;
+                gamepad1.left_stick_x = cycle >= 150 ? 0.3f : 0;
+            }
+        }, false);
+
+        List<MatchRecord> records = MatchLogDecoder.read(file);
+        assertTrue(records.size() > 100);
+        MatchReplay.Result result = MatchReplay.run(records, SimHarness.combinedTeleOp(), 0.01);
+        System.out.println(result);
+        assertTrue(result.toString(), result.mismatchedCycles <= records.size() / 20);
+    }
+
+    // ./gradlew :TeamCode:test -PmatchRecording=<file.bin> replays a recording from the robot into Combined_MecanumTeleOp.
+    @Test
+    public void replaysAGivenRecording() throws IOException, InterruptedException {
+        String recording = System.getProperty("teamcode.matchRecording");
+        assumeNotNull(recording);
+        List<MatchRecord> records = MatchLogDecoder.read(new File(recording));
+        System.out.println(MatchReplay.run(records, SimHarness.combinedTeleOp(), 0.01));
+    }
+}
@@ -0,0 +1,86 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+/**
+ * Models the cost of talking to the hubs. Every simulated hardware access goes through here:
+ * it is counted by type, the physics are brought up to date, and then the calling thread is held for the
+ * configured latency, so the OpMode's loop time looks like it would on a robot.
+ *
+ * The default latencies are rough numbers for a Control Hub; measure your own with ConceptMotorBulkRead.
+ *
+ * Like a real hub, the bus does one transaction at a time: a thread reading a sensor in the background
+ * (e.g. AsyncHeadingProvider) holds up the control loop's transactions until it is done, and vice versa.
+ */
+public class SimBus {
+    public enum Transaction {
+        WRITE,     // A single command to a hub (setPower, setTargetPosition, setPosition, ...).
+        READ,      // A single read that is not bulk-cached (an encoder read with caching OFF, voltage, current).
+        BULK_READ, // One bulk read of every motor on a hub.
+        I2C_READ   // A read of an I2C device (IMU, color sensor).
+    }
+
+    private final long[] latencyNanos = new long[Transaction.values().length];
+    private final long[] counts = new long[Transaction.values().length];
+    private long totalLatencyNanos = 0;
+
+    private Runnable beforeTransaction; // Called before every transaction, to step the physics.
+
+    public SimBus() {
+        setLatencyMicros(Transaction.WRITE, 1500);
+        setLatencyMicros(Transaction.READ, 1500);
+        setLatencyMicros(Transaction.BULK_READ, 2500);
+        setLatencyMicros(Transaction.I2C_READ, 3000);
+    }
+
+    public SimBus setLatencyMicros(Transaction transaction, long micros) {
+        latencyNanos[transaction.ordinal()] = micros * 1000;
+        return this;
+    }
+
+    // Sets every latency to 0, to measure how fast the OpMode's own code is.
+    public SimBus setNoLatency() {
+        for (Transaction transaction : Transaction.values()) {
+            setLatencyMicros(transaction, 0);
+        }
+        return this;
+    }
+
+    void setBeforeTransaction(Runnable beforeTransaction) {
+        this.beforeTransaction = beforeTransaction;
+    }
+
+    synchronized void transact(Transaction transaction) {
+        if (beforeTransaction != null) beforeTransaction.run();
+        counts[transaction.ordinal()]++;
+
+        long latency = latencyNanos[transaction.ordinal()];
+        totalLatencyNanos += latency;
+        // Spin instead of sleeping: Thread.sleep() is far too coarse for 1-3 ms waits.
+        long end = System.nanoTime() + latency;
+        while (System.nanoTime() < end) {
+            // Busy wait.
+        }
+    }
+
+    public synchronized long getCount(Transaction transaction) {
+        return counts[transaction.ordinal()];
+    }
+
+    public synchronized long getTotalCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public synchronized long getTotalLatencyNanos() {
+        return totalLatencyNanos;
+    }
+
+    public synchronized void resetCounts() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        totalLatencyNanos = 0;
+    }
+}
@@ -0,0 +1,73 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+/**
+ * A simulated downward-facing color sensor. The robot model tells it what color the floor is under it
+ * (e.g. a white line on gray tiles), and every read is an I2C transaction.
+ */
+public class SimColorSensor implements NormalizedColorSensor {
+    private final SimBus bus;
+    private float gain = 1;
+    private float red, green, blue; // Color of the surface under the sensor, 0 to 1.
+
+    public SimColorSensor(SimBus bus) {
+        this.bus = bus;
+    }
+
+    void setSurface(float red, float green, float blue) {
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+    }
+
+    @Override
+    public NormalizedRGBA getNormalizedColors() {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        NormalizedRGBA colors = new NormalizedRGBA();
+        colors.red = Math.min(1, red * gain);
+        colors.green = Math.min(1, green * gain);
+        colors.blue = Math.min(1, blue * gain);
+        colors.alpha = Math.min(1, (red + green + blue) / 3 * gain);
+        return colors;
+    }
+
+    @Override
+    public float getGain() {
+        return gain;
+    }
+
+    @Override
+    public void setGain(float newGain) {
+        gain = newGain;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Color Sensor";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "simulated I2C bus 1";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
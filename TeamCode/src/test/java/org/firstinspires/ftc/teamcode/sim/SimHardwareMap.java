@@ -0,0 +1,24 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+/**
+ * A HardwareMap filled with simulated devices instead of a robot configuration.
+ * Devices are found both by hardwareMap.get(Class, name) and by the typed mappings (hardwareMap.dcMotor.get(name), ...).
+ */
+public class SimHardwareMap extends HardwareMap {
+    public SimHardwareMap() {
+        super(null, null); // No Android context or OpMode manager in the simulator.
+    }
+
+    public void add(String name, HardwareDevice device) {
+        put(name, device);
+        if (device instanceof DcMotor) dcMotor.put(name, (DcMotor) device);
+        if (device instanceof Servo) servo.put(name, (Servo) device);
+        if (device instanceof VoltageSensor) voltageSensor.put(name, (VoltageSensor) device);
+    }
+}
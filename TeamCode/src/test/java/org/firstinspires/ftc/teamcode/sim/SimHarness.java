@@ -0,0 +1,180 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import org.firstinspires.ftc.teamcode.AutonomousOpMode;
+import org.firstinspires.ftc.teamcode.Combined_MecanumTeleOp;
+import org.firstinspires.ftc.teamcode.DriveByGyroOpMode;
+import org.firstinspires.ftc.teamcode.control.ControlLoopOpMode;
+import org.firstinspires.ftc.teamcode.telemetry.MatchRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs our OpModes on a computer against the simulated robot and reports, for each one:
+ * loop rate, hub transactions per cycle (by type), and how long it took to reach the scenario's target.
+ *
+ * Every scenario is run twice: once with the modeled USB/I2C latency, and once with no latency at all,
+ * which shows how much of the loop time is our own code.
+ *
+ * Only ControlLoopOpMode subclasses can run here, since LinearOpMode's start/stop handshake needs the SDK's event loop.
+ * The RobotAutoDrive samples are LinearOpModes; DriveByGyroOpMode is RobotAutoDriveByGyro_Linear moved onto
+ * ControlLoopOpMode, so its route runs here.
+ * SimHarnessTest runs every scenario with ./gradlew :TeamCode:test; main() prints the same numbers from the IDE.
+ */
+public class SimHarness {
+    /**
+     * One OpMode run: which OpMode, what the driver does, and what counts as done.
+     */
+    public abstract static class Scenario {
+        final String name;
+        final int maxCycles;
+
+        protected Scenario(String name, int maxCycles) {
+            this.name = name;
+            this.maxCycles = maxCycles;
+        }
+
+        protected abstract ControlLoopOpMode createOpMode();
+
+        // Sets the gamepad for the next cycle.
+        protected void drive(Gamepad gamepad1, int cycle) {
+        }
+
+        // Returns true once the OpMode has done what the scenario asks for.
+        // By default the target is the OpMode finishing on its own (ControlLoopOpMode.isFinished()).
+        protected boolean reachedTarget(SimRobot robot) {
+            return false;
+        }
+    }
+
+    /**
+     * What happened during one run.
+     */
+    public static class Result {
+        public String name;
+        public boolean latencyModeled;
+        public int cycles;
+        public double seconds;
+        public double secondsToTarget = Double.NaN; // NaN if the target was never reached.
+        public long writes, reads, bulkReads, i2cReads;
+
+        public double loopHz() {
+            return cycles / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %-9s %6d cycles %7.1f Hz  per cycle: %5.2f writes %5.2f reads %5.2f bulk %5.2f i2c  target: %s",
+                    name, latencyModeled ? "latency" : "no-delay", cycles, loopHz(),
+                    (double) writes / cycles, (double) reads / cycles, (double) bulkReads / cycles, (double) i2cReads / cycles,
+                    Double.isNaN(secondsToTarget) ? "not reached" : String.format("%.2f s", secondsToTarget));
+        }
+    }
+
+    public static Result run(Scenario scenario, boolean modelLatency) throws InterruptedException {
+        SimBus bus = new SimBus();
+        if (!modelLatency) bus.setNoLatency();
+        final SimRobot robot = new SimRobot(bus);
+
+        final ControlLoopOpMode opMode = scenario.createOpMode();
+        opMode.hardwareMap = robot.getHardwareMap();
+        opMode.telemetry = new SimTelemetry();
+        opMode.gamepad1 = new Gamepad();
+        opMode.gamepad2 = new Gamepad();
+
+        final Result result = new Result();
+        result.name = scenario.name;
+        result.latencyModeled = modelLatency;
+
+        scenario.drive(opMode.gamepad1, 0);
+        final long start = System.nanoTime();
+        final int[] cycle = {0};
+        result.cycles = opMode.runHeadless(robot.getHubs(), scenario.maxCycles, () -> {
+            cycle[0]++;
+            if (Double.isNaN(result.secondsToTarget) && scenario.reachedTarget(robot)) {
+                result.secondsToTarget = (System.nanoTime() - start) / 1e9;
+            }
+            scenario.drive(opMode.gamepad1, cycle[0]);
+            return false; // Keep going for maxCycles, so the loop rate covers the whole run.
+        });
+        result.seconds = (System.nanoTime() - start) / 1e9;
+        if (Double.isNaN(result.secondsToTarget) && result.cycles < scenario.maxCycles) {
+            result.secondsToTarget = result.seconds; // The OpMode finished by itself.
+        }
+
+        result.writes = bus.getCount(SimBus.Transaction.WRITE);
+        result.reads = bus.getCount(SimBus.Transaction.READ);
+        result.bulkReads = bus.getCount(SimBus.Transaction.BULK_READ);
+        result.i2cReads = bus.getCount(SimBus.Transaction.I2C_READ);
+        return result;
+    }
+
+    // Combined_MecanumTeleOp without its match recording, which would need /sdcard.
+    public static Combined_MecanumTeleOp combinedTeleOp() {
+        return new Combined_MecanumTeleOp() {
+            @Override
+            protected MatchRecorder openRecorder() {
+                return MatchRecorder.disabled();
+            }
+        };
+    }
+
+    // Driver presses "b" (viper slides to the large pole) while driving forward at half stick.
+    static Scenario combinedTeleOpLargePole() {
+        return new Scenario("Combined_MecanumTeleOp", 600) {
+            @Override
+            protected ControlLoopOpMode createOpMode() {
+                return combinedTeleOp();
+            }
+
+            @Override
+            protected void drive(Gamepad gamepad1, int cycle) {
+                gamepad1.b = cycle < 5;
+                gamepad1.left_stick_y = -0.5f;
+            }
+
+            @Override
+            protected boolean reachedTarget(SimRobot robot) {
+                return Math.abs(robot.getRightSlide().getPhysicalPosition() - (-4087)) <= 100
+                        && Math.abs(robot.getLeftSlide().getPhysicalPosition() - 4087) <= 100;
+            }
+        };
+    }
+
+    // The whole autonomous routine; the target is the routine finishing.
+    static Scenario autonomousRoutine() {
+        return new Scenario("AutonomousOpMode", 3000) {
+            @Override
+            protected ControlLoopOpMode createOpMode() {
+                return new AutonomousOpMode();
+            }
+        };
+    }
+
+    // RobotAutoDriveByGyro_Linear's route; the target is the route finishing. It ends about where it started.
+    static Scenario driveByGyroRoute() {
+        return new Scenario("DriveByGyroOpMode", 6000) {
+            @Override
+            protected ControlLoopOpMode createOpMode() {
+                return new DriveByGyroOpMode();
+            }
+        };
+    }
+
+    public static List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(combinedTeleOpLargePole());
+        scenarios.add(autonomousRoutine());
+        scenarios.add(driveByGyroRoute());
+        return scenarios;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        for (Scenario scenario : scenarios()) {
+            System.out.println(run(scenario, true));
+            System.out.println(run(scenario, false));
+        }
+    }
+}
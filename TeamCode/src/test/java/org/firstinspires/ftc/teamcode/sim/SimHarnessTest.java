@@ -0,0 +1,18 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+
+public class SimHarnessTest {
+    @Test
+    public void everyScenarioReachesItsTarget() throws InterruptedException {
+        for (SimHarness.Scenario scenario : SimHarness.scenarios()) {
+            for (boolean modelLatency : new boolean[] {true, false}) {
+                SimHarness.Result result = SimHarness.run(scenario, modelLatency);
+                System.out.println(result);
+                assertFalse(result.toString(), Double.isNaN(result.secondsToTarget));
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.Axis;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/**
+ * A simulated IMU on a flat field: pitch and roll are always 0, and yaw comes from the drivetrain model.
+ * Every read is an I2C transaction, like on a real hub.
+ */
+public class SimImu implements IMU {
+    private final SimBus bus;
+
+    private volatile double headingRadians = 0; // Heading of the robot on the field, set by the drivetrain model.
+    private volatile double yawRateRadians = 0; // Radians per second, counter clockwise positive.
+    private volatile double yawOffsetRadians = 0; // Heading at the last resetYaw().
+    private long initializeNanos = 0; // How long initialize() takes; the real IMU blocks for a while.
+
+    public SimImu(SimBus bus) {
+        this.bus = bus;
+    }
+
+    public SimImu setInitializeMillis(long millis) {
+        initializeNanos = millis * 1_000_000;
+        return this;
+    }
+
+    void setMotion(double headingRadians, double yawRateRadians) {
+        this.headingRadians = headingRadians;
+        this.yawRateRadians = yawRateRadians;
+    }
+
+    private double yawRadians() {
+        return AngleUnit.normalizeRadians(headingRadians - yawOffsetRadians);
+    }
+
+    @Override
+    public boolean initialize(Parameters parameters) {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        long end = System.nanoTime() + initializeNanos;
+        while (System.nanoTime() < end) {
+            // Busy wait, like the SDK does while the IMU boots.
+        }
+        return true;
+    }
+
+    @Override
+    public void resetYaw() {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        yawOffsetRadians = headingRadians;
+    }
+
+    @Override
+    public YawPitchRollAngles getRobotYawPitchRollAngles() {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        return new YawPitchRollAngles(AngleUnit.RADIANS, yawRadians(), 0, 0, System.nanoTime());
+    }
+
+    @Override
+    public Orientation getRobotOrientation(AxesReference reference, AxesOrder order, AngleUnit angleUnit) {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        // The robot only rotates about Z, so only the Z slot of the requested order is non-zero.
+        float[] angles = new float[3];
+        Axis[] axes = order.axes();
+        for (int i = 0; i < 3; i++) {
+            if (axes[i] == Axis.Z) angles[i] = (float) angleUnit.fromRadians(yawRadians());
+        }
+        return new Orientation(reference, order, angleUnit, angles[0], angles[1], angles[2], System.nanoTime());
+    }
+
+    @Override
+    public Quaternion getRobotOrientationAsQuaternion() {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        double half = yawRadians() / 2;
+        return new Quaternion((float) Math.cos(half), 0, 0, (float) Math.sin(half), System.nanoTime());
+    }
+
+    @Override
+    public AngularVelocity getRobotAngularVelocity(AngleUnit angleUnit) {
+        bus.transact(SimBus.Transaction.I2C_READ);
+        return new AngularVelocity(angleUnit, 0, 0, (float) angleUnit.fromRadians(yawRateRadians), System.nanoTime());
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated IMU";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "simulated I2C bus 0";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
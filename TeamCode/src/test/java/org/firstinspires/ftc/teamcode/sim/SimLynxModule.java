@@ -0,0 +1,134 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+
+import org.firstinspires.ftc.teamcode.hardware.BulkCacheHub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A simulated REV hub. It owns the motors plugged into it and models the three bulk caching modes the same way
+ * the real LynxModule does (see ConceptMotorBulkRead):
+ *
+ *   OFF    - every encoder read is its own transaction.
+ *   AUTO   - one bulk read fills the cache; reading the same value a second time triggers a new bulk read.
+ *   MANUAL - one bulk read fills the cache, which is only emptied by clearBulkCache().
+ */
+public class SimLynxModule implements BulkCacheHub {
+    private static final int PORTS = 4;
+
+    private final String name;
+    private final SimBus bus;
+    private final List<SimMotor> motors = new ArrayList<>();
+
+    private LynxModule.BulkCachingMode mode = LynxModule.BulkCachingMode.OFF;
+
+    // The bulk cache. Each value is a snapshot of the motor at the time of the last bulk read.
+    private boolean cacheValid = false;
+    private final int[] cachedPosition = new int[PORTS];
+    private final double[] cachedVelocity = new double[PORTS];
+    private final boolean[] cachedBusy = new boolean[PORTS];
+    private final boolean[][] readSinceBulk = new boolean[PORTS][3]; // Per port: position, velocity, busy. Used by AUTO mode.
+
+    private static final int POSITION = 0;
+    private static final int VELOCITY = 1;
+    private static final int BUSY = 2;
+
+    public SimLynxModule(String name, SimBus bus) {
+        this.name = name;
+        this.bus = bus;
+    }
+
+    public SimBus getBus() {
+        return bus;
+    }
+
+    // Adds a motor on the next free port.
+    public SimMotor addMotor(SimMotor.Model model) {
+        if (motors.size() >= PORTS) throw new IllegalStateException(name + " has no free motor ports");
+        SimMotor motor = new SimMotor(this, motors.size(), model);
+        motors.add(motor);
+        return motor;
+    }
+
+    public List<SimMotor> getMotors() {
+        return motors;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public LynxModule.BulkCachingMode getBulkCachingMode() {
+        return mode;
+    }
+
+    @Override
+    public void setBulkCachingMode(LynxModule.BulkCachingMode mode) {
+        this.mode = mode;
+        cacheValid = false;
+    }
+
+    @Override
+    public void clearBulkCache() {
+        cacheValid = false; // Does not talk to the hub; the next read does.
+    }
+
+    void write() {
+        bus.transact(SimBus.Transaction.WRITE);
+    }
+
+    int readPosition(SimMotor motor) {
+        if (!useCache(motor.getPortNumber(), POSITION)) return motor.getPhysicalPosition();
+        return cachedPosition[motor.getPortNumber()];
+    }
+
+    double readVelocity(SimMotor motor) {
+        if (!useCache(motor.getPortNumber(), VELOCITY)) return motor.getPhysicalVelocity();
+        return cachedVelocity[motor.getPortNumber()];
+    }
+
+    boolean readBusy(SimMotor motor) {
+        if (!useCache(motor.getPortNumber(), BUSY)) return motor.getPhysicalBusy();
+        return cachedBusy[motor.getPortNumber()];
+    }
+
+    // Does whatever transactions the caching mode needs for this read. Returns false if the value should be read directly (mode OFF).
+    private boolean useCache(int port, int channel) {
+        switch (mode) {
+            case OFF:
+                bus.transact(SimBus.Transaction.READ);
+                return false;
+            case AUTO:
+                if (!cacheValid || readSinceBulk[port][channel]) bulkRead();
+                readSinceBulk[port][channel] = true;
+                return true;
+            default: // MANUAL
+                if (!cacheValid) bulkRead();
+                return true;
+        }
+    }
+
+    private void bulkRead() {
+        bus.transact(SimBus.Transaction.BULK_READ);
+        for (SimMotor motor : motors) {
+            int port = motor.getPortNumber();
+            cachedPosition[port] = motor.getPhysicalPosition();
+            cachedVelocity[port] = motor.getPhysicalVelocity();
+            cachedBusy[port] = motor.getPhysicalBusy();
+            readSinceBulk[port][POSITION] = false;
+            readSinceBulk[port][VELOCITY] = false;
+            readSinceBulk[port][BUSY] = false;
+        }
+        cacheValid = true;
+    }
+
+    // Moves every motor forward in time.
+    void step(double dtSeconds) {
+        for (SimMotor motor : motors) {
+            motor.step(dtSeconds);
+        }
+    }
+}
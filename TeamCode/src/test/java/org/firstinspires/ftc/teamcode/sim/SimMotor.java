@@ -0,0 +1,385 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.PIDCoefficients;
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+
+/**
+ * A simulated motor with an encoder. The shaft speed follows the commanded speed with a first-order lag,
+ * and RUN_TO_POSITION is a proportional controller like the hub's, limited by the power set with setPower().
+ *
+ * Reads go through the hub's bulk cache model and writes are charged as USB transactions by the SimBus.
+ */
+public class SimMotor implements DcMotorEx {
+    // Physical properties of a motor. The defaults are a goBILDA 312 RPM Yellow Jacket.
+    public static class Model {
+        public double ticksPerRevolution = 537.7;
+        public double maxTicksPerSecond = 2796; // 312 RPM.
+        public double timeConstantSeconds = 0.05; // How fast the shaft gets to a new speed.
+        public double stallAmps = 9.2;
+        public double runToPositionGain = 0.005; // Fraction of full speed per tick of error in RUN_TO_POSITION.
+    }
+
+    private final SimLynxModule hub;
+    private final int port;
+    private final Model model;
+
+    // Settings, as the user sees them (before the direction is applied).
+    private Direction direction = Direction.FORWARD;
+    private RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+    private ZeroPowerBehavior zeroPowerBehavior = ZeroPowerBehavior.FLOAT;
+    private double power = 0;
+    private double commandedVelocity = 0; // ticks/second, used instead of power after setVelocity().
+    private boolean velocityControl = false;
+    private int targetPosition = 0;
+    private int targetPositionTolerance = 5;
+    private boolean enabled = true;
+    private double currentAlertAmps = 5;
+    private PIDFCoefficients velocityPidf = new PIDFCoefficients(10, 3, 0, 0);
+    private PIDFCoefficients positionPidf = new PIDFCoefficients(5, 0, 0, 0);
+    private MotorConfigurationType motorType = MotorConfigurationType.getUnspecifiedMotorType();
+
+    // Physical state of the shaft, in the motor's own (FORWARD) frame.
+    private double shaftPosition = 0;
+    private double shaftVelocity = 0;
+    private double appliedPower = 0; // -1 to 1, what the H-bridge is driving right now.
+
+    SimMotor(SimLynxModule hub, int port, Model model) {
+        this.hub = hub;
+        this.port = port;
+        this.model = model;
+    }
+
+    private int sign() {
+        return direction == Direction.FORWARD ? 1 : -1;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Physics.
+    // ---------------------------------------------------------------------------------------------
+
+    void step(double dtSeconds) {
+        double targetVelocity; // In the shaft frame, ticks/second.
+        if (!enabled || mode == RunMode.STOP_AND_RESET_ENCODER) {
+            targetVelocity = 0;
+        } else if (mode == RunMode.RUN_TO_POSITION) {
+            double error = sign() * targetPosition - shaftPosition;
+            if (Math.abs(error) <= targetPositionTolerance) {
+                targetVelocity = 0;
+            } else {
+                double effort = Math.max(-1, Math.min(1, error * model.runToPositionGain));
+                targetVelocity = effort * Math.abs(power) * model.maxTicksPerSecond;
+            }
+        } else if (velocityControl && mode == RunMode.RUN_USING_ENCODER) {
+            targetVelocity = sign() * commandedVelocity;
+        } else {
+            targetVelocity = sign() * power * model.maxTicksPerSecond;
+        }
+        appliedPower = targetVelocity / model.maxTicksPerSecond;
+
+        // Coasting (FLOAT at zero power) slows down much more gently than braking.
+        double timeConstant = model.timeConstantSeconds;
+        if (targetVelocity == 0 && zeroPowerBehavior == ZeroPowerBehavior.FLOAT) timeConstant *= 4;
+
+        shaftVelocity += (targetVelocity - shaftVelocity) * (1 - Math.exp(-dtSeconds / timeConstant));
+        shaftPosition += shaftVelocity * dtSeconds;
+    }
+
+    // Physical values, read by the hub when it does a (bulk) read.
+    int getPhysicalPosition() {
+        return (int) Math.round(sign() * shaftPosition);
+    }
+
+    double getPhysicalVelocity() {
+        return sign() * shaftVelocity;
+    }
+
+    // Replay: puts the shaft at a recorded encoder position, standing still.
+    void setReplayPosition(int position) {
+        shaftPosition = sign() * position;
+        shaftVelocity = 0;
+    }
+
+    boolean getPhysicalBusy() {
+        return mode == RunMode.RUN_TO_POSITION && Math.abs(sign() * targetPosition - shaftPosition) > targetPositionTolerance;
+    }
+
+    // Current the motor is drawing right now, without charging a read. Used by the battery model.
+    // It grows with how hard the motor is pushing against its own back-EMF.
+    double getPhysicalAmps() {
+        return Math.abs(appliedPower - shaftVelocity / model.maxTicksPerSecond) * model.stallAmps;
+    }
+
+    // Shaft speed in revolutions per second, in the motor's own frame (ignores setDirection()). Used by the drivetrain model.
+    public double getShaftRevolutionsPerSecond() {
+        return shaftVelocity / model.ticksPerRevolution;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Writes (one USB transaction each).
+    // ---------------------------------------------------------------------------------------------
+
+    @Override
+    public void setPower(double power) {
+        hub.write();
+        this.power = Math.max(-1, Math.min(1, power));
+        velocityControl = false;
+    }
+
+    @Override
+    public void setVelocity(double angularRate) {
+        hub.write();
+        commandedVelocity = angularRate;
+        velocityControl = true;
+        power = angularRate / model.maxTicksPerSecond;
+    }
+
+    @Override
+    public void setVelocity(double angularRate, AngleUnit unit) {
+        double revolutionsPerSecond = unit == AngleUnit.DEGREES ? angularRate / 360.0 : angularRate / (2 * Math.PI);
+        setVelocity(revolutionsPerSecond * model.ticksPerRevolution);
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+        hub.write();
+        targetPosition = position;
+    }
+
+    @Override
+    public void setTargetPositionTolerance(int tolerance) {
+        hub.write();
+        targetPositionTolerance = tolerance;
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        hub.write();
+        if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+            shaftPosition = 0;
+            shaftVelocity = 0;
+            power = 0;
+            velocityControl = false;
+        }
+        this.mode = mode;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        hub.write();
+        this.direction = direction;
+    }
+
+    @Override
+    public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) {
+        hub.write();
+        this.zeroPowerBehavior = zeroPowerBehavior;
+    }
+
+    @Override
+    @Deprecated
+    public void setPowerFloat() {
+        setZeroPowerBehavior(ZeroPowerBehavior.FLOAT);
+        setPower(0);
+    }
+
+    @Override
+    public void setMotorEnable() {
+        hub.write();
+        enabled = true;
+    }
+
+    @Override
+    public void setMotorDisable() {
+        hub.write();
+        enabled = false;
+    }
+
+    @Override
+    @Deprecated
+    public void setPIDCoefficients(RunMode mode, PIDCoefficients pidCoefficients) {
+        setPIDFCoefficients(mode, new PIDFCoefficients(pidCoefficients.p, pidCoefficients.i, pidCoefficients.d, 0));
+    }
+
+    @Override
+    public void setPIDFCoefficients(RunMode mode, PIDFCoefficients pidfCoefficients) {
+        hub.write();
+        if (mode == RunMode.RUN_TO_POSITION) positionPidf = pidfCoefficients;
+        else velocityPidf = pidfCoefficients;
+    }
+
+    @Override
+    public void setVelocityPIDFCoefficients(double p, double i, double d, double f) {
+        setPIDFCoefficients(RunMode.RUN_USING_ENCODER, new PIDFCoefficients(p, i, d, f));
+    }
+
+    @Override
+    public void setPositionPIDFCoefficients(double p) {
+        setPIDFCoefficients(RunMode.RUN_TO_POSITION, new PIDFCoefficients(p, 0, 0, 0));
+    }
+
+    @Override
+    public void setCurrentAlert(double current, CurrentUnit unit) {
+        hub.write();
+        currentAlertAmps = unit == CurrentUnit.MILLIAMPS ? current / 1000.0 : current;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Reads. Encoder, velocity and busy are bulk-cached by the hub; the rest are their own transaction.
+    // ---------------------------------------------------------------------------------------------
+
+    @Override
+    public int getCurrentPosition() {
+        return hub.readPosition(this);
+    }
+
+    @Override
+    public double getVelocity() {
+        return hub.readVelocity(this);
+    }
+
+    @Override
+    public double getVelocity(AngleUnit unit) {
+        double revolutionsPerSecond = getVelocity() / model.ticksPerRevolution;
+        return unit == AngleUnit.DEGREES ? revolutionsPerSecond * 360.0 : revolutionsPerSecond * 2 * Math.PI;
+    }
+
+    @Override
+    public boolean isBusy() {
+        return hub.readBusy(this);
+    }
+
+    @Override
+    public double getCurrent(CurrentUnit unit) {
+        hub.getBus().transact(SimBus.Transaction.READ);
+        double amps = getPhysicalAmps();
+        return unit == CurrentUnit.MILLIAMPS ? amps * 1000.0 : amps;
+    }
+
+    @Override
+    public double getCurrentAlert(CurrentUnit unit) {
+        return unit == CurrentUnit.MILLIAMPS ? currentAlertAmps * 1000.0 : currentAlertAmps;
+    }
+
+    @Override
+    public boolean isOverCurrent() {
+        return getCurrent(CurrentUnit.AMPS) > currentAlertAmps;
+    }
+
+    // Settings the SDK keeps on the phone side, so they cost nothing to read.
+
+    @Override
+    public double getPower() {
+        return power;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public RunMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public ZeroPowerBehavior getZeroPowerBehavior() {
+        return zeroPowerBehavior;
+    }
+
+    @Override
+    public boolean getPowerFloat() {
+        return zeroPowerBehavior == ZeroPowerBehavior.FLOAT && power == 0;
+    }
+
+    @Override
+    public int getTargetPosition() {
+        return targetPosition;
+    }
+
+    @Override
+    public int getTargetPositionTolerance() {
+        return targetPositionTolerance;
+    }
+
+    @Override
+    public boolean isMotorEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Deprecated
+    public PIDCoefficients getPIDCoefficients(RunMode mode) {
+        PIDFCoefficients pidf = getPIDFCoefficients(mode);
+        return new PIDCoefficients(pidf.p, pidf.i, pidf.d);
+    }
+
+    @Override
+    public PIDFCoefficients getPIDFCoefficients(RunMode mode) {
+        return mode == RunMode.RUN_TO_POSITION ? positionPidf : velocityPidf;
+    }
+
+    @Override
+    public MotorConfigurationType getMotorType() {
+        return motorType;
+    }
+
+    @Override
+    public void setMotorType(MotorConfigurationType motorType) {
+        this.motorType = motorType;
+    }
+
+    @Override
+    public DcMotorController getController() {
+        return null; // There is no controller object in the simulator.
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Motor";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return hub.getName() + " port " + port;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        direction = Direction.FORWARD;
+        mode = RunMode.RUN_WITHOUT_ENCODER;
+        zeroPowerBehavior = ZeroPowerBehavior.FLOAT;
+        power = 0;
+        velocityControl = false;
+        enabled = true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,202 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Our robot in the simulator: a mecanum drivetrain on the Control Hub, two viper slide motors and the claw servos on the
+ * Expansion Hub, the hub IMU, the battery, and a color sensor looking at the floor. Device names match the robot
+ * configuration used by Combined_MecanumTeleOp, so OpModes find the same names they do on the real robot.
+ *
+ * The physics are stepped just before every hardware transaction, using real time, so the robot moves as far as it
+ * would have during however long the OpMode's loop took.
+ */
+public class SimRobot {
+    // Drivetrain geometry, in inches.
+    public double wheelDiameter = 96 / 25.4; // goBILDA 96 mm mecanum wheels.
+    public double trackWidth = 14.0; // Left to right wheel distance.
+    public double wheelBase = 12.0; // Front to back wheel distance.
+
+    // A white tape line across the field, this far in front of the starting position (inches).
+    public double lineX = 24.0;
+    public double lineHalfWidth = 1.0;
+
+    private final SimBus bus;
+    private final SimHardwareMap hardwareMap = new SimHardwareMap();
+    private final SimLynxModule controlHub;
+    private final SimLynxModule expansionHub;
+
+    private final SimMotor frontLeft, backLeft, frontRight, backRight;
+    private final SimMotor leftSlide, rightSlide;
+    private final SimServo leftClaw, rightClaw;
+    private final SimImu imu;
+    private final SimVoltageSensor battery;
+    private final SimColorSensor floorColor;
+
+    // Pose on the field. x is forward from the start, y is to the left, heading is counter clockwise.
+    private double x = 0, y = 0, heading = 0;
+
+    private long lastStepNanos = -1;
+    private boolean replay = false;
+
+    public SimRobot(SimBus bus) {
+        this.bus = bus;
+        controlHub = new SimLynxModule("Control Hub", bus);
+        expansionHub = new SimLynxModule("Expansion Hub", bus);
+
+        frontLeft = controlHub.addMotor(new SimMotor.Model());
+        backLeft = controlHub.addMotor(new SimMotor.Model());
+        frontRight = controlHub.addMotor(new SimMotor.Model());
+        backRight = controlHub.addMotor(new SimMotor.Model());
+        leftSlide = expansionHub.addMotor(new SimMotor.Model());
+        rightSlide = expansionHub.addMotor(new SimMotor.Model());
+        leftClaw = new SimServo(expansionHub, 0);
+        rightClaw = new SimServo(expansionHub, 1);
+        imu = new SimImu(bus);
+        battery = new SimVoltageSensor(bus);
+        floorColor = new SimColorSensor(bus);
+
+        hardwareMap.add("motorFrontLeft", frontLeft);
+        hardwareMap.add("motorBackLeft", backLeft);
+        hardwareMap.add("motorFrontRight", frontRight);
+        hardwareMap.add("motorBackRight", backRight);
+        hardwareMap.add("motorLeftViperSlide", leftSlide);
+        hardwareMap.add("motorRightViperSlide", rightSlide);
+        hardwareMap.add("servoLeftClaw", leftClaw);
+        hardwareMap.add("servoRightClaw", rightClaw);
+        hardwareMap.add("imu", imu);
+        hardwareMap.add("Control Hub", battery);
+        hardwareMap.add("sensor_color", floorColor);
+
+        bus.setBeforeTransaction(this::step);
+    }
+
+    public HardwareMap getHardwareMap() {
+        return hardwareMap;
+    }
+
+    public SimBus getBus() {
+        return bus;
+    }
+
+    public List<SimLynxModule> getHubs() {
+        List<SimLynxModule> hubs = new ArrayList<>();
+        hubs.add(controlHub);
+        hubs.add(expansionHub);
+        return hubs;
+    }
+
+    // Replay mode: the physics stop, and the motors and IMU only report what MatchReplay sets them to.
+    public void setReplay(boolean replay) {
+        this.replay = replay;
+    }
+
+    public SimMotor getFrontLeft() {
+        return frontLeft;
+    }
+
+    public SimMotor getBackLeft() {
+        return backLeft;
+    }
+
+    public SimMotor getFrontRight() {
+        return frontRight;
+    }
+
+    public SimMotor getBackRight() {
+        return backRight;
+    }
+
+    public SimMotor getLeftSlide() {
+        return leftSlide;
+    }
+
+    public SimMotor getRightSlide() {
+        return rightSlide;
+    }
+
+    public SimServo getLeftClaw() {
+        return leftClaw;
+    }
+
+    public SimServo getRightClaw() {
+        return rightClaw;
+    }
+
+    public SimImu getImu() {
+        return imu;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getHeading() {
+        return heading;
+    }
+
+    private static double hubAmps(SimLynxModule hub) {
+        double amps = 0;
+        for (SimMotor motor : hub.getMotors()) {
+            amps += motor.getPhysicalAmps();
+        }
+        return amps;
+    }
+
+    // Brings the physics up to the current time. Long gaps are split into 5 ms steps to keep the model stable.
+    void step() {
+        long now = System.nanoTime();
+        if (lastStepNanos < 0) {
+            lastStepNanos = now;
+            return;
+        }
+        double remaining = (now - lastStepNanos) / 1e9;
+        lastStepNanos = now;
+        if (replay) return;
+        while (remaining > 0) {
+            double dt = Math.min(remaining, 0.005);
+            stepPhysics(dt);
+            remaining -= dt;
+        }
+    }
+
+    private void stepPhysics(double dt) {
+        controlHub.step(dt);
+        expansionHub.step(dt);
+        leftClaw.step(dt);
+        rightClaw.step(dt);
+
+        // Wheel surface speeds (inches/second) in the robot's forward direction.
+        // The right side motors are mounted mirrored, so a positive shaft speed drives that side backward.
+        double circumference = Math.PI * wheelDiameter;
+        double fl = frontLeft.getShaftRevolutionsPerSecond() * circumference;
+        double bl = backLeft.getShaftRevolutionsPerSecond() * circumference;
+        double fr = -frontRight.getShaftRevolutionsPerSecond() * circumference;
+        double br = -backRight.getShaftRevolutionsPerSecond() * circumference;
+
+        // Mecanum forward kinematics (x forward, y left, counter clockwise positive).
+        double k = (trackWidth + wheelBase) / 2;
+        double vx = (fl + bl + fr + br) / 4;
+        double vy = (-fl + bl + fr - br) / 4;
+        double omega = (-fl - bl + fr + br) / (4 * k);
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        x += (vx * cos - vy * sin) * dt;
+        y += (vx * sin + vy * cos) * dt;
+        heading += omega * dt;
+        imu.setMotion(heading, omega);
+
+        boolean onLine = Math.abs(x - lineX) < lineHalfWidth;
+        if (onLine) floorColor.setSurface(0.9f, 0.9f, 0.9f);
+        else floorColor.setSurface(0.25f, 0.25f, 0.27f);
+
+        battery.setLoadAmps(hubAmps(controlHub) + hubAmps(expansionHub));
+    }
+}
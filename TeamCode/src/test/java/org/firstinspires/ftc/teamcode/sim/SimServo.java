@@ -0,0 +1,121 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ * A simulated servo. The horn moves toward the commanded position at a fixed speed;
+ * getPosition() returns the last commanded position, like a real servo (which has no feedback).
+ */
+public class SimServo implements Servo {
+    private final SimLynxModule hub;
+    private final int port;
+    private double secondsPerFullTravel = 0.6; // Time to go from 0 to 1.
+
+    private Direction direction = Direction.FORWARD;
+    private double position = 0.5; // Commanded position, as the user sees it (0 to 1, before scaling).
+    private double scaleMin = MIN_POSITION;
+    private double scaleMax = MAX_POSITION;
+    private double hornPosition = 0.5; // Where the horn actually is, in the servo's own frame (0 to 1).
+
+    public SimServo(SimLynxModule hub, int port) {
+        this.hub = hub;
+        this.port = port;
+    }
+
+    public SimServo setSecondsPerFullTravel(double secondsPerFullTravel) {
+        this.secondsPerFullTravel = secondsPerFullTravel;
+        return this;
+    }
+
+    // Where the horn physically is (0 to 1 in the servo's own frame).
+    public double getHornPosition() {
+        return hornPosition;
+    }
+
+    // Whether the horn has reached the commanded position.
+    public boolean isAtTarget() {
+        return Math.abs(hornPosition - commandedHornPosition()) < 1e-3;
+    }
+
+    private double commandedHornPosition() {
+        double scaled = scaleMin + position * (scaleMax - scaleMin);
+        return direction == Direction.FORWARD ? scaled : 1 - scaled;
+    }
+
+    void step(double dtSeconds) {
+        double target = commandedHornPosition();
+        double maxMove = dtSeconds / secondsPerFullTravel;
+        double error = target - hornPosition;
+        hornPosition += Math.max(-maxMove, Math.min(maxMove, error));
+    }
+
+    @Override
+    public void setPosition(double position) {
+        hub.write();
+        this.position = Math.max(MIN_POSITION, Math.min(MAX_POSITION, position));
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        hub.write();
+        this.direction = direction;
+    }
+
+    @Override
+    public void scaleRange(double min, double max) {
+        scaleMin = Math.max(MIN_POSITION, Math.min(MAX_POSITION, min));
+        scaleMax = Math.max(MIN_POSITION, Math.min(MAX_POSITION, max));
+    }
+
+    @Override
+    public double getPosition() {
+        return position;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public ServoController getController() {
+        return null; // There is no controller object in the simulator.
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Servo";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return hub.getName() + " servo port " + port;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        direction = Direction.FORWARD;
+        scaleMin = MIN_POSITION;
+        scaleMax = MAX_POSITION;
+    }
+
+    @Override
+    public void close() {
+    }
+}
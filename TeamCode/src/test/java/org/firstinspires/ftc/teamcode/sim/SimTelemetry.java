@@ -0,0 +1,168 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.robotcore.external.Func;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Telemetry for the simulator. Items are formatted like the real Telemetry does (so the cost of building
+ * telemetry still shows up in loop times), kept as the last frame, and counted; nothing is sent anywhere.
+ *
+ * Items, lines and the log are not modeled: addData()/addLine() return null and log() returns null,
+ * so OpModes that chain calls on those will not run in the simulator.
+ */
+public class SimTelemetry implements Telemetry {
+    private final StringBuilder pending = new StringBuilder();
+    private String lastFrame = "";
+    private long itemCount = 0;
+    private long updateCount = 0;
+    private boolean autoClear = true;
+    private int msTransmissionInterval = 250;
+    private String itemSeparator = " | ";
+    private String captionValueSeparator = " : ";
+
+    public String getLastFrame() {
+        return lastFrame;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    private Item add(String caption, String value) {
+        pending.append(caption).append(captionValueSeparator).append(value).append('\n');
+        itemCount++;
+        return null;
+    }
+
+    @Override
+    public Item addData(String caption, String format, Object... args) {
+        return add(caption, String.format(format, args));
+    }
+
+    @Override
+    public Item addData(String caption, Object value) {
+        return add(caption, String.valueOf(value));
+    }
+
+    @Override
+    public <T> Item addData(String caption, Func<T> valueProducer) {
+        return add(caption, String.valueOf(valueProducer.value()));
+    }
+
+    @Override
+    public <T> Item addData(String caption, String format, Func<T> valueProducer) {
+        return add(caption, String.format(format, valueProducer.value()));
+    }
+
+    @Override
+    public boolean removeItem(Item item) {
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        pending.setLength(0);
+    }
+
+    @Override
+    public void clearAll() {
+        pending.setLength(0);
+        lastFrame = "";
+    }
+
+    @Override
+    public Object addAction(Runnable action) {
+        return null;
+    }
+
+    @Override
+    public boolean removeAction(Object token) {
+        return false;
+    }
+
+    @Override
+    public void speak(String text) {
+    }
+
+    @Override
+    public void speak(String text, String languageCode, String countryCode) {
+    }
+
+    @Override
+    public boolean update() {
+        lastFrame = pending.toString();
+        if (autoClear) pending.setLength(0);
+        updateCount++;
+        return true;
+    }
+
+    @Override
+    public Line addLine() {
+        pending.append('\n');
+        return null;
+    }
+
+    @Override
+    public Line addLine(String lineCaption) {
+        pending.append(lineCaption).append('\n');
+        return null;
+    }
+
+    @Override
+    public boolean removeLine(Line line) {
+        return false;
+    }
+
+    @Override
+    public boolean isAutoClear() {
+        return autoClear;
+    }
+
+    @Override
+    public void setAutoClear(boolean autoClear) {
+        this.autoClear = autoClear;
+    }
+
+    @Override
+    public int getMsTransmissionInterval() {
+        return msTransmissionInterval;
+    }
+
+    @Override
+    public void setMsTransmissionInterval(int msTransmissionInterval) {
+        this.msTransmissionInterval = msTransmissionInterval;
+    }
+
+    @Override
+    public String getItemSeparator() {
+        return itemSeparator;
+    }
+
+    @Override
+    public void setItemSeparator(String itemSeparator) {
+        this.itemSeparator = itemSeparator;
+    }
+
+    @Override
+    public String getCaptionValueSeparator() {
+        return captionValueSeparator;
+    }
+
+    @Override
+    public void setCaptionValueSeparator(String captionValueSeparator) {
+        this.captionValueSeparator = captionValueSeparator;
+    }
+
+    @Override
+    public void setDisplayFormat(DisplayFormat displayFormat) {
+    }
+
+    @Override
+    public Log log() {
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+/**
+ * A simulated battery voltage sensor. The voltage sags as the motors draw more current.
+ */
+public class SimVoltageSensor implements VoltageSensor {
+    private final SimBus bus;
+    private double restingVolts = 13.0;
+    private double ohms = 0.03; // Internal resistance of the battery plus wiring.
+    private double amps = 0; // Total current drawn by the motors, set by the robot model.
+
+    public SimVoltageSensor(SimBus bus) {
+        this.bus = bus;
+    }
+
+    public SimVoltageSensor setRestingVolts(double restingVolts) {
+        this.restingVolts = restingVolts;
+        return this;
+    }
+
+    void setLoadAmps(double amps) {
+        this.amps = amps;
+    }
+
+    @Override
+    public double getVoltage() {
+        bus.transact(SimBus.Transaction.READ);
+        return restingVolts - amps * ohms;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Voltage Sensor";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "simulated hub";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
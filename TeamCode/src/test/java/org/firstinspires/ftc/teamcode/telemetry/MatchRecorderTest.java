@@ -0,0 +1,50 @@
+package org.firstinspires.ftc.teamcode.telemetry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MatchRecorderTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    // Names don't say which is newest (they start with the OpMode's name), so the modification times decide.
+    @Test
+    public void pruneKeepsTheNewestRecordings() throws IOException {
+        File directory = folder.getRoot();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 12; i++) {
+            File file = new File(directory, (i % 2 == 0 ? "A_" : "B_") + i + ".bin");
+            assertTrue(file.createNewFile());
+            assertTrue(file.setLastModified(now - (12 - i) * 60_000L));
+        }
+        File notes = folder.newFile("notes.txt");
+
+        MatchRecorder.prune(directory, 9);
+
+        for (int i = 0; i < 12; i++) {
+            File file = new File(directory, (i % 2 == 0 ? "A_" : "B_") + i + ".bin");
+            assertEquals(file.getName(), i >= 3, file.exists());
+        }
+        assertTrue(notes.exists());
+    }
+
+    @Test
+    public void disabledRecorderWritesNothing() {
+        MatchRecorder recorder = MatchRecorder.disabled();
+        recorder.getRecord().flags = 1;
+        recorder.write();
+        recorder.close();
+        assertFalse(recorder.isOpen());
+        assertNull(recorder.getFile());
+        assertEquals(0, recorder.getCount());
+    }
+}
@@ -0,0 +1,40 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.junit.Test;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeNoException;
+import static org.junit.Assume.assumeNotNull;
+
+public class VisionReplayTest {
+    // ./gradlew :TeamCode:test -PreplayFrames=<folder of recorded frames>, with OpenCV's desktop library on
+    // java.library.path. Prints one line per configuration.
+    @Test
+    public void replaysGivenFrames() {
+        String folder = System.getProperty("teamcode.replayFrames");
+        assumeNotNull(folder);
+        try {
+            System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+        } catch (UnsatisfiedLinkError e) {
+            assumeNoException("OpenCV's desktop library is not on java.library.path", e);
+        }
+
+        List<Mat> frames = VisionReplay.loadFrames(new File(folder));
+        assertFalse("no .png or .jpg frames in " + folder, frames.isEmpty());
+        for (VisionReplay.Configuration configuration : VisionReplay.configurations()) {
+            try {
+                System.out.println(VisionReplay.run(configuration, frames));
+            } catch (RuntimeException | LinkageError e) { // "Stub!" from android.jar, or a missing native library.
+                System.out.printf("%-36s unavailable on this computer (%s)%n", configuration.getName(), e);
+            }
+        }
+        for (Mat frame : frames) {
+            frame.release();
+        }
+    }
+}